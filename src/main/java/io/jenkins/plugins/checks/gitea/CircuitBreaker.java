@@ -0,0 +1,206 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stops sending requests to a Gitea server that is unavailable. The circuit of a server opens after the configured
+ * number of consecutive failures; while it is open, requests fail fast with a {@link ServerUnavailableException}
+ * instead of waiting for a connection timeout. After the configured duration a single request is let through to
+ * probe the server: if it succeeds the circuit closes again, otherwise it stays open for another period.
+ */
+final class CircuitBreaker {
+    private static final Logger LOGGER = Logger.getLogger(CircuitBreaker.class.getName());
+
+    private static final CircuitBreaker INSTANCE = new CircuitBreaker(
+            () -> GiteaChecksGlobalConfiguration.get().getCircuitBreakerThreshold(),
+            () -> GiteaChecksGlobalConfiguration.get().getCircuitBreakerDuration(),
+            System::nanoTime);
+
+    private final IntSupplier failureThreshold;
+    private final IntSupplier openDurationSeconds;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    CircuitBreaker(
+            final IntSupplier failureThreshold, final IntSupplier openDurationSeconds, final LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationSeconds = openDurationSeconds;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the circuit breaker shared by all publishers of this controller.
+     *
+     * @return the shared circuit breaker
+     */
+    static CircuitBreaker get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether a request may be sent to the Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @throws ServerUnavailableException
+     *         if the circuit of the server is open
+     */
+    void acquire(final String serverUrl) throws ServerUnavailableException {
+        if (failureThreshold.getAsInt() <= 0) {
+            return;
+        }
+
+        long remaining = getCircuit(serverUrl).acquire(nanoClock.getAsLong(), getOpenDuration());
+        if (remaining > 0) {
+            GiteaChecksMetrics.get().recordRejected();
+            throw new ServerUnavailableException(serverUrl, TimeUnit.NANOSECONDS.toMillis(remaining));
+        }
+    }
+
+    /**
+     * Records a request that reached the Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     */
+    void recordSuccess(final String serverUrl) {
+        Circuit circuit = circuits.get(serverUrl);
+        if (circuit != null && circuit.recordSuccess()) {
+            LOGGER.log(Level.INFO, "Gitea server {0} is available again", serverUrl);
+        }
+    }
+
+    /**
+     * Records a request that has been let through but ended without telling whether the Gitea server is available,
+     * e.g. because it has been interrupted. If the request was the probe of an open circuit, the next request is let
+     * through as a new probe right away instead of after another open period.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     */
+    void release(final String serverUrl) {
+        Circuit circuit = circuits.get(serverUrl);
+        if (circuit != null) {
+            circuit.release(nanoClock.getAsLong());
+        }
+    }
+
+    /**
+     * Records a request that failed because the Gitea server is not available.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     */
+    void recordFailure(final String serverUrl) {
+        int threshold = failureThreshold.getAsInt();
+        if (threshold <= 0) {
+            return;
+        }
+
+        if (getCircuit(serverUrl).recordFailure(threshold, nanoClock.getAsLong(), getOpenDuration())) {
+            LOGGER.log(
+                    Level.WARNING,
+                    "Gitea server {0} is unavailable, requests fail fast for {1} seconds",
+                    new Object[] {serverUrl, openDurationSeconds.getAsInt()});
+        }
+    }
+
+    private Circuit getCircuit(final String serverUrl) {
+        return circuits.computeIfAbsent(serverUrl, url -> new Circuit());
+    }
+
+    private long getOpenDuration() {
+        return TimeUnit.SECONDS.toNanos(Math.max(1, openDurationSeconds.getAsInt()));
+    }
+
+    /**
+     * The state of the circuit of a single server.
+     */
+    private static final class Circuit {
+        private int consecutiveFailures;
+        private boolean open;
+        private boolean probing;
+        private long openUntil;
+
+        /**
+         * Returns the remaining time the circuit is open, or 0 if the request may be sent. Once the circuit has been
+         * open long enough, the next request is sent as a probe, all others fail until the probe completes. A probe
+         * that does not complete within the open duration is replaced by a new one.
+         */
+        synchronized long acquire(final long now, final long openDuration) {
+            if (!open) {
+                return 0;
+            }
+            long remaining = openUntil - now;
+            if (remaining > 0) {
+                return remaining;
+            }
+            openUntil = now + openDuration;
+            probing = true;
+            return 0;
+        }
+
+        synchronized boolean recordSuccess() {
+            boolean wasOpen = open;
+            consecutiveFailures = 0;
+            open = false;
+            probing = false;
+            return wasOpen;
+        }
+
+        synchronized void release(final long now) {
+            if (probing) {
+                probing = false;
+                openUntil = now;
+            }
+        }
+
+        synchronized boolean recordFailure(final int threshold, final long now, final long openDuration) {
+            consecutiveFailures++;
+            probing = false;
+            if (open) {
+                openUntil = now + openDuration;
+                return false;
+            }
+            if (consecutiveFailures >= threshold) {
+                open = true;
+                openUntil = now + openDuration;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Thrown if a request is not sent since the Gitea server is unavailable.
+     */
+    static final class ServerUnavailableException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final long retryAfter;
+
+        ServerUnavailableException(final String serverUrl, final long retryAfter) {
+            super("Gitea server " + serverUrl + " is unavailable, retry in " + retryAfter + " ms");
+
+            this.retryAfter = retryAfter;
+        }
+
+        /**
+         * Returns the time until the next request to the server will be let through.
+         *
+         * @return the time in milliseconds
+         */
+        long getRetryAfter() {
+            return retryAfter;
+        }
+    }
+}
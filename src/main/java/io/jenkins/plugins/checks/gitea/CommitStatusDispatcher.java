@@ -0,0 +1,336 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import hudson.init.Terminator;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+/**
+ * Dispatches {@link PendingCommitStatus}es asynchronously: statuses are put into a bounded queue that is shared by
+ * all builds of the controller and sent to Gitea by a small pool of worker threads. Virtual threads are used for the
+ * workers if the Java runtime supports them.
+ *
+ * <p>
+ * Statuses that could not be sent because of a transient failure are retried according to the {@link RetryPolicy}.
+ * Retries wait on a timer thread and are put back into the queue without blocking, so neither builds nor workers are
+ * held up by a failing server.
+ * </p>
+ *
+ * <p>
+ * A worker sends the queued statuses of the same commit together in a single batch, see
+ * {@link CommitStatusSender#sendBatch(List)}. If no other statuses are queued, the worker waits for a short time
+ * for more statuses of the commit, e.g. the statuses of parallel stages that complete at about the same time.
+ * Statuses of the same commit and context are never sent by two workers at the same time.
+ * </p>
+ *
+ * <p>
+ * Statuses that have been delivered are acknowledged in the {@link StatusOutbox}. Statuses that have been discarded
+ * or whose retries have been exhausted stay in the outbox and are redelivered later.
+ * </p>
+ */
+public final class CommitStatusDispatcher {
+    private static final Logger LOGGER = Logger.getLogger(CommitStatusDispatcher.class.getName());
+    private static final String THREAD_NAME = "Gitea checks publisher";
+    private static final int BATCH_SIZE =
+            SystemProperties.getInteger(CommitStatusDispatcher.class.getName() + ".batchSize", 10);
+    private static final long BATCH_WINDOW = TimeUnit.MILLISECONDS.toNanos(
+            SystemProperties.getLong(CommitStatusDispatcher.class.getName() + ".batchWindowMillis", 20L));
+
+    private static final CommitStatusDispatcher INSTANCE = new CommitStatusDispatcher(
+            new CommitStatusSender(GiteaConnectionPool.get(), PublishedStatusCache.get()),
+            () -> GiteaChecksGlobalConfiguration.get().getDispatchQueueCapacity(),
+            () -> GiteaChecksGlobalConfiguration.get().getDispatchWorkers(),
+            () -> GiteaChecksGlobalConfiguration.get().getQueueFullPolicy());
+    private static final CommitStatusDispatcher MIRRORS = new CommitStatusDispatcher(
+            new CommitStatusSender(GiteaConnectionPool.get(), PublishedStatusCache.forMirrors()),
+            () -> GiteaChecksGlobalConfiguration.get().getDispatchQueueCapacity(),
+            () -> GiteaChecksGlobalConfiguration.get().getDispatchWorkers(),
+            () -> QueueFullPolicy.DISCARD);
+
+    private final CommitStatusSender sender;
+    private final StatusQueue queue;
+    private final IntSupplier workerCount;
+    private final Supplier<QueueFullPolicy> queueFullPolicy;
+    private final RetryPolicy retryPolicy;
+    private final Supplier<ScheduledExecutorService> scheduler;
+    private final ThreadFactory threadFactory = createThreadFactory();
+    private final List<Thread> workers = new ArrayList<>();
+
+    @VisibleForTesting
+    CommitStatusDispatcher(
+            final CommitStatusSender sender,
+            final IntSupplier queueCapacity,
+            final IntSupplier workerCount,
+            final Supplier<QueueFullPolicy> queueFullPolicy) {
+        this(sender, queueCapacity, workerCount, queueFullPolicy, new RetryPolicy(), Timer::get);
+    }
+
+    @VisibleForTesting
+    CommitStatusDispatcher(
+            final CommitStatusSender sender,
+            final IntSupplier queueCapacity,
+            final IntSupplier workerCount,
+            final Supplier<QueueFullPolicy> queueFullPolicy,
+            final RetryPolicy retryPolicy,
+            final Supplier<ScheduledExecutorService> scheduler) {
+        this.sender = sender;
+        this.queue = new StatusQueue(queueCapacity);
+        this.workerCount = workerCount;
+        this.queueFullPolicy = queueFullPolicy;
+        this.retryPolicy = retryPolicy;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the dispatcher shared by all publishers of this controller.
+     *
+     * @return the shared dispatcher
+     */
+    static CommitStatusDispatcher get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the dispatcher for the statuses of the mirrors of Gitea servers. The dispatcher has a queue and workers
+     * of its own and discards statuses if its queue is full, so that mirrors never hold up the statuses of the
+     * primary servers or the builds.
+     *
+     * @return the shared dispatcher for mirrors
+     */
+    static CommitStatusDispatcher forMirrors() {
+        return MIRRORS;
+    }
+
+    /**
+     * Queues the status for asynchronous delivery. If the queue is full, the call either waits for space or discards
+     * the status, depending on the configured {@link QueueFullPolicy}. A status that does not get space within the
+     * timeout is discarded as well.
+     *
+     * @param status
+     *         the status to send
+     * @param timeoutMillis
+     *         the maximum time in milliseconds to wait for space in the queue, 0 to wait without limit
+     * @return {@code true} if the status has been queued, {@code false} if it has been discarded
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting for space in the queue
+     */
+    boolean submit(final PendingCommitStatus status, final long timeoutMillis) throws InterruptedException {
+        startWorkers();
+
+        if (queueFullPolicy.get() == QueueFullPolicy.BLOCK) {
+            try {
+                if (timeoutMillis <= 0) {
+                    queue.put(status);
+                    return true;
+                }
+                if (queue.offer(status, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException exception) {
+                StatusOutbox.get().defer(status);
+                throw exception;
+            }
+        } else if (queue.offer(status)) {
+            return true;
+        }
+
+        LOGGER.log(Level.WARNING, "Discarded Gitea check because the dispatch queue is full: {0}", status);
+        GiteaChecksMetrics.get().recordDiscarded();
+        StatusOutbox.get().defer(status);
+        return false;
+    }
+
+    /**
+     * Queues a status from the {@link StatusOutbox} for another delivery without waiting for space in the queue.
+     *
+     * @param status
+     *         the status to send
+     * @return {@code true} if the status has been queued, {@code false} if the queue is full
+     */
+    boolean resubmit(final PendingCommitStatus status) {
+        startWorkers();
+
+        return queue.offer(status);
+    }
+
+    /**
+     * Schedules another attempt to send the status if it failed because of a transient failure and the maximum number
+     * of retries has not been reached yet. Otherwise, the status is left in the {@link StatusOutbox} for a later
+     * delivery if the failure is transient, or removed from it if the server rejected the status.
+     *
+     * @param status
+     *         the status that could not be sent
+     * @param failure
+     *         the cause of the failure
+     * @return the delay in milliseconds after which the status is retried, or a negative value if it is not retried
+     */
+    long retry(final PendingCommitStatus status, final Exception failure) {
+        long delay = retryPolicy.getRetryDelay(status, failure);
+        if (delay >= 0) {
+            PendingCommitStatus next = status.nextAttempt();
+            scheduler.get().schedule(() -> requeue(next), delay, TimeUnit.MILLISECONDS);
+        } else if (RetryPolicy.isTransient(failure)) {
+            StatusOutbox.get().defer(status);
+        } else {
+            StatusOutbox.get().acknowledge(status);
+        }
+        return delay;
+    }
+
+    /**
+     * Returns the number of statuses waiting to be sent.
+     *
+     * @return the number of queued statuses
+     */
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of queued statuses that have been replaced by a newer status for the same commit and context.
+     *
+     * @return the number of coalesced statuses
+     */
+    long getCoalescedCount() {
+        return queue.getCoalescedCount();
+    }
+
+    /**
+     * Stops all worker threads. Statuses that are still queued are not sent.
+     */
+    synchronized void shutdown() {
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    private synchronized void startWorkers() {
+        while (workers.size() < workerCount.getAsInt()) {
+            Thread worker = threadFactory.newThread(this::work);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    private void work() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                PendingCommitStatus head = queue.take();
+                List<PendingCommitStatus> batch = new ArrayList<>();
+                batch.add(head);
+                batch.addAll(queue.drainSameCommit(head, BATCH_SIZE - 1, BATCH_WINDOW));
+                try {
+                    deliver(batch);
+                } finally {
+                    queue.release(batch);
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(final List<PendingCommitStatus> batch) throws InterruptedException {
+        if (batch.size() == 1) {
+            deliver(batch.get(0));
+            return;
+        }
+
+        Map<PendingCommitStatus, Exception> failures;
+        try {
+            failures = sender.sendBatch(batch);
+        } catch (InterruptedException exception) {
+            batch.forEach(StatusOutbox.get()::defer);
+            throw exception;
+        }
+        for (PendingCommitStatus status : batch) {
+            Exception failure = failures.get(status);
+            if (failure == null) {
+                StatusOutbox.get().acknowledge(status);
+
+                LOGGER.fine("Published check for " + status);
+            } else {
+                handleFailure(status, failure);
+            }
+        }
+    }
+
+    private void deliver(final PendingCommitStatus status) {
+        try {
+            sender.send(status);
+            StatusOutbox.get().acknowledge(status);
+
+            LOGGER.fine("Published check for " + status);
+        } catch (IOException | RuntimeException exception) {
+            handleFailure(status, exception);
+        } catch (InterruptedException exception) {
+            StatusOutbox.get().defer(status);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleFailure(final PendingCommitStatus status, final Exception failure) {
+        long delay = retry(status, failure);
+        if (delay >= 0) {
+            LOGGER.log(
+                    Level.INFO,
+                    String.format("Failed Publishing Gitea checks, retrying in %d ms: %s", delay, status),
+                    failure);
+        } else {
+            LOGGER.log(Level.WARNING, "Failed Publishing Gitea checks: " + status, failure);
+        }
+    }
+
+    private void requeue(final PendingCommitStatus status) {
+        startWorkers();
+
+        if (!queue.offer(status)) {
+            LOGGER.log(
+                    Level.WARNING, "Discarded retry of Gitea check because the dispatch queue is full: {0}", status);
+            GiteaChecksMetrics.get().recordDiscarded();
+            StatusOutbox.get().defer(status);
+        }
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME + " ", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException exception) {
+            return new NamingThreadFactory(new DaemonThreadFactory(), THREAD_NAME);
+        }
+    }
+
+    /**
+     * Stops the workers when Jenkins shuts down.
+     */
+    @Terminator
+    public static void terminate() {
+        INSTANCE.shutdown();
+        MIRRORS.shutdown();
+    }
+
+    /**
+     * Determines what happens when a status is submitted while the dispatch queue is full.
+     */
+    public enum QueueFullPolicy {
+        /** Waits until the workers have made room in the queue. */
+        BLOCK,
+        /** Discards the new status. */
+        DISCARD
+    }
+}
@@ -0,0 +1,252 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import io.jenkins.plugins.checks.gitea.CircuitBreaker.ServerUnavailableException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import org.jenkinsci.plugin.gitea.client.api.GiteaConnection;
+
+/**
+ * Sends {@link PendingCommitStatus}es to the Gitea server using pooled connections and remembers the sent statuses in
+ * the {@link PublishedStatusCache}. Retries of statuses that have been superseded by a newer published status are
+ * skipped. The requests to each server are limited by the {@link RateLimiter}, requests to servers that are unavailable
+ * are rejected by the {@link CircuitBreaker}. Statuses of the same commit can be sent in a batch that leases a single
+ * connection. If the {@link StatusTransport#HTTP2} transport is configured, the statuses are sent with the shared
+ * {@link HttpStatusClient} instead of the pooled connections, and the statuses of a batch are sent concurrently.
+ */
+class CommitStatusSender {
+    private static final Logger LOGGER = Logger.getLogger(CommitStatusSender.class.getName());
+
+    private final GiteaConnectionPool connectionPool;
+    private final PublishedStatusCache publishedStatuses;
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final GiteaChecksMetrics metrics;
+    private final HttpStatusClient httpClient;
+    private final Supplier<StatusTransport> transport;
+
+    CommitStatusSender(final GiteaConnectionPool connectionPool, final PublishedStatusCache publishedStatuses) {
+        this(
+                connectionPool,
+                publishedStatuses,
+                RateLimiter.get(),
+                CircuitBreaker.get(),
+                GiteaChecksMetrics.get(),
+                HttpStatusClient.get(),
+                () -> GiteaChecksGlobalConfiguration.get().getTransport());
+    }
+
+    @VisibleForTesting
+    CommitStatusSender(
+            final GiteaConnectionPool connectionPool,
+            final PublishedStatusCache publishedStatuses,
+            final RateLimiter rateLimiter,
+            final CircuitBreaker circuitBreaker,
+            final GiteaChecksMetrics metrics) {
+        this(
+                connectionPool,
+                publishedStatuses,
+                rateLimiter,
+                circuitBreaker,
+                metrics,
+                HttpStatusClient.get(),
+                () -> StatusTransport.GITEA_CLIENT);
+    }
+
+    @VisibleForTesting
+    CommitStatusSender(
+            final GiteaConnectionPool connectionPool,
+            final PublishedStatusCache publishedStatuses,
+            final RateLimiter rateLimiter,
+            final CircuitBreaker circuitBreaker,
+            final GiteaChecksMetrics metrics,
+            final HttpStatusClient httpClient,
+            final Supplier<StatusTransport> transport) {
+        this.connectionPool = connectionPool;
+        this.publishedStatuses = publishedStatuses;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+        this.httpClient = httpClient;
+        this.transport = transport;
+    }
+
+    /**
+     * Creates the commit status on the Gitea server.
+     *
+     * @param pending
+     *         the status to send
+     * @throws IOException
+     *         if the status could not be sent
+     * @throws InterruptedException
+     *         if the current thread has been interrupted
+     */
+    void send(final PendingCommitStatus pending) throws IOException, InterruptedException {
+        Exception failure = sendBatch(List.of(pending)).get(pending);
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    /**
+     * Creates the commit statuses of a single commit on the Gitea server, one after the other using the same
+     * connection, or all at once with the {@link StatusTransport#HTTP2} transport. All statuses must
+     * {@linkplain PendingCommitStatus#isSameCommit belong to the same commit}. If the server rejects a status, the
+     * remaining statuses are still sent; if the server fails, the remaining statuses are not sent and fail with the
+     * same cause.
+     *
+     * @param batch
+     *         the statuses to send
+     * @return the statuses that could not be sent, mapped to the cause of the failure
+     * @throws InterruptedException
+     *         if the current thread has been interrupted
+     */
+    Map<PendingCommitStatus, Exception> sendBatch(final List<PendingCommitStatus> batch) throws InterruptedException {
+        Map<PendingCommitStatus, Exception> failures = new ConcurrentHashMap<>();
+        List<PendingCommitStatus> pending = new ArrayList<>(batch.size());
+        for (PendingCommitStatus status : batch) {
+            if (status.getAttempt() > 0 && publishedStatuses.isDelivered(status)) {
+                LOGGER.fine(() -> "Skipped retry of check that has been delivered or superseded: " + status);
+            } else {
+                pending.add(status);
+            }
+        }
+        if (pending.isEmpty()) {
+            return failures;
+        }
+
+        PendingCommitStatus first = pending.get(0);
+        String serverUrl = first.getServerUrl();
+        try {
+            circuitBreaker.acquire(serverUrl);
+        } catch (ServerUnavailableException exception) {
+            pending.forEach(status -> failures.put(status, exception));
+            return failures;
+        }
+
+        long start = System.nanoTime();
+        List<PendingCommitStatus> published = Collections.synchronizedList(new ArrayList<>(pending.size()));
+        boolean recorded = false;
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                rateLimiter.acquire(serverUrl);
+            }
+            if (transport.get() == StatusTransport.HTTP2) {
+                sendConcurrently(pending, published, failures);
+            } else {
+                connectionPool.execute(serverUrl, first.getCredentials(), connection -> {
+                    for (PendingCommitStatus status : pending) {
+                        try {
+                            connectionPool.request(serverUrl, "Publishing " + status, () -> {
+                                createCommitStatus(connection, status);
+                                publishedStatuses.recordPublished(status); // even if the read timeout has elapsed
+                                return null;
+                            });
+                            published.add(status);
+                        } catch (IOException exception) {
+                            if (RetryPolicy.isTransient(exception)) {
+                                throw exception;
+                            }
+                            failures.put(status, exception); // the server is available but rejected the status
+                        }
+                    }
+                    return null;
+                });
+            }
+            circuitBreaker.recordSuccess(serverUrl);
+            recorded = true;
+        } catch (IOException | RuntimeException exception) {
+            // a rejection because of too many requests in progress on this controller says nothing about the server
+            if (RetryPolicy.isTransient(exception) && !(exception instanceof TimeLimiter.SaturatedException)) {
+                circuitBreaker.recordFailure(serverUrl);
+                recorded = true;
+            }
+            pending.stream()
+                    .filter(status -> !published.contains(status) && !failures.containsKey(status))
+                    .forEach(status -> failures.put(status, exception));
+        } catch (InterruptedException exception) {
+            pending.stream()
+                    .filter(status -> !published.contains(status))
+                    .forEach(status -> metrics.recordFailed(status.getStatus().getState()));
+            throw exception;
+        } finally {
+            if (!recorded) {
+                circuitBreaker.release(serverUrl); // let the next request probe the server if this was the probe
+            }
+        }
+
+        long duration = System.nanoTime() - start;
+        for (PendingCommitStatus status : pending) {
+            if (failures.containsKey(status)) {
+                metrics.recordFailed(status.getStatus().getState());
+            } else {
+                metrics.recordPublished(status.getStatus().getState(), duration);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Sends all statuses at once with the HTTP client and waits for the responses. Statuses that the server rejected
+     * are added to the failures, if any status failed because of a transient failure, the first of these failures is
+     * thrown after all responses have been received.
+     */
+    private void sendConcurrently(
+            final List<PendingCommitStatus> pending,
+            final List<PendingCommitStatus> published,
+            final Map<PendingCommitStatus, Exception> failures)
+            throws IOException, InterruptedException {
+        long requestStart = System.nanoTime();
+        List<CompletableFuture<Void>> requests = new ArrayList<>(pending.size());
+        for (PendingCommitStatus status : pending) {
+            requests.add(httpClient.createCommitStatus(status));
+        }
+
+        IOException transientFailure = null;
+        for (int i = 0; i < pending.size(); i++) {
+            PendingCommitStatus status = pending.get(i);
+            try {
+                requests.get(i).get();
+                published.add(status);
+                publishedStatuses.recordPublished(status);
+            } catch (InterruptedException exception) {
+                requests.forEach(request -> request.cancel(true));
+                throw exception;
+            } catch (ExecutionException exception) {
+                Exception cause = exception.getCause() instanceof Exception
+                        ? (Exception) exception.getCause()
+                        : new IOException(exception.getCause());
+                failures.put(status, cause);
+                if (transientFailure == null && cause instanceof IOException && RetryPolicy.isTransient(cause)) {
+                    transientFailure = (IOException) cause;
+                }
+            } finally {
+                metrics.recordHttpRequest(System.nanoTime() - requestStart);
+            }
+        }
+        if (transientFailure != null) {
+            throw transientFailure;
+        }
+    }
+
+    private void createCommitStatus(final GiteaConnection connection, final PendingCommitStatus status)
+            throws IOException, InterruptedException {
+        long requestStart = System.nanoTime();
+        try {
+            connection.createCommitStatus(status.getRepoOwner(), status.getRepo(), status.getSha(), status.getStatus());
+        } finally {
+            metrics.recordHttpRequest(System.nanoTime() - requestStart);
+        }
+    }
+}
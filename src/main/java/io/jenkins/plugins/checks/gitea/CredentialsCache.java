@@ -0,0 +1,186 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.cloudbees.plugins.credentials.Credentials;
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.common.IdCredentials;
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import com.cloudbees.plugins.credentials.domains.Domain;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import jenkins.util.SystemProperties;
+
+/**
+ * Caches the result of credentials lookups for a short time, so that validating a context and publishing a status do
+ * not need to search all credential stores of a job again and again. When a credential store is saved, the entries of
+ * the jobs that can see the store are invalidated.
+ */
+public final class CredentialsCache {
+    private static final long TIME_TO_LIVE = TimeUnit.SECONDS.toNanos(
+            SystemProperties.getLong(CredentialsCache.class.getName() + ".timeToLiveSeconds", 30L));
+    private static final int MAXIMUM_SIZE = 1000;
+
+    private static final CredentialsCache INSTANCE = new CredentialsCache(TIME_TO_LIVE, System::nanoTime);
+
+    private final long timeToLive;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    CredentialsCache(final long timeToLive, final LongSupplier nanoClock) {
+        this.timeToLive = timeToLive;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the cache shared by all jobs of this controller.
+     *
+     * @return the shared cache
+     */
+    static CredentialsCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached credentials with the ID for the job, looking them up if they are not cached or expired.
+     *
+     * @param job
+     *         the job that uses the credentials
+     * @param credentialsId
+     *         the ID of the credentials
+     * @param lookup
+     *         looks up the credentials in the credential stores
+     * @return the found credentials or empty
+     */
+    Optional<StandardCredentials> find(
+            final Job<?, ?> job,
+            final String credentialsId,
+            final Supplier<Optional<StandardCredentials>> lookup) {
+        Key key = new Key(job.getFullName(), credentialsId);
+        long now = nanoClock.getAsLong();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry.credentials;
+        }
+
+        Optional<StandardCredentials> credentials = lookup.get();
+        if (entries.size() >= MAXIMUM_SIZE) {
+            entries.values().removeIf(expired -> expired.expiresAt - now <= 0);
+            if (entries.size() >= MAXIMUM_SIZE) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(credentials, now + timeToLive));
+        return credentials;
+    }
+
+    /**
+     * Removes all cached credentials.
+     */
+    void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Removes the cached credentials of the jobs within the folder.
+     *
+     * @param folderName
+     *         the full name of the folder
+     */
+    void invalidate(final String folderName) {
+        String prefix = folderName + '/';
+        entries.keySet().removeIf(key -> key.jobName != null && key.jobName.startsWith(prefix));
+    }
+
+    /**
+     * Invalidates the cache and the pooled connections when a credential store is saved. Credentials are stored
+     * globally or in folders; user credentials are not visible to the system lookups of this plugin. Only the entries
+     * of the jobs that can see the store and the connections opened with credentials of the store are evicted.
+     */
+    @Extension
+    public static final class CredentialStoreSaveListener extends SaveableListener {
+        @Override
+        public void onChange(final Saveable o, final XmlFile file) {
+            if (o instanceof SystemCredentialsProvider) {
+                get().invalidateAll();
+                GiteaConnectionPool.get().evict(getCredentialsIds(((SystemCredentialsProvider) o).getStore()));
+            } else if (o instanceof Item && o instanceof ItemGroup) {
+                for (CredentialsStore store : CredentialsProvider.lookupStores((Item) o)) {
+                    if (store.getContext() == o) {
+                        get().invalidate(((Item) o).getFullName());
+                        GiteaConnectionPool.get().evict(getCredentialsIds(store));
+                    }
+                }
+            }
+        }
+
+        private static Set<String> getCredentialsIds(final CredentialsStore store) {
+            Set<String> ids = new HashSet<>();
+            for (Domain domain : store.getDomains()) {
+                for (Credentials credentials : store.getCredentials(domain)) {
+                    if (credentials instanceof IdCredentials) {
+                        ids.add(((IdCredentials) credentials).getId());
+                    }
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static final class Key {
+        @CheckForNull
+        private final String jobName;
+
+        private final String credentialsId;
+
+        Key(@CheckForNull final String jobName, final String credentialsId) {
+            this.jobName = jobName;
+            this.credentialsId = credentialsId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(jobName, key.jobName) && credentialsId.equals(key.credentialsId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jobName, credentialsId);
+        }
+    }
+
+    private static final class Entry {
+        private final Optional<StandardCredentials> credentials;
+        private final long expiresAt;
+
+        Entry(final Optional<StandardCredentials> credentials, final long expiresAt) {
+            this.credentials = credentials;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.jenkins.plugins.checks.gitea;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The lines that have been added or changed by a pull request, indexed by the path of the file. The index is built
+ * from the unified diff of the pull request in a single pass without keeping the diff in memory, the lines of each file
+ * are stored in a {@link BitSet}, so that looking up a line takes constant time.
+ */
+final class DiffIndex {
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -\\d+(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@.*");
+    private static final String NEW_FILE = "+++ ";
+    private static final String DELETED_FILE = "/dev/null";
+
+    private final Map<String, BitSet> changedLines;
+
+    private DiffIndex(final Map<String, BitSet> changedLines) {
+        this.changedLines = changedLines;
+    }
+
+    /**
+     * Reads the unified diff of a pull request, as returned by Gitea for {@code pulls/{index}.diff}.
+     *
+     * @param diff
+     *         the reader of the diff
+     * @return the index of the changed lines
+     * @throws IOException
+     *         if the diff could not be read
+     */
+    static DiffIndex parse(final BufferedReader diff) throws IOException {
+        Map<String, BitSet> changedLines = new HashMap<>();
+        BitSet lines = null;
+        int remainingOld = 0;
+        int remainingNew = 0;
+        int line = 0;
+
+        for (String text = diff.readLine(); text != null; text = diff.readLine()) {
+            if (remainingOld > 0 || remainingNew > 0) {
+                if (text.startsWith("+")) {
+                    if (lines != null) {
+                        lines.set(line);
+                    }
+                    line++;
+                    remainingNew--;
+                } else if (text.startsWith("-")) {
+                    remainingOld--;
+                } else if (!text.startsWith("\\")) { // "\ No newline at end of file" belongs to the previous line
+                    line++;
+                    remainingOld--;
+                    remainingNew--;
+                }
+                continue;
+            }
+
+            if (text.startsWith(NEW_FILE)) {
+                String path = parsePath(text.substring(NEW_FILE.length()));
+                lines = path == null ? null : changedLines.computeIfAbsent(path, key -> new BitSet());
+                continue;
+            }
+
+            Matcher hunk = HUNK_HEADER.matcher(text);
+            if (hunk.matches()) {
+                remainingOld = parseCount(hunk.group(1));
+                line = Integer.parseInt(hunk.group(2));
+                remainingNew = parseCount(hunk.group(3));
+            }
+        }
+        changedLines.values().removeIf(BitSet::isEmpty);
+
+        return new DiffIndex(changedLines);
+    }
+
+    private static String parsePath(final String target) {
+        String path = StringUtils.substringBefore(target, '\t');
+        if (path.startsWith("\"") && path.endsWith("\"") && path.length() > 1) {
+            path = path.substring(1, path.length() - 1);
+        }
+        if (DELETED_FILE.equals(path)) {
+            return null;
+        }
+        return StringUtils.removeStart(path, "b/");
+    }
+
+    private static int parseCount(final String count) {
+        return count == null ? 1 : Integer.parseInt(count);
+    }
+
+    /**
+     * Returns the first line in the given range that has been added or changed by the pull request.
+     *
+     * @param path
+     *         the path of the file, relative to the root of the repository
+     * @param startLine
+     *         the first line of the range
+     * @param endLine
+     *         the last line of the range
+     * @return the first changed line of the range, or -1 if no line of the range has been changed
+     */
+    int findChangedLine(final String path, final int startLine, final int endLine) {
+        BitSet lines = changedLines.get(path);
+        if (lines == null || startLine < 0) {
+            return -1;
+        }
+
+        int line = lines.nextSetBit(startLine);
+        return line >= 0 && line <= Math.max(startLine, endLine) ? line : -1;
+    }
+
+    /**
+     * Returns the number of files that have lines that have been added or changed by the pull request.
+     *
+     * @return the number of changed files
+     */
+    int getFileCount() {
+        return changedLines.size();
+    }
+}
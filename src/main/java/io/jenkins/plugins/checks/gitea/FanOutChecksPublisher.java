@@ -0,0 +1,128 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.checks.api.ChecksDetails;
+import io.jenkins.plugins.checks.api.ChecksPublisher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+
+/**
+ * Publishes the checks of a run that checks out several Gitea repositories to all of them. The first publisher runs in
+ * the calling thread, all others run concurrently on a bounded executor that is shared by all runs, so that publishing
+ * to several repositories takes about as long as publishing to the slowest one. If the queue of the executor is full,
+ * the publisher runs in the calling thread instead. The call returns when all publishers are done, so that the
+ * statuses of subsequent publications of the run do not overtake each other, but waits at most for the configured
+ * publish timeout; publishers that take longer complete in the background.
+ */
+final class FanOutChecksPublisher extends ChecksPublisher {
+    private static final Logger LOGGER = Logger.getLogger(FanOutChecksPublisher.class.getName());
+
+    private static final int THREADS =
+            SystemProperties.getInteger(FanOutChecksPublisher.class.getName() + ".threads", 4);
+
+    private static final int QUEUE_CAPACITY =
+            SystemProperties.getInteger(FanOutChecksPublisher.class.getName() + ".queueCapacity", 100);
+
+    private static final Executor EXECUTOR = createExecutor(THREADS, QUEUE_CAPACITY);
+
+    private final List<? extends ChecksPublisher> publishers;
+    private final Executor executor;
+    private final LongSupplier publishTimeout;
+
+    /**
+     * Creates a publisher that publishes to all of the given publishers.
+     *
+     * @param publishers
+     *         the publishers of the repositories, must not be empty
+     */
+    FanOutChecksPublisher(final List<? extends ChecksPublisher> publishers) {
+        this(
+                publishers,
+                EXECUTOR,
+                () -> TimeUnit.SECONDS.toMillis(GiteaChecksGlobalConfiguration.get().getPublishTimeout()));
+    }
+
+    @VisibleForTesting
+    FanOutChecksPublisher(
+            final List<? extends ChecksPublisher> publishers,
+            final Executor executor,
+            final LongSupplier publishTimeout) {
+        super();
+
+        if (publishers.isEmpty()) {
+            throw new IllegalArgumentException("No publishers to fan out to");
+        }
+        this.publishers = List.copyOf(publishers);
+        this.executor = executor;
+        this.publishTimeout = publishTimeout;
+    }
+
+    @Override
+    public void publish(final ChecksDetails details) {
+        List<CompletableFuture<Void>> others = new ArrayList<>(publishers.size() - 1);
+        for (ChecksPublisher publisher : publishers.subList(1, publishers.size())) {
+            others.add(CompletableFuture.runAsync(() -> publisher.publish(details), executor));
+        }
+
+        try {
+            publishers.get(0).publish(details);
+        } finally {
+            await(others, publishTimeout.getAsLong());
+        }
+    }
+
+    /**
+     * Waits until the publishers are done, but at most for the timeout in milliseconds; 0 waits without a limit.
+     */
+    private static void await(final List<CompletableFuture<Void>> futures, final long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                if (timeout > 0) {
+                    future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } else {
+                    future.get();
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt(); // the remaining publishers complete in the background
+                return;
+            } catch (TimeoutException exception) {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Publishing Gitea checks to a repository did not complete within {0} seconds, continuing in"
+                                + " the background",
+                        TimeUnit.MILLISECONDS.toSeconds(timeout));
+                return;
+            } catch (ExecutionException exception) {
+                LOGGER.log(Level.WARNING, "Failed publishing Gitea checks to a repository", exception.getCause());
+            }
+        }
+    }
+
+    @VisibleForTesting
+    static ThreadPoolExecutor createExecutor(final int threads, final int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                Math.max(1, threads),
+                Math.max(1, threads),
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new NamingThreadFactory(new DaemonThreadFactory(), "Gitea checks fan-out"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
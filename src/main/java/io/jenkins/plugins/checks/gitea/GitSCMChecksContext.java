@@ -9,12 +9,11 @@ import hudson.plugins.git.GitSCM;
 import hudson.plugins.git.Revision;
 import hudson.plugins.git.UserRemoteConfig;
 import hudson.plugins.git.util.BuildData;
+import io.jenkins.plugins.checks.gitea.RepositoryUrlParser.RepositoryUrl;
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.util.List;
 import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * Provides a {@link GiteaChecksContext} for a Jenkins job that uses a supported
@@ -23,6 +22,12 @@ import org.apache.commons.lang3.math.NumberUtils;
 class GitSCMChecksContext extends GiteaChecksContext {
     private final Run<?, ?> run;
 
+    @CheckForNull
+    private final UserRemoteConfig remote;
+
+    @CheckForNull
+    private String headSha;
+
     /**
      * Creates a {@link GitSCMChecksContext} according to the run. All attributes
      * are computed during this period.
@@ -35,9 +40,27 @@ class GitSCMChecksContext extends GiteaChecksContext {
     }
 
     GitSCMChecksContext(final Run<?, ?> run, final String runURL, final SCMFacade scmFacade) {
+        this(run, runURL, scmFacade, null);
+    }
+
+    /**
+     * Creates a {@link GitSCMChecksContext} for one of the repositories a run has checked out.
+     *
+     * @param run       a run that uses Git
+     * @param runURL    the URL to the Jenkins run
+     * @param scmFacade a facade for Jenkins SCM
+     * @param remote    the remote of the repository to publish to, or {@code null} to publish to the first remote of
+     *                  the first Git SCM of the run
+     */
+    GitSCMChecksContext(
+            final Run<?, ?> run,
+            final String runURL,
+            final SCMFacade scmFacade,
+            @CheckForNull final UserRemoteConfig remote) {
         super(run.getParent(), runURL, scmFacade);
 
         this.run = run;
+        this.remote = remote;
     }
 
     @Override
@@ -45,14 +68,36 @@ class GitSCMChecksContext extends GiteaChecksContext {
         return Optional.of(run);
     }
 
+    /**
+     * Returns the commit sha of the run. The sha is read from the {@link BuildData} of the run's checkout, and only if
+     * no such action is available from the {@code GIT_COMMIT} environment variable, since computing the environment of
+     * a run is expensive. A found sha is remembered, so that validation and publishing resolve it only once.
+     *
+     * @return the commit sha of the run or an empty string if the run has not checked out a revision yet
+     */
     @Override
     public String getHeadSha() {
-        try {
-            String head = getGitCommitEnvironment();
-            if (StringUtils.isNotBlank(head)) {
+        if (headSha == null) {
+            String head = resolveHeadSha();
+            if (head.isEmpty()) {
                 return head;
             }
-            return getLastBuiltRevisionFromBuildData();
+            headSha = head;
+        }
+        return headSha;
+    }
+
+    private String resolveHeadSha() {
+        String head = getLastBuiltRevisionFromBuildData();
+        if (StringUtils.isNotBlank(head)) {
+            return head;
+        }
+        if (remote != null && run.getActions(BuildData.class).size() > 1) {
+            return StringUtils.EMPTY; // GIT_COMMIT is the revision of the last checkout, maybe of another repository
+        }
+
+        try {
+            return getGitCommitEnvironment();
         } catch (IOException | InterruptedException e) {
             // ignore and return a default
         }
@@ -64,7 +109,7 @@ class GitSCMChecksContext extends GiteaChecksContext {
     }
 
     private String getLastBuiltRevisionFromBuildData() {
-        BuildData gitBuildData = run.getAction(BuildData.class);
+        BuildData gitBuildData = findBuildData();
         if (gitBuildData != null) {
             Revision lastBuiltRevision = gitBuildData.getLastBuiltRevision();
             if (lastBuiltRevision != null) {
@@ -74,67 +119,73 @@ class GitSCMChecksContext extends GiteaChecksContext {
         return StringUtils.EMPTY;
     }
 
-    @Override
-    public String getRepository() {
-        String repositoryURL = getUserRemoteConfig().getUrl();
-        if (repositoryURL == null) {
-            return StringUtils.EMPTY;
+    /**
+     * Returns the {@link BuildData} of the checkout of the repository this context publishes to. A pipeline that
+     * checks out several repositories has one action per repository, in that case the action is chosen by the
+     * repository URL. A context for an explicit remote has no action if that remote has not been checked out.
+     */
+    @CheckForNull
+    private BuildData findBuildData() {
+        List<BuildData> buildData = run.getActions(BuildData.class);
+        if (buildData.size() <= 1) {
+            return buildData.isEmpty() ? null : buildData.get(0);
         }
 
-        return getRepository(repositoryURL);
+        String repositoryUrl = remote == null
+                ? getScmFacade()
+                        .findGitSCM(run)
+                        .map(scm -> getScmFacade().getUserRemoteConfig(scm).getUrl())
+                        .orElse(null)
+                : remote.getUrl();
+        if (repositoryUrl != null) {
+            for (BuildData data : buildData) {
+                if (data.getRemoteUrls().contains(repositoryUrl)) {
+                    return data;
+                }
+            }
+        }
+        return remote == null ? buildData.get(0) : null;
+    }
+
+    @Override
+    public String getRepository() {
+        return parseRepositoryUrl().map(RepositoryUrl::getRepository).orElse(StringUtils.EMPTY);
     }
 
     @Override
     public String getRepoOwner() {
-        return getRepository().split("/")[0];
+        return parseRepositoryUrl().map(RepositoryUrl::getOwner).orElse(StringUtils.EMPTY);
     }
 
     @Override
     public String getRepo() {
-        return getRepository().split("/")[1];
+        return parseRepositoryUrl().map(RepositoryUrl::getRepo).orElse(StringUtils.EMPTY);
     }
 
     @Override
     public String getGiteaServerUrl() {
-        String repoUrl = getUserRemoteConfig().getUrl();
-        if (repoUrl == null) {
-            throw new IllegalStateException(
-                    "Repository URL is null for " + getUserRemoteConfig().getName());
+        UserRemoteConfig remoteConfig = getUserRemoteConfig();
+        if (remoteConfig.getUrl() == null) {
+            throw new IllegalStateException("Repository URL is null for " + remoteConfig.getName());
         }
 
-        URL url;
-        try {
-            url = new URL(repoUrl);
-        } catch (MalformedURLException e) {
-            return StringUtils.EMPTY;
-        }
-
-        return "https://" + url.getHost();
+        return RepositoryUrlParser.get()
+                .parse(remoteConfig.getUrl())
+                .filter(RepositoryUrl::isHttp)
+                .map(url -> "https://" + url.getHost())
+                .orElse(StringUtils.EMPTY);
     }
 
     @VisibleForTesting
     String getRepository(final String repositoryUrl) {
-        if (StringUtils.isBlank(repositoryUrl)) {
-            return StringUtils.EMPTY;
-        }
-
-        if (repositoryUrl.startsWith("http")) {
-            URL url;
-            try {
-                url = new URL(repositoryUrl);
-            } catch (MalformedURLException e) {
-                return StringUtils.EMPTY;
-            }
-
-            String[] pathParts = StringUtils.removeStart(url.getPath(), "/").split("/");
-            if (pathParts.length == NumberUtils.INTEGER_TWO) {
-                return pathParts[0] + "/" + StringUtils.removeEnd(pathParts[1], ".git");
-            }
-        } else if (repositoryUrl.matches("git@.+:.+\\/.+")) {
-            return StringUtils.removeEnd(repositoryUrl.split(":")[1], ".git");
-        }
+        return RepositoryUrlParser.get()
+                .parse(repositoryUrl)
+                .map(RepositoryUrl::getRepository)
+                .orElse(StringUtils.EMPTY);
+    }
 
-        return StringUtils.EMPTY;
+    private Optional<RepositoryUrl> parseRepositoryUrl() {
+        return RepositoryUrlParser.get().parse(getUserRemoteConfig().getUrl());
     }
 
     @Override
@@ -144,6 +195,9 @@ class GitSCMChecksContext extends GiteaChecksContext {
     }
 
     private UserRemoteConfig getUserRemoteConfig() {
+        if (remote != null) {
+            return remote;
+        }
         return getScmFacade().getUserRemoteConfig(resolveGitSCM());
     }
 
@@ -160,7 +214,7 @@ class GitSCMChecksContext extends GiteaChecksContext {
     public boolean isValid(final FilteredLog logger) {
         logger.logError("   Trying to resolve checks parameters from Git SCM...");
 
-        if (!getScmFacade().findGitSCM(run).isPresent()) {
+        if (remote == null && !getScmFacade().findGitSCM(run).isPresent()) {
             logger.logError("Job does not use Git SCM");
 
             return false;
@@ -67,6 +67,15 @@ public abstract class GiteaChecksContext {
      */
     public abstract boolean isValid(FilteredLog logger);
 
+    /**
+     * Returns the number of the pull request that is built by the run, if any.
+     *
+     * @return the number of the pull request, or empty if the run does not build a pull request
+     */
+    public Optional<Long> getPullRequest() {
+        return Optional.empty();
+    }
+
     @CheckForNull
     protected abstract String getCredentialsId();
 
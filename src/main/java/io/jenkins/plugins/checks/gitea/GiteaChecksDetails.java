@@ -4,6 +4,7 @@ import io.jenkins.plugins.checks.api.ChecksConclusion;
 import io.jenkins.plugins.checks.api.ChecksDetails;
 import io.jenkins.plugins.checks.api.ChecksStatus;
 import java.net.URI;
+import java.nio.CharBuffer;
 import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.Optional;
@@ -18,6 +19,15 @@ class GiteaChecksDetails {
     private final ChecksDetails details;
 
     private static final int GITEA_MAX_DESCRIPTION_SIZE = 256;
+    /**
+     * The number of characters of the summary that are read for the description. Markup does not count for the
+     * description, so more than the description size is read. One more character is requested from the summary, so
+     * that a summary that has been truncated can be told apart from a summary that fits; the end of a truncated
+     * summary is ignored, since it contains the truncation message.
+     */
+    private static final int SUMMARY_WINDOW = 16 * GITEA_MAX_DESCRIPTION_SIZE;
+
+    private static final int TRUNCATION_MESSAGE_SIZE = 64;
 
     /**
      * Construct with the given {@link ChecksDetails}.
@@ -110,16 +120,21 @@ class GiteaChecksDetails {
     }
 
     /**
-     * Returns the description {@link String} of a Gitea check run.
+     * Returns the description {@link String} of a Gitea check run, i.e. the beginning of the summary as plain text.
      *
      * @return the output of a check run
      */
     public Optional<String> getDescription() {
-        if (details.getOutput().isPresent()) {
-            return details.getOutput().get().getSummary(GITEA_MAX_DESCRIPTION_SIZE);
-        }
-
-        return Optional.empty();
+        return details.getOutput()
+                .flatMap(output -> output.getSummary(SUMMARY_WINDOW + 1))
+                .map(summary -> {
+                    boolean truncated = summary.length() > SUMMARY_WINDOW;
+                    CharSequence markdown = truncated
+                            ? CharBuffer.wrap(summary, 0, SUMMARY_WINDOW - TRUNCATION_MESSAGE_SIZE)
+                            : summary;
+                    return PlainTextDescription.create(markdown, GITEA_MAX_DESCRIPTION_SIZE, truncated);
+                })
+                .filter(StringUtils::isNotBlank);
     }
 
     /**
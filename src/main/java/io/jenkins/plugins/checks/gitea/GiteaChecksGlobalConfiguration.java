@@ -0,0 +1,414 @@
+package io.jenkins.plugins.checks.gitea;
+
+import hudson.Extension;
+import io.jenkins.plugins.checks.gitea.CommitStatusDispatcher.QueueFullPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import jenkins.model.GlobalConfiguration;
+import net.sf.json.JSONObject;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.StaplerRequest2;
+
+/**
+ * Global configuration of the Gitea checks publisher.
+ */
+@Extension
+@Symbol("giteaChecks")
+public class GiteaChecksGlobalConfiguration extends GlobalConfiguration {
+    static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 4;
+    static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 60;
+    static final int DEFAULT_DISPATCH_QUEUE_CAPACITY = 1000;
+    static final int DEFAULT_DISPATCH_WORKERS = 2;
+    static final int DEFAULT_MAX_RETRIES = 3;
+    static final int DEFAULT_RATE_LIMIT_BURST = 10;
+    static final int DEFAULT_CIRCUIT_BREAKER_THRESHOLD = 5;
+    static final int DEFAULT_CIRCUIT_BREAKER_DURATION = 60;
+    static final int DEFAULT_CONNECT_TIMEOUT = 10;
+    static final int DEFAULT_READ_TIMEOUT = 30;
+    static final int DEFAULT_PUBLISH_TIMEOUT = 60;
+
+    private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+    private int connectionIdleTimeout = DEFAULT_CONNECTION_IDLE_TIMEOUT;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private int rateLimit;
+    private int rateLimitBurst = DEFAULT_RATE_LIMIT_BURST;
+    private int circuitBreakerThreshold = DEFAULT_CIRCUIT_BREAKER_THRESHOLD;
+    private int circuitBreakerDuration = DEFAULT_CIRCUIT_BREAKER_DURATION;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+    private int publishTimeout = DEFAULT_PUBLISH_TIMEOUT;
+    private StatusTransport transport = StatusTransport.GITEA_CLIENT;
+    private boolean publishAnnotations;
+    private boolean publishOutputComment;
+    private List<GiteaServerSettings> servers = new ArrayList<>();
+    private boolean asyncPublishing;
+    private int dispatchQueueCapacity = DEFAULT_DISPATCH_QUEUE_CAPACITY;
+    private int dispatchWorkers = DEFAULT_DISPATCH_WORKERS;
+    private QueueFullPolicy queueFullPolicy = QueueFullPolicy.BLOCK;
+
+    /**
+     * Creates the global configuration and loads the persisted values.
+     */
+    public GiteaChecksGlobalConfiguration() {
+        super();
+
+        load();
+    }
+
+    /**
+     * Returns the singleton instance of the global configuration.
+     *
+     * @return the global configuration
+     */
+    public static GiteaChecksGlobalConfiguration get() {
+        return GlobalConfiguration.all().getInstance(GiteaChecksGlobalConfiguration.class);
+    }
+
+    @Override
+    public boolean configure(final StaplerRequest2 req, final JSONObject json) throws FormException {
+        servers = new ArrayList<>(); // the form does not contain the property if all servers have been removed
+
+        return super.configure(req, json);
+    }
+
+    /**
+     * Returns the maximum number of connections that are used concurrently for a single Gitea server.
+     *
+     * @return the maximum number of connections per Gitea server
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    @DataBoundSetter
+    public void setMaxConnectionsPerHost(final int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+
+        save();
+    }
+
+    /**
+     * Returns the time in seconds after which an unused pooled connection is closed.
+     *
+     * @return the idle timeout of pooled connections in seconds
+     */
+    public int getConnectionIdleTimeout() {
+        return connectionIdleTimeout;
+    }
+
+    @DataBoundSetter
+    public void setConnectionIdleTimeout(final int connectionIdleTimeout) {
+        this.connectionIdleTimeout = Math.max(0, connectionIdleTimeout);
+
+        save();
+    }
+
+    /**
+     * Returns how many times sending a status is retried after a transient failure.
+     *
+     * @return the maximum number of retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @DataBoundSetter
+    public void setMaxRetries(final int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+
+        save();
+    }
+
+    /**
+     * Returns the maximum number of requests per minute that are sent to a single Gitea server.
+     *
+     * @return the rate limit per Gitea server, 0 if requests are not limited
+     */
+    public int getRateLimit() {
+        return rateLimit;
+    }
+
+    @DataBoundSetter
+    public void setRateLimit(final int rateLimit) {
+        this.rateLimit = Math.max(0, rateLimit);
+
+        save();
+    }
+
+    /**
+     * Returns the number of requests that may be sent to a single Gitea server at once before the rate limit applies.
+     *
+     * @return the burst size per Gitea server
+     */
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    @DataBoundSetter
+    public void setRateLimitBurst(final int rateLimitBurst) {
+        this.rateLimitBurst = Math.max(1, rateLimitBurst);
+
+        save();
+    }
+
+    /**
+     * Returns the number of consecutive failures after which requests to a Gitea server fail fast.
+     *
+     * @return the failure threshold of the circuit breaker, 0 if the circuit breaker is disabled
+     */
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    @DataBoundSetter
+    public void setCircuitBreakerThreshold(final int circuitBreakerThreshold) {
+        this.circuitBreakerThreshold = Math.max(0, circuitBreakerThreshold);
+
+        save();
+    }
+
+    /**
+     * Returns the time in seconds requests to an unavailable Gitea server fail fast before the server is probed again.
+     *
+     * @return the open duration of the circuit breaker in seconds
+     */
+    public int getCircuitBreakerDuration() {
+        return circuitBreakerDuration;
+    }
+
+    @DataBoundSetter
+    public void setCircuitBreakerDuration(final int circuitBreakerDuration) {
+        this.circuitBreakerDuration = Math.max(1, circuitBreakerDuration);
+
+        save();
+    }
+
+    /**
+     * Returns the time in seconds to wait for a connection to a Gitea server.
+     *
+     * @return the connect timeout in seconds, 0 if there is no timeout
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    @DataBoundSetter
+    public void setConnectTimeout(final int connectTimeout) {
+        this.connectTimeout = Math.max(0, connectTimeout);
+
+        save();
+    }
+
+    /**
+     * Returns the time in seconds to wait for a connection to the given Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @return the connect timeout of the server in seconds, 0 if there is no timeout
+     */
+    public int getConnectTimeout(final String serverUrl) {
+        return findServer(serverUrl).map(GiteaServerSettings::getConnectTimeout).orElse(connectTimeout);
+    }
+
+    /**
+     * Returns the time in seconds to wait for the response to a request to a Gitea server.
+     *
+     * @return the read timeout in seconds, 0 if there is no timeout
+     */
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @DataBoundSetter
+    public void setReadTimeout(final int readTimeout) {
+        this.readTimeout = Math.max(0, readTimeout);
+
+        save();
+    }
+
+    /**
+     * Returns the time in seconds to wait for the response to a request to the given Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @return the read timeout of the server in seconds, 0 if there is no timeout
+     */
+    public int getReadTimeout(final String serverUrl) {
+        return findServer(serverUrl).map(GiteaServerSettings::getReadTimeout).orElse(readTimeout);
+    }
+
+    /**
+     * Returns the URLs of the mirrors of the given Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @return the URLs of the mirrors, the list is empty if the server has no mirrors
+     */
+    public List<String> getMirrors(final String serverUrl) {
+        return findServer(serverUrl).map(GiteaServerSettings::getMirrors).orElse(Collections.emptyList());
+    }
+
+    /**
+     * Returns the ID of the credentials to authenticate with at the mirrors of the given Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @return the ID of the credentials, or empty if the credentials of the server are used for the mirrors
+     */
+    public Optional<String> getMirrorCredentialsId(final String serverUrl) {
+        return findServer(serverUrl).map(GiteaServerSettings::getMirrorCredentialsId);
+    }
+
+    /**
+     * Returns the maximum time in seconds a build waits for a status to be published, including the time spent
+     * waiting for the rate limit and for a connection.
+     *
+     * @return the publish timeout in seconds, 0 if there is no timeout
+     */
+    public int getPublishTimeout() {
+        return publishTimeout;
+    }
+
+    @DataBoundSetter
+    public void setPublishTimeout(final int publishTimeout) {
+        this.publishTimeout = Math.max(0, publishTimeout);
+
+        save();
+    }
+
+    /**
+     * Returns how commit statuses are sent to the Gitea servers.
+     *
+     * @return the transport for commit statuses
+     */
+    public StatusTransport getTransport() {
+        return transport == null ? StatusTransport.GITEA_CLIENT : transport;
+    }
+
+    @DataBoundSetter
+    public void setTransport(final StatusTransport transport) {
+        this.transport = transport;
+
+        save();
+    }
+
+    /**
+     * Returns whether the annotations of checks are published as review comments on the lines of a pull request.
+     *
+     * @return {@code true} if annotations are published as review comments
+     */
+    public boolean isPublishAnnotations() {
+        return publishAnnotations;
+    }
+
+    @DataBoundSetter
+    public void setPublishAnnotations(final boolean publishAnnotations) {
+        this.publishAnnotations = publishAnnotations;
+
+        save();
+    }
+
+    /**
+     * Returns whether the outputs of all checks of a pull request are published in a single comment on the pull
+     * request.
+     *
+     * @return {@code true} if the outputs are published in a comment
+     */
+    public boolean isPublishOutputComment() {
+        return publishOutputComment;
+    }
+
+    @DataBoundSetter
+    public void setPublishOutputComment(final boolean publishOutputComment) {
+        this.publishOutputComment = publishOutputComment;
+
+        save();
+    }
+
+    /**
+     * Returns the settings that override the global configuration for individual Gitea servers.
+     *
+     * @return the settings per Gitea server
+     */
+    public List<GiteaServerSettings> getServers() {
+        return servers == null ? Collections.emptyList() : Collections.unmodifiableList(servers);
+    }
+
+    @DataBoundSetter
+    public void setServers(final List<GiteaServerSettings> servers) {
+        this.servers = servers == null ? new ArrayList<>() : new ArrayList<>(servers);
+
+        save();
+    }
+
+    private Optional<GiteaServerSettings> findServer(final String serverUrl) {
+        return getServers().stream().filter(server -> server.matches(serverUrl)).findFirst();
+    }
+
+    /**
+     * Returns whether statuses are sent to Gitea by background workers instead of the build thread.
+     *
+     * @return {@code true} if statuses are published asynchronously
+     */
+    public boolean isAsyncPublishing() {
+        return asyncPublishing;
+    }
+
+    @DataBoundSetter
+    public void setAsyncPublishing(final boolean asyncPublishing) {
+        this.asyncPublishing = asyncPublishing;
+
+        save();
+    }
+
+    /**
+     * Returns the maximum number of statuses that wait for asynchronous delivery.
+     *
+     * @return the capacity of the dispatch queue
+     */
+    public int getDispatchQueueCapacity() {
+        return dispatchQueueCapacity;
+    }
+
+    @DataBoundSetter
+    public void setDispatchQueueCapacity(final int dispatchQueueCapacity) {
+        this.dispatchQueueCapacity = Math.max(1, dispatchQueueCapacity);
+
+        save();
+    }
+
+    /**
+     * Returns the number of worker threads that send queued statuses.
+     *
+     * @return the number of dispatch workers
+     */
+    public int getDispatchWorkers() {
+        return dispatchWorkers;
+    }
+
+    @DataBoundSetter
+    public void setDispatchWorkers(final int dispatchWorkers) {
+        this.dispatchWorkers = Math.max(1, dispatchWorkers);
+
+        save();
+    }
+
+    /**
+     * Returns what happens when a status is published while the dispatch queue is full.
+     *
+     * @return the policy for a full dispatch queue
+     */
+    public QueueFullPolicy getQueueFullPolicy() {
+        return queueFullPolicy == null ? QueueFullPolicy.BLOCK : queueFullPolicy;
+    }
+
+    @DataBoundSetter
+    public void setQueueFullPolicy(final QueueFullPolicy queueFullPolicy) {
+        this.queueFullPolicy = queueFullPolicy;
+
+        save();
+    }
+}
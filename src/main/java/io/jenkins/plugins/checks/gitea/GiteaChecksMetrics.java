@@ -0,0 +1,186 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.PluginWrapper;
+import java.util.Locale;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitState;
+
+/**
+ * Records counters and timings of publishing Gitea checks. The metrics are exposed through the registry of the
+ * <a href="https://plugins.jenkins.io/metrics/">Metrics plugin</a> if it is installed, otherwise nothing is recorded.
+ * All timings are recorded as timers, so that the registry provides both the rate and the latency distribution.
+ */
+final class GiteaChecksMetrics {
+    static final String PREFIX = "gitea-checks.";
+    static final String PUBLISH_DURATION = PREFIX + "publish.duration";
+    static final String HTTP_DURATION = PREFIX + "http.duration";
+    static final String CONNECTION_OPEN_DURATION = PREFIX + "connection.open.duration";
+    static final String CONTEXT_RESOLUTION_DURATION = PREFIX + "context.resolution.duration";
+    static final String CREDENTIALS_LOOKUP_DURATION = PREFIX + "credentials.lookup.duration";
+    static final String DISCARDED = PREFIX + "dispatch.discarded";
+    static final String RATE_LIMIT_WAIT = PREFIX + "rate-limit.wait";
+    static final String CIRCUIT_BREAKER_REJECTED = PREFIX + "circuit-breaker.rejected";
+
+    private static final String METRICS_PLUGIN = "metrics";
+    private static final Recorder NO_RECORDER = new Recorder() {
+        @Override
+        public void count(final String name) {
+            // metrics are not recorded
+        }
+
+        @Override
+        public void time(final String name, final long durationNanos) {
+            // metrics are not recorded
+        }
+    };
+
+    private static final GiteaChecksMetrics INSTANCE = new GiteaChecksMetrics(null);
+
+    @CheckForNull
+    private volatile Recorder recorder;
+
+    @VisibleForTesting
+    GiteaChecksMetrics(@CheckForNull final Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Returns the metrics of this controller.
+     *
+     * @return the shared metrics
+     */
+    static GiteaChecksMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a status that has been published.
+     *
+     * @param state
+     *         the state of the published status
+     * @param durationNanos
+     *         the time it took to publish the status, including waiting for a connection
+     */
+    void recordPublished(@CheckForNull final GiteaCommitState state, final long durationNanos) {
+        getRecorder().count(PREFIX + "publish.success." + toName(state));
+        getRecorder().time(PUBLISH_DURATION, durationNanos);
+    }
+
+    /**
+     * Records a status that could not be published.
+     *
+     * @param state
+     *         the state of the status
+     */
+    void recordFailed(@CheckForNull final GiteaCommitState state) {
+        getRecorder().count(PREFIX + "publish.failure." + toName(state));
+    }
+
+    /**
+     * Records a status that has been discarded since the dispatch queue was full.
+     */
+    void recordDiscarded() {
+        getRecorder().count(DISCARDED);
+    }
+
+    /**
+     * Records the latency of a request to the Gitea API.
+     *
+     * @param durationNanos
+     *         the duration of the request
+     */
+    void recordHttpRequest(final long durationNanos) {
+        getRecorder().time(HTTP_DURATION, durationNanos);
+    }
+
+    /**
+     * Records the time it took to open a new connection to a Gitea server.
+     *
+     * @param durationNanos
+     *         the duration of opening the connection
+     */
+    void recordConnectionOpened(final long durationNanos) {
+        getRecorder().time(CONNECTION_OPEN_DURATION, durationNanos);
+    }
+
+    /**
+     * Records the time it took to find and validate the checks context of a run or job.
+     *
+     * @param durationNanos
+     *         the duration of the resolution
+     */
+    void recordContextResolution(final long durationNanos) {
+        getRecorder().time(CONTEXT_RESOLUTION_DURATION, durationNanos);
+    }
+
+    /**
+     * Records the time it took to look up credentials in the credential stores.
+     *
+     * @param durationNanos
+     *         the duration of the lookup
+     */
+    void recordCredentialsLookup(final long durationNanos) {
+        getRecorder().time(CREDENTIALS_LOOKUP_DURATION, durationNanos);
+    }
+
+    /**
+     * Records the time a request waited for the rate limit of a Gitea server.
+     *
+     * @param durationNanos
+     *         the duration of the wait
+     */
+    void recordRateLimitWait(final long durationNanos) {
+        getRecorder().time(RATE_LIMIT_WAIT, durationNanos);
+    }
+
+    /**
+     * Records a request that has not been sent since the circuit of the Gitea server is open.
+     */
+    void recordRejected() {
+        getRecorder().count(CIRCUIT_BREAKER_REJECTED);
+    }
+
+    private static String toName(@CheckForNull final GiteaCommitState state) {
+        return state == null ? "unknown" : state.name().toLowerCase(Locale.ENGLISH);
+    }
+
+    private Recorder getRecorder() {
+        Recorder current = recorder;
+        if (current == null) {
+            Jenkins jenkins = Jenkins.getInstanceOrNull();
+            if (jenkins == null) {
+                return NO_RECORDER;
+            }
+
+            PluginWrapper plugin = jenkins.getPluginManager().getPlugin(METRICS_PLUGIN);
+            current = plugin != null && plugin.isActive() ? new MetricsPluginRecorder() : NO_RECORDER;
+            recorder = current;
+        }
+        return current;
+    }
+
+    /**
+     * Records metrics in a registry.
+     */
+    interface Recorder {
+        /**
+         * Increments the counter with the given name.
+         *
+         * @param name
+         *         the name of the counter
+         */
+        void count(String name);
+
+        /**
+         * Records a duration in the timer with the given name.
+         *
+         * @param name
+         *         the name of the timer
+         * @param durationNanos
+         *         the duration in nanoseconds
+         */
+        void time(String name, long durationNanos);
+    }
+}
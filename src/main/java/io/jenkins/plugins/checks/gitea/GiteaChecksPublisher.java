@@ -3,17 +3,20 @@ package io.jenkins.plugins.checks.gitea;
 import static java.lang.String.format;
 
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import edu.hm.hafner.util.VisibleForTesting;
+import io.jenkins.plugins.checks.api.ChecksAnnotation;
 import io.jenkins.plugins.checks.api.ChecksDetails;
+import io.jenkins.plugins.checks.api.ChecksOutput;
 import io.jenkins.plugins.checks.api.ChecksPublisher;
+import io.jenkins.plugins.checks.api.ChecksStatus;
 import io.jenkins.plugins.util.PluginLogger;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import jenkins.authentication.tokens.api.AuthenticationTokens;
-import org.jenkinsci.plugin.gitea.client.api.Gitea;
-import org.jenkinsci.plugin.gitea.client.api.GiteaAuth;
 import org.jenkinsci.plugin.gitea.client.api.GiteaCommitStatus;
-import org.jenkinsci.plugin.gitea.client.api.GiteaConnection;
 
 /**
  * A publisher which publishes Gitea check runs.
@@ -24,6 +27,13 @@ public class GiteaChecksPublisher extends ChecksPublisher {
     private final GiteaChecksContext context;
     private final PluginLogger buildLogger;
     private final String giteaServerUrl;
+    private final PublishedStatusCache publishedStatuses;
+    private final CommitStatusSender sender;
+    private final CommitStatusDispatcher dispatcher;
+    private final StatusOutbox outbox;
+    private final MirrorStatusPublisher mirrors;
+    private final ReviewCommentPublisher reviewComments;
+    private final OutputCommentPublisher outputComments;
 
     /**
      * {@inheritDoc}.
@@ -42,6 +52,13 @@ public class GiteaChecksPublisher extends ChecksPublisher {
         this.context = context;
         this.buildLogger = buildLogger;
         this.giteaServerUrl = giteaServerUrl;
+        this.publishedStatuses = PublishedStatusCache.get();
+        this.sender = new CommitStatusSender(GiteaConnectionPool.get(), publishedStatuses);
+        this.dispatcher = CommitStatusDispatcher.get();
+        this.outbox = StatusOutbox.get();
+        this.mirrors = MirrorStatusPublisher.get();
+        this.reviewComments = ReviewCommentPublisher.get();
+        this.outputComments = OutputCommentPublisher.get();
     }
 
     /**
@@ -52,9 +69,76 @@ public class GiteaChecksPublisher extends ChecksPublisher {
      */
     @Override
     public void publish(final ChecksDetails details) {
-        try (GiteaConnection giteaConnection = connect(giteaServerUrl, context.getCredentials())) {
+        publishStatus(details);
+
+        GiteaChecksGlobalConfiguration configuration = GiteaChecksGlobalConfiguration.get();
+        if (configuration.isPublishOutputComment()) {
+            publishOutputComment(details);
+        }
+        if (details.getStatus() == ChecksStatus.COMPLETED && configuration.isPublishAnnotations()) {
+            publishAnnotations(details);
+        }
+    }
+
+    private void publishStatus(final ChecksDetails details) {
+        try {
             GiteaChecksDetails giteaDetails = new GiteaChecksDetails(details);
-            publishGiteaCommitStatus(giteaConnection, giteaDetails);
+            PendingCommitStatus pending = createPendingCommitStatus(giteaDetails);
+
+            if (publishedStatuses.isPublished(pending)) {
+                buildLogger.log(
+                        "Gitea check (name: %s, status: %s) is unchanged, skipped publishing.",
+                        giteaDetails.getContextString(), giteaDetails.getStatus());
+                SYSTEM_LOGGER.fine(format(
+                        "Skipped unchanged check for %s (hit ratio: %.2f)",
+                        pending, publishedStatuses.getHitRatio()));
+                return;
+            }
+
+            GiteaChecksGlobalConfiguration configuration = GiteaChecksGlobalConfiguration.get();
+            publishToMirrors(configuration, giteaDetails, pending);
+
+            publishedStatuses.recordSubmitted(pending);
+            outbox.add(pending);
+            long timeout = TimeUnit.SECONDS.toMillis(configuration.getPublishTimeout());
+            if (configuration.isAsyncPublishing()) {
+                if (dispatcher.submit(pending, timeout)) {
+                    buildLogger.log(
+                            "Gitea check (name: %s, status: %s, description: %s) has been queued for publishing.",
+                            giteaDetails.getContextString(), giteaDetails.getStatus(), giteaDetails.getDescription());
+                } else {
+                    buildLogger.log(
+                            "Gitea check (name: %s, status: %s) has been discarded: the dispatch queue is full.",
+                            giteaDetails.getContextString(), giteaDetails.getStatus());
+                }
+                return;
+            }
+
+            try {
+                TimeLimiter.get().call(giteaServerUrl, "Publishing " + pending, timeout, () -> {
+                    sender.send(pending);
+                    outbox.acknowledge(pending);
+                    return null;
+                });
+            } catch (InterruptedException exception) {
+                outbox.defer(pending);
+                throw exception;
+            } catch (IOException exception) {
+                long delay = dispatcher.retry(pending, exception);
+                if (delay < 0) {
+                    throw exception;
+                }
+                buildLogger.log(
+                        "Gitea check (name: %s, status: %s) could not be published, retrying in %d seconds.",
+                        giteaDetails.getContextString(),
+                        giteaDetails.getStatus(),
+                        TimeUnit.MILLISECONDS.toSeconds(delay));
+                SYSTEM_LOGGER.log(
+                        Level.FINE,
+                        format("Failed Publishing Gitea checks, retrying in %d ms: %s", delay, pending),
+                        exception);
+                return;
+            }
 
             buildLogger.log(
                     "Gitea check (name: %s, status: %s, description: %s) has been published.",
@@ -74,16 +158,147 @@ public class GiteaChecksPublisher extends ChecksPublisher {
         }
     }
 
-    private static GiteaConnection connect(final String serverUrl, final StandardCredentials credentials)
-            throws IOException, InterruptedException {
-        return Gitea.server(serverUrl)
-                .as(AuthenticationTokens.convert(GiteaAuth.class, credentials))
-                .open();
+    /**
+     * Queues the status for the mirrors of the Gitea server, before the status is sent to the server itself.
+     */
+    private void publishToMirrors(
+            final GiteaChecksGlobalConfiguration configuration,
+            final GiteaChecksDetails giteaDetails,
+            final PendingCommitStatus pending) {
+        List<String> mirrorUrls = configuration.getMirrors(giteaServerUrl);
+        if (mirrorUrls.isEmpty()) {
+            return;
+        }
+
+        Optional<String> credentialsId = configuration.getMirrorCredentialsId(giteaServerUrl);
+        Optional<StandardCredentials> credentials = credentialsId.isPresent()
+                ? context.getScmFacade().findGiteaAppCredentials(context.getJob(), credentialsId.get())
+                : Optional.of(pending.getCredentials());
+        if (credentials.isEmpty()) {
+            buildLogger.log(
+                    "Gitea check (name: %s) has not been published to mirrors: no Gitea credentials found: '%s'",
+                    giteaDetails.getContextString(), credentialsId.get());
+            return;
+        }
+
+        int queued = mirrors.publish(pending, mirrorUrls, credentials.get());
+        if (queued > 0) {
+            buildLogger.log(
+                    "Gitea check (name: %s, status: %s) has been queued for publishing to %d mirrors.",
+                    giteaDetails.getContextString(), giteaDetails.getStatus(), queued);
+        }
+    }
+
+    private void publishOutputComment(final ChecksDetails details) {
+        try {
+            Optional<PullRequest> pullRequest = findPullRequest();
+            if (pullRequest.isEmpty()) {
+                return;
+            }
+
+            GiteaChecksDetails giteaDetails = new GiteaChecksDetails(details);
+            String name = giteaDetails.getContextString();
+            String section = OutputCommentPublisher.renderSection(details, giteaDetails);
+            GiteaChecksGlobalConfiguration configuration = GiteaChecksGlobalConfiguration.get();
+            if (configuration.isAsyncPublishing()) {
+                outputComments
+                        .publishAsync(pullRequest.get(), name, section)
+                        .whenComplete((published, failure) -> {
+                            if (failure != null) {
+                                SYSTEM_LOGGER.log(
+                                        Level.WARNING,
+                                        "Failed Publishing Gitea check output comment: " + name,
+                                        failure);
+                            }
+                        });
+                buildLogger.log(
+                        "Gitea check (name: %s) output has been queued for publishing on pull request #%d.",
+                        name, pullRequest.get().getNumber());
+                return;
+            }
+
+            boolean published = TimeLimiter.get()
+                    .call(
+                            giteaServerUrl,
+                            "Publishing output comment on " + pullRequest.get(),
+                            TimeUnit.SECONDS.toMillis(configuration.getPublishTimeout()),
+                            () -> outputComments.publish(pullRequest.get(), name, section));
+            if (published) {
+                buildLogger.log(
+                        "Gitea check (name: %s) output has been published on pull request #%d.",
+                        name, pullRequest.get().getNumber());
+            }
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            String message = "Failed Publishing Gitea check output comment: ";
+            SYSTEM_LOGGER.log(Level.WARNING, (message + details).replaceAll("[\r\n]", ""), e);
+            buildLogger.log(message + e);
+        }
+    }
+
+    private void publishAnnotations(final ChecksDetails details) {
+        List<ChecksAnnotation> annotations =
+                details.getOutput().map(ChecksOutput::getChecksAnnotations).orElse(List.of());
+        if (annotations.isEmpty()) {
+            return;
+        }
+
+        try {
+            Optional<PullRequest> pullRequest = findPullRequest();
+            if (pullRequest.isEmpty()) {
+                return;
+            }
+
+            String name = details.getName().orElse("");
+            GiteaChecksGlobalConfiguration configuration = GiteaChecksGlobalConfiguration.get();
+            if (configuration.isAsyncPublishing()) {
+                reviewComments
+                        .publishAsync(pullRequest.get(), name, annotations)
+                        .whenComplete((published, failure) -> {
+                            if (failure != null) {
+                                SYSTEM_LOGGER.log(
+                                        Level.WARNING, "Failed Publishing Gitea review comments: " + name, failure);
+                            }
+                        });
+                buildLogger.log(
+                        "Gitea check (name: %s) queued %d annotations for publishing on pull request #%d.",
+                        name, annotations.size(), pullRequest.get().getNumber());
+                return;
+            }
+
+            int published = TimeLimiter.get()
+                    .call(
+                            giteaServerUrl,
+                            "Publishing review comments on " + pullRequest.get(),
+                            TimeUnit.SECONDS.toMillis(configuration.getPublishTimeout()),
+                            () -> reviewComments.publish(pullRequest.get(), name, annotations));
+            buildLogger.log(
+                    "Gitea check (name: %s) published %d new review comments for %d annotations on pull request #%d.",
+                    name, published, annotations.size(), pullRequest.get().getNumber());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            String message = "Failed Publishing Gitea review comments: ";
+            SYSTEM_LOGGER.log(Level.WARNING, (message + details).replaceAll("[\r\n]", ""), e);
+            buildLogger.log(message + e);
+        }
+    }
+
+    /**
+     * Returns the pull request the run builds, the annotations and the output comment are published to it.
+     *
+     * @return the pull request, or empty if the run does not build a pull request
+     */
+    @VisibleForTesting
+    Optional<PullRequest> findPullRequest() {
+        return context.getPullRequest()
+                .map(number -> new PullRequest(
+                        giteaServerUrl,
+                        context.getCredentials(),
+                        context.getRepoOwner(),
+                        context.getRepo(),
+                        number,
+                        context.getHeadSha()));
     }
 
-    private GiteaCommitStatus publishGiteaCommitStatus(
-            final GiteaConnection giteaConnection, final GiteaChecksDetails giteaChecksDetails)
-            throws IOException, InterruptedException {
+    private PendingCommitStatus createPendingCommitStatus(final GiteaChecksDetails giteaChecksDetails) {
         GiteaCommitStatus commitStatus = new GiteaCommitStatus();
 
         giteaChecksDetails.getDetailsURL().ifPresent(commitStatus::setTargetUrl);
@@ -94,7 +309,13 @@ public class GiteaChecksPublisher extends ChecksPublisher {
 
         commitStatus.setState(giteaChecksDetails.getStatus());
 
-        return giteaConnection.createCommitStatus(
-                context.getRepoOwner(), context.getRepo(), context.getHeadSha(), commitStatus);
+        return new PendingCommitStatus(
+                giteaServerUrl,
+                context.getCredentials(),
+                context.getJob().getFullName(),
+                context.getRepoOwner(),
+                context.getRepo(),
+                context.getHeadSha(),
+                commitStatus);
     }
 }
@@ -0,0 +1,394 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.model.PeriodicWork;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.authentication.tokens.api.AuthenticationTokens;
+import org.jenkinsci.plugin.gitea.client.api.Gitea;
+import org.jenkinsci.plugin.gitea.client.api.GiteaAuth;
+import org.jenkinsci.plugin.gitea.client.api.GiteaConnection;
+
+/**
+ * A pool of {@link GiteaConnection}s that is shared by all {@link GiteaChecksPublisher}s. Connections are keyed by
+ * the Gitea server URL and the ID of the credentials, the number of connections in use per server is bounded and
+ * connections that have not been used for a while are closed. Opening a connection and each request sent with it are
+ * bounded by the connect and read timeouts configured for the server, waiting for a free connection is bounded by the
+ * connect timeout.
+ */
+public final class GiteaConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(GiteaConnectionPool.class.getName());
+
+    private static final GiteaConnectionPool INSTANCE = new GiteaConnectionPool(
+            GiteaConnectionPool::open,
+            () -> GiteaChecksGlobalConfiguration.get().getMaxConnectionsPerHost(),
+            () -> GiteaChecksGlobalConfiguration.get().getConnectionIdleTimeout(),
+            System::nanoTime,
+            serverUrl -> GiteaChecksGlobalConfiguration.get().getConnectTimeout(serverUrl),
+            serverUrl -> GiteaChecksGlobalConfiguration.get().getReadTimeout(serverUrl));
+
+    private final ConnectionFactory factory;
+    private final IntSupplier maxConnectionsPerHost;
+    private final IntSupplier idleTimeoutSeconds;
+    private final LongSupplier nanoClock;
+    private final ToIntFunction<String> connectTimeoutSeconds;
+    private final ToIntFunction<String> readTimeoutSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Map<ConnectionKey, Deque<IdleConnection>> idleConnections = new HashMap<>();
+    private final Map<String, Integer> leasedConnections = new HashMap<>();
+    private final Map<String, Long> generations = new HashMap<>();
+
+    @VisibleForTesting
+    GiteaConnectionPool(
+            final ConnectionFactory factory,
+            final IntSupplier maxConnectionsPerHost,
+            final IntSupplier idleTimeoutSeconds,
+            final LongSupplier nanoClock) {
+        this(factory, maxConnectionsPerHost, idleTimeoutSeconds, nanoClock, serverUrl -> 0, serverUrl -> 0);
+    }
+
+    @VisibleForTesting
+    GiteaConnectionPool(
+            final ConnectionFactory factory,
+            final IntSupplier maxConnectionsPerHost,
+            final IntSupplier idleTimeoutSeconds,
+            final LongSupplier nanoClock,
+            final ToIntFunction<String> connectTimeoutSeconds,
+            final ToIntFunction<String> readTimeoutSeconds) {
+        this.factory = factory;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+        this.nanoClock = nanoClock;
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+        this.readTimeoutSeconds = readTimeoutSeconds;
+    }
+
+    /**
+     * Returns the connection pool shared by all publishers of this controller.
+     *
+     * @return the shared connection pool
+     */
+    static GiteaConnectionPool get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Leases a connection to the given Gitea server, runs the {@code callback} with it and returns the connection to
+     * the pool afterwards. Connections that failed are closed instead of being reused. The callback should send each
+     * of its requests with {@link #request}, so that each request is bounded by the read timeout.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @param credentials
+     *         the credentials to authenticate with
+     * @param callback
+     *         the operation to run with the connection
+     * @param <T>
+     *         the type of the result
+     * @return the result of the callback
+     * @throws IOException
+     *         if the connection could not be opened or the callback failed
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting for a connection
+     */
+    <T> T execute(
+            final String serverUrl, final StandardCredentials credentials, final ConnectionCallback<T> callback)
+            throws IOException, InterruptedException {
+        ConnectionKey key = new ConnectionKey(serverUrl, credentials.getId());
+        long leasedGeneration = getGeneration(key);
+        GiteaConnection connection = lease(key, credentials);
+
+        boolean reusable = false;
+        try {
+            T result = callback.apply(connection);
+            reusable = true;
+            return result;
+        } finally {
+            release(key, connection, reusable && leasedGeneration == getGeneration(key));
+        }
+    }
+
+    /**
+     * Sends a single request with a leased connection and waits for the response at most for the read timeout of the
+     * server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @param operation
+     *         a description of the request for the failure message
+     * @param request
+     *         the request to send
+     * @param <T>
+     *         the type of the result
+     * @return the result of the request
+     * @throws IOException
+     *         if the request failed or timed out
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting for the response
+     */
+    <T> T request(final String serverUrl, final String operation, final TimeLimiter.Call<T> request)
+            throws IOException, InterruptedException {
+        long timeout = TimeUnit.SECONDS.toMillis(readTimeoutSeconds.applyAsInt(serverUrl));
+        return TimeLimiter.get().call(serverUrl, operation, timeout, request);
+    }
+
+    /**
+     * Closes the idle connections that have been opened with the given credentials and prevents such connections that
+     * are currently in use from being reused, e.g. because the credentials have changed. Connections opened with other
+     * credentials are kept.
+     *
+     * @param credentialsIds
+     *         the IDs of the credentials whose connections are evicted
+     */
+    void evict(final Collection<String> credentialsIds) {
+        if (credentialsIds.isEmpty()) {
+            return;
+        }
+
+        List<GiteaConnection> evicted = new ArrayList<>();
+
+        lock.lock();
+        try {
+            credentialsIds.forEach(id -> generations.merge(id, 1L, Long::sum));
+            Iterator<Map.Entry<ConnectionKey, Deque<IdleConnection>>> pools =
+                    idleConnections.entrySet().iterator();
+            while (pools.hasNext()) {
+                Map.Entry<ConnectionKey, Deque<IdleConnection>> pool = pools.next();
+                if (credentialsIds.contains(pool.getKey().credentialsId)) {
+                    pool.getValue().forEach(idle -> evicted.add(idle.connection));
+                    pools.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        evicted.forEach(GiteaConnectionPool::close);
+    }
+
+    /**
+     * Closes all idle connections that have not been used within the configured idle timeout.
+     */
+    void evictIdleConnections() {
+        List<GiteaConnection> evicted = new ArrayList<>();
+
+        lock.lock();
+        try {
+            long deadline = nanoClock.getAsLong() - TimeUnit.SECONDS.toNanos(idleTimeoutSeconds.getAsInt());
+            Iterator<Deque<IdleConnection>> pools = idleConnections.values().iterator();
+            while (pools.hasNext()) {
+                Deque<IdleConnection> pool = pools.next();
+                pool.removeIf(idle -> {
+                    if (idle.lastUsed - deadline <= 0) {
+                        evicted.add(idle.connection);
+                        return true;
+                    }
+                    return false;
+                });
+                if (pool.isEmpty()) {
+                    pools.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        evicted.forEach(GiteaConnectionPool::close);
+    }
+
+    @VisibleForTesting
+    int getIdleConnectionCount() {
+        lock.lock();
+        try {
+            return idleConnections.values().stream().mapToInt(Deque::size).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long getGeneration(final ConnectionKey key) {
+        lock.lock();
+        try {
+            return generations.getOrDefault(key.credentialsId, 0L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private GiteaConnection lease(final ConnectionKey key, final StandardCredentials credentials)
+            throws IOException, InterruptedException {
+        int connectTimeout = connectTimeoutSeconds.applyAsInt(key.serverUrl);
+        long remaining = TimeUnit.SECONDS.toNanos(connectTimeout);
+        lock.lockInterruptibly();
+        try {
+            while (leasedConnections.getOrDefault(key.serverUrl, 0) >= maxConnectionsPerHost.getAsInt()) {
+                if (connectTimeout <= 0) {
+                    released.await();
+                } else if (remaining > 0) {
+                    remaining = released.awaitNanos(remaining);
+                } else {
+                    throw new TimeLimiter.SaturatedException("Leasing a connection to " + key.serverUrl);
+                }
+            }
+            leasedConnections.merge(key.serverUrl, 1, Integer::sum);
+
+            Deque<IdleConnection> pool = idleConnections.get(key);
+            if (pool != null && !pool.isEmpty()) {
+                return pool.pollFirst().connection;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            long start = System.nanoTime();
+            GiteaConnection connection = TimeLimiter.get()
+                    .call(
+                            key.serverUrl,
+                            "Connecting to " + key.serverUrl,
+                            TimeUnit.SECONDS.toMillis(connectTimeout),
+                            () -> factory.open(key.serverUrl, credentials));
+            GiteaChecksMetrics.get().recordConnectionOpened(System.nanoTime() - start);
+            return connection;
+        } catch (IOException | InterruptedException | RuntimeException exception) {
+            release(key, null, false);
+            throw exception;
+        }
+    }
+
+    private void release(
+            final ConnectionKey key, @CheckForNull final GiteaConnection connection, final boolean reusable) {
+        GiteaConnection discarded = connection;
+
+        lock.lock();
+        try {
+            leasedConnections.computeIfPresent(key.serverUrl, (url, count) -> count > 1 ? count - 1 : null);
+            released.signalAll();
+
+            if (connection != null && reusable && idleTimeoutSeconds.getAsInt() > 0) {
+                Deque<IdleConnection> pool = idleConnections.computeIfAbsent(key, k -> new ArrayDeque<>());
+                if (pool.size() < maxConnectionsPerHost.getAsInt()) {
+                    pool.addFirst(new IdleConnection(connection, nanoClock.getAsLong()));
+                    discarded = null;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (discarded != null) {
+            close(discarded);
+        }
+    }
+
+    private static GiteaConnection open(final String serverUrl, final StandardCredentials credentials)
+            throws IOException, InterruptedException {
+        return Gitea.server(serverUrl)
+                .as(AuthenticationTokens.convert(GiteaAuth.class, credentials))
+                .open();
+    }
+
+    private static void close(final GiteaConnection connection) {
+        try {
+            connection.close();
+        } catch (IOException exception) {
+            LOGGER.log(Level.FINE, "Failed to close Gitea connection", exception);
+        }
+    }
+
+    /**
+     * Opens new connections to a Gitea server.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        GiteaConnection open(String serverUrl, StandardCredentials credentials)
+                throws IOException, InterruptedException;
+    }
+
+    /**
+     * An operation that is executed with a pooled connection.
+     *
+     * @param <T>
+     *         the type of the result
+     */
+    @FunctionalInterface
+    interface ConnectionCallback<T> {
+        T apply(GiteaConnection connection) throws IOException, InterruptedException;
+    }
+
+    private static final class ConnectionKey {
+        private final String serverUrl;
+
+        @CheckForNull
+        private final String credentialsId;
+
+        ConnectionKey(final String serverUrl, @CheckForNull final String credentialsId) {
+            this.serverUrl = serverUrl;
+            this.credentialsId = credentialsId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ConnectionKey that = (ConnectionKey) o;
+            return serverUrl.equals(that.serverUrl) && Objects.equals(credentialsId, that.credentialsId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serverUrl, credentialsId);
+        }
+    }
+
+    private static final class IdleConnection {
+        private final GiteaConnection connection;
+        private final long lastUsed;
+
+        IdleConnection(final GiteaConnection connection, final long lastUsed) {
+            this.connection = connection;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * Periodically closes pooled connections that have not been used for a while.
+     */
+    @Extension
+    public static final class IdleConnectionEvictor extends PeriodicWork {
+        @Override
+        public long getRecurrencePeriod() {
+            return MIN;
+        }
+
+        @Override
+        protected void doRun() {
+            get().evictIdleConnections();
+        }
+    }
+}
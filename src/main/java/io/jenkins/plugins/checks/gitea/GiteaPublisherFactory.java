@@ -2,18 +2,34 @@ package io.jenkins.plugins.checks.gitea;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.Extension;
 import hudson.model.Job;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.plugins.git.GitSCM;
+import hudson.plugins.git.UserRemoteConfig;
 import io.jenkins.plugins.checks.api.ChecksPublisher;
 import io.jenkins.plugins.checks.api.ChecksPublisherFactory;
 import io.jenkins.plugins.util.PluginLogger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugin.gitea.GiteaSCMSource;
 import org.jenkinsci.plugins.displayurlapi.DisplayURLProvider;
 
 /**
- * An factory which produces {@link GiteaChecksPublisher}.
+ * An factory which produces {@link GiteaChecksPublisher}. A run that checks out several Gitea repositories gets a
+ * {@link FanOutChecksPublisher} that publishes to all of them.
  */
 @Extension
 public class GiteaPublisherFactory extends ChecksPublisherFactory {
@@ -37,31 +53,145 @@ public class GiteaPublisherFactory extends ChecksPublisherFactory {
 
     @Override
     protected Optional<ChecksPublisher> createPublisher(final Run<?, ?> run, final TaskListener listener) {
-        final String runURL = urlProvider.getRunURL(run);
-        return createPublisher(
-                listener,
-                GiteaSCMSourceChecksContext.fromRun(run, runURL, scmFacade),
-                new GitSCMChecksContext(run, runURL, scmFacade));
+        PluginLogger consoleLogger = new PluginLogger(listener.getLogger(), "Gitea Checks");
+        List<GiteaChecksContext> resolved = ResolvedChecksContext.fromRun(run, scmFacade);
+        FilteredLog resolvedLogger = new FilteredLog("Remembered context is invalid: ");
+        if (!resolved.isEmpty() && resolved.stream().allMatch(ctx -> ctx.isValid(resolvedLogger))) {
+            return toPublisher(resolved, consoleLogger);
+        }
+
+        Job<?, ?> job = run.getParent();
+        List<Supplier<GiteaChecksContext>> contexts = new ArrayList<>();
+        Set<String> giteaHosts = new HashSet<>();
+        Optional<GiteaSCMSource> source = scmFacade.findGiteaSCMSource(job);
+        if (source.isPresent()) {
+            contexts.add(() -> GiteaSCMSourceChecksContext.fromRun(run, urlProvider.getRunURL(run), scmFacade));
+            giteaHosts.add(getHost(source.get().getServerUrl()));
+        }
+        List<UserRemoteConfig> remotes = findGiteaRemotes(run, giteaHosts, consoleLogger);
+        for (UserRemoteConfig remote : remotes) {
+            contexts.add(() -> new GitSCMChecksContext(run, urlProvider.getRunURL(run), scmFacade, remote));
+        }
+
+        // a run with a single repository publishes to the first valid context, like a job
+        int maximumCount = remotes.size() > 1 ? Integer.MAX_VALUE : 1;
+        List<GiteaChecksContext> valid = findValidContexts(consoleLogger, contexts, maximumCount);
+        if (!valid.isEmpty()) {
+            ResolvedChecksContext.remember(run, valid);
+        }
+        return toPublisher(valid, consoleLogger);
     }
 
     @Override
     protected Optional<ChecksPublisher> createPublisher(final Job<?, ?> job, final TaskListener listener) {
-        return createPublisher(
-                listener, GiteaSCMSourceChecksContext.fromJob(job, urlProvider.getJobURL(job), scmFacade));
+        List<Supplier<GiteaChecksContext>> contexts = new ArrayList<>();
+        if (scmFacade.findGiteaSCMSource(job).isPresent()) {
+            contexts.add(() -> GiteaSCMSourceChecksContext.fromJob(job, urlProvider.getJobURL(job), scmFacade));
+        }
+
+        PluginLogger consoleLogger = new PluginLogger(listener.getLogger(), "Gitea Checks");
+        return toPublisher(findValidContexts(consoleLogger, contexts, 1), consoleLogger);
+    }
+
+    /**
+     * Returns the remotes of the Git SCMs of the run that checks are published for. A run with a single remote
+     * publishes to it like before, whatever server it is hosted on. If the run has several remotes, only the remotes
+     * that point to a Gitea server are returned, i.e. to the server of the Gitea SCM source or to a Gitea server that
+     * is configured in Jenkins. Other remotes are skipped, so that the credentials of e.g. a GitHub checkout are not
+     * sent to the Gitea API.
+     */
+    private List<UserRemoteConfig> findGiteaRemotes(
+            final Run<?, ?> run, final Set<String> giteaHosts, final PluginLogger consoleLogger) {
+        List<UserRemoteConfig> candidates = new ArrayList<>();
+        for (GitSCM scm : scmFacade.findGitSCMs(run)) {
+            candidates.addAll(scmFacade.getUserRemoteConfigs(scm));
+        }
+        if (candidates.size() <= 1) {
+            return candidates;
+        }
+
+        scmFacade.findGiteaServerUrls().forEach(url -> giteaHosts.add(getHost(url)));
+        List<UserRemoteConfig> remotes = new ArrayList<>();
+        for (UserRemoteConfig remote : candidates) {
+            Optional<String> host = RepositoryUrlParser.get()
+                    .parse(remote.getUrl())
+                    .map(url -> StringUtils.lowerCase(url.getHost(), Locale.ENGLISH));
+            if (host.isEmpty()) {
+                consoleLogger.log("Skipped a Git remote of the run: its URL is not a repository URL");
+            } else if (giteaHosts.contains(host.get())) {
+                remotes.add(remote);
+            } else {
+                consoleLogger.log(
+                        "Skipped a Git remote of the run: host '%s' is not a Gitea server configured in Jenkins",
+                        host.get());
+            }
+        }
+        return remotes;
     }
 
-    private Optional<ChecksPublisher> createPublisher(
-            final TaskListener listener, final GiteaChecksContext... contexts) {
+    /**
+     * Creates a publisher for the contexts. If the contexts belong to several repositories, the publisher fans out to
+     * all of them.
+     */
+    private Optional<ChecksPublisher> toPublisher(
+            final List<GiteaChecksContext> contexts, final PluginLogger consoleLogger) {
+        if (contexts.size() <= 1) {
+            return contexts.stream().findFirst().map(ctx -> new GiteaChecksPublisher(ctx, consoleLogger));
+        }
+        return Optional.of(new FanOutChecksPublisher(contexts.stream()
+                .map(ctx -> new GiteaChecksPublisher(ctx, consoleLogger))
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Returns the valid contexts, at most one for each repository. The candidate contexts have already been filtered
+     * by the type of SCM the job uses, which is cheap to determine, so that jobs that do not use Gitea skip the
+     * expensive validation entirely.
+     */
+    private List<GiteaChecksContext> findValidContexts(
+            final PluginLogger consoleLogger,
+            final List<Supplier<GiteaChecksContext>> contexts,
+            final int maximumCount) {
+        if (contexts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
         FilteredLog causeLogger = new FilteredLog("Causes for no suitable publisher found: ");
-        PluginLogger consoleLogger = new PluginLogger(listener.getLogger(), "Gitea Checks");
+        Map<String, GiteaChecksContext> valid = new LinkedHashMap<>();
 
-        for (GiteaChecksContext ctx : contexts) {
-            if (ctx.isValid(causeLogger)) {
-                return Optional.of(new GiteaChecksPublisher(ctx, consoleLogger));
+        long start = System.nanoTime();
+        try {
+            for (Supplier<GiteaChecksContext> context : contexts) {
+                GiteaChecksContext ctx = context.get();
+                if (ctx.isValid(causeLogger)) {
+                    valid.putIfAbsent(getRepositoryKey(ctx), ctx);
+                    if (valid.size() >= maximumCount) {
+                        break;
+                    }
+                }
             }
+        } finally {
+            GiteaChecksMetrics.get().recordContextResolution(System.nanoTime() - start);
         }
 
-        consoleLogger.logEachLine(causeLogger.getErrorMessages());
-        return Optional.empty();
+        if (valid.isEmpty()) {
+            consoleLogger.logEachLine(causeLogger.getErrorMessages());
+        }
+        return new ArrayList<>(valid.values());
+    }
+
+    /**
+     * Returns the host and repository of the context, so that a repository that is both the Gitea SCM source and
+     * checked out with Git, possibly by a different URL, gets a single status.
+     */
+    private static String getRepositoryKey(final GiteaChecksContext context) {
+        return getHost(context.getGiteaServerUrl())
+                + '/'
+                + StringUtils.lowerCase(context.getRepository(), Locale.ENGLISH);
+    }
+
+    private static String getHost(@CheckForNull final String serverUrl) {
+        String authority = StringUtils.substringBefore(StringUtils.substringAfter(serverUrl, "://"), "/");
+        return StringUtils.lowerCase(StringUtils.substringBefore(authority, ":"), Locale.ENGLISH);
     }
 }
@@ -7,6 +7,7 @@ import hudson.model.Run;
 import java.util.Optional;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.mixin.ChangeRequestSCMHead;
 import org.apache.commons.lang3.StringUtils;
 import org.jenkinsci.plugin.gitea.GiteaSCMSource;
 
@@ -15,11 +16,18 @@ import org.jenkinsci.plugin.gitea.GiteaSCMSource;
  */
 final class GiteaSCMSourceChecksContext extends GiteaChecksContext {
     @CheckForNull
-    private final String sha;
+    private String sha;
+
+    private boolean shaResolved;
 
     @CheckForNull
     private final Run<?, ?> run;
 
+    @CheckForNull
+    private GiteaSCMSource resolvedSource;
+
+    private boolean sourceResolved;
+
     static GiteaSCMSourceChecksContext fromRun(final Run<?, ?> run, final String runURL, final SCMFacade scmFacade) {
         return new GiteaSCMSourceChecksContext(run.getParent(), run, runURL, scmFacade);
     }
@@ -29,7 +37,8 @@ final class GiteaSCMSourceChecksContext extends GiteaChecksContext {
     }
 
     /**
-     * Creates a {@link GiteaSCMSourceChecksContext} according to the job and run, if provided. All attributes are computed during this period.
+     * Creates a {@link GiteaSCMSourceChecksContext} according to the job and run, if provided. All attributes are
+     * resolved lazily when they are used for the first time.
      *
      * @param job
      *         a Gitea Branch Source project
@@ -44,16 +53,16 @@ final class GiteaSCMSourceChecksContext extends GiteaChecksContext {
             final Job<?, ?> job, @CheckForNull final Run<?, ?> run, final String runURL, final SCMFacade scmFacade) {
         super(job, runURL, scmFacade);
         this.run = run;
-        this.sha = Optional.ofNullable(run).map(this::resolveHeadSha).orElse(resolveHeadSha(job));
     }
 
     @Override
     public String getHeadSha() {
-        if (StringUtils.isBlank(sha)) {
+        String headSha = resolveSha();
+        if (StringUtils.isBlank(headSha)) {
             throw new IllegalStateException("No SHA found for job: " + getJob().getName());
         }
 
-        return sha;
+        return headSha;
     }
 
     @Override
@@ -78,10 +87,10 @@ final class GiteaSCMSourceChecksContext extends GiteaChecksContext {
 
     @Override
     public String getGiteaServerUrl() {
-        GiteaSCMSource giteaSCMSource = getScmFacade()
-                .findGiteaSCMSource(getJob())
-                .orElseThrow(() ->
-                        new IllegalArgumentException("Couldn't get GiteaSCMSource from job: " + getJob().getName()));
+        GiteaSCMSource giteaSCMSource = resolveSource();
+        if (giteaSCMSource == null) {
+            throw new IllegalArgumentException("Couldn't get GiteaSCMSource from job: " + getJob().getName());
+        }
         return giteaSCMSource.getServerUrl();
     }
 
@@ -109,7 +118,7 @@ final class GiteaSCMSourceChecksContext extends GiteaChecksContext {
             return false;
         }
 
-        if (StringUtils.isBlank(sha)) {
+        if (StringUtils.isBlank(resolveSha())) {
             logger.logError("No HEAD SHA found for %s", getRepository());
 
             return false;
@@ -118,6 +127,16 @@ final class GiteaSCMSourceChecksContext extends GiteaChecksContext {
         return true;
     }
 
+    @Override
+    public Optional<Long> getPullRequest() {
+        return getScmFacade()
+                .findHead(getJob())
+                .filter(ChangeRequestSCMHead.class::isInstance)
+                .map(head -> ((ChangeRequestSCMHead) head).getId())
+                .filter(StringUtils::isNumeric)
+                .map(Long::valueOf);
+    }
+
     @Override
     protected Optional<Run<?, ?>> getRun() {
         return Optional.ofNullable(run);
@@ -136,7 +155,20 @@ final class GiteaSCMSourceChecksContext extends GiteaChecksContext {
 
     @CheckForNull
     private GiteaSCMSource resolveSource() {
-        return getScmFacade().findGiteaSCMSource(getJob()).orElse(null);
+        if (!sourceResolved) {
+            resolvedSource = getScmFacade().findGiteaSCMSource(getJob()).orElse(null);
+            sourceResolved = true;
+        }
+        return resolvedSource;
+    }
+
+    @CheckForNull
+    private String resolveSha() {
+        if (!shaResolved) {
+            sha = run == null ? resolveHeadSha(getJob()) : resolveHeadSha(run);
+            shaResolved = true;
+        }
+        return sha;
     }
 
     @CheckForNull
@@ -157,7 +189,11 @@ final class GiteaSCMSourceChecksContext extends GiteaChecksContext {
         GiteaSCMSource source = resolveSource();
         Optional<SCMHead> head = getScmFacade().findHead(job);
         if (source != null && head.isPresent()) {
-            Optional<SCMRevision> revision = getScmFacade().findRevision(source, head.get());
+            Optional<SCMRevision> revision = getScmFacade().findLocalRevision(job, source, head.get());
+            if (!revision.isPresent()) {
+                revision = getScmFacade().findRevision(source, head.get());
+                revision.ifPresent(fetched -> getScmFacade().cacheRevision(job, source, fetched));
+            }
             if (revision.isPresent()) {
                 return getScmFacade().findHash(revision.get()).orElse(null);
             }
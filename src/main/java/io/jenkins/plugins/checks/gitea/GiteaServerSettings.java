@@ -0,0 +1,159 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+/**
+ * Settings of the Gitea checks publisher that apply to a single Gitea server and override the global configuration.
+ * Settings that are not set fall back to the values of the global configuration.
+ */
+public class GiteaServerSettings extends AbstractDescribableImpl<GiteaServerSettings> {
+    private final String serverUrl;
+
+    @CheckForNull
+    private Integer connectTimeout;
+
+    @CheckForNull
+    private Integer readTimeout;
+
+    @CheckForNull
+    private String mirrorUrls;
+
+    @CheckForNull
+    private String mirrorCredentialsId;
+
+    /**
+     * Creates the settings for a Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     */
+    @DataBoundConstructor
+    public GiteaServerSettings(final String serverUrl) {
+        super();
+
+        this.serverUrl = StringUtils.defaultString(serverUrl).trim();
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    /**
+     * Returns the time in seconds to wait for a connection to the server.
+     *
+     * @return the connect timeout in seconds, or {@code null} if the global timeout applies
+     */
+    @CheckForNull
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    @DataBoundSetter
+    public void setConnectTimeout(@CheckForNull final Integer connectTimeout) {
+        this.connectTimeout = connectTimeout == null ? null : Math.max(0, connectTimeout);
+    }
+
+    /**
+     * Returns the time in seconds to wait for the response to a request to the server.
+     *
+     * @return the read timeout in seconds, or {@code null} if the global timeout applies
+     */
+    @CheckForNull
+    public Integer getReadTimeout() {
+        return readTimeout;
+    }
+
+    @DataBoundSetter
+    public void setReadTimeout(@CheckForNull final Integer readTimeout) {
+        this.readTimeout = readTimeout == null ? null : Math.max(0, readTimeout);
+    }
+
+    /**
+     * Returns the URLs of the mirrors of the server, one URL per line. Statuses that are published to the server are
+     * published to the same repository and commit on each mirror as well.
+     *
+     * @return the URLs of the mirrors, or {@code null} if the server has no mirrors
+     */
+    @CheckForNull
+    public String getMirrorUrls() {
+        return mirrorUrls;
+    }
+
+    @DataBoundSetter
+    public void setMirrorUrls(@CheckForNull final String mirrorUrls) {
+        this.mirrorUrls = StringUtils.stripToNull(mirrorUrls);
+    }
+
+    /**
+     * Returns the URLs of the mirrors of the server.
+     *
+     * @return the URLs of the mirrors without trailing slashes, the list is empty if the server has no mirrors
+     */
+    List<String> getMirrors() {
+        if (mirrorUrls == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(mirrorUrls.split("\\R"))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .map(url -> StringUtils.removeEnd(url, "/"))
+                .filter(url -> !matches(url))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the ID of the credentials to authenticate with at the mirrors.
+     *
+     * @return the ID of the credentials, or {@code null} if the credentials of the server are used for the mirrors
+     */
+    @CheckForNull
+    public String getMirrorCredentialsId() {
+        return mirrorCredentialsId;
+    }
+
+    @DataBoundSetter
+    public void setMirrorCredentialsId(@CheckForNull final String mirrorCredentialsId) {
+        this.mirrorCredentialsId = StringUtils.trimToNull(mirrorCredentialsId);
+    }
+
+    /**
+     * Returns whether these settings apply to the server with the given URL. Trailing slashes and the case of the URLs
+     * are ignored.
+     *
+     * @param url
+     *         the URL of the Gitea server
+     * @return {@code true} if the settings apply to the server
+     */
+    boolean matches(final String url) {
+        return normalize(serverUrl).equals(normalize(url));
+    }
+
+    private static String normalize(final String url) {
+        return StringUtils.removeEnd(url, "/").toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Descriptor of {@link GiteaServerSettings}.
+     */
+    @Extension
+    public static class DescriptorImpl extends Descriptor<GiteaServerSettings> {
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return "Gitea server";
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.listeners.ItemListener;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import jenkins.scm.api.SCMEvent;
+import jenkins.scm.api.SCMEventListener;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadEvent;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMSource;
+
+/**
+ * Caches the current {@link SCMRevision} of the head a job builds, so that publishing checks for a job does not need
+ * to fetch the revision from Gitea again. The cache is fed with revisions that have been fetched and kept up to date
+ * by SCM head events; entries expire after a few minutes in case no events are delivered. Jobs are identified by their
+ * full name, since the cached source references its owner and thus the job itself, the entries of deleted or renamed
+ * jobs are removed.
+ */
+public final class HeadRevisionCache {
+    private static final long TIME_TO_LIVE = TimeUnit.MINUTES.toNanos(5);
+
+    private static final HeadRevisionCache INSTANCE = new HeadRevisionCache(TIME_TO_LIVE, System::nanoTime);
+
+    private final long timeToLive;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, Entry> revisions = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    HeadRevisionCache(final long timeToLive, final LongSupplier nanoClock) {
+        this.timeToLive = timeToLive;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the cache shared by all jobs of this controller.
+     *
+     * @return the shared cache
+     */
+    static HeadRevisionCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached revision of the head of the job.
+     *
+     * @param job
+     *         the job to get the revision for
+     * @param head
+     *         the head the job builds
+     * @return the cached revision or empty if the revision is not cached or expired
+     */
+    Optional<SCMRevision> find(final Job<?, ?> job, final SCMHead head) {
+        Entry entry = revisions.get(job.getFullName());
+        if (entry == null || !entry.revision.getHead().equals(head)) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt - nanoClock.getAsLong() <= 0) {
+            revisions.remove(job.getFullName(), entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.revision);
+    }
+
+    /**
+     * Remembers the revision of the head of the job.
+     *
+     * @param job
+     *         the job that builds the head
+     * @param source
+     *         the source the head belongs to
+     * @param revision
+     *         the current revision of the head
+     */
+    void put(final Job<?, ?> job, final SCMSource source, final SCMRevision revision) {
+        revisions.put(job.getFullName(), new Entry(source, revision, nanoClock.getAsLong() + timeToLive));
+    }
+
+    /**
+     * Updates the cached revisions of all heads that are affected by the event. The heads of the event are determined
+     * without holding a lock; an entry that has been replaced in the meantime is left as is.
+     *
+     * @param event
+     *         the event that has been received for a source
+     */
+    void update(final SCMHeadEvent<?> event) {
+        long expiresAt = nanoClock.getAsLong() + timeToLive;
+        for (Map.Entry<String, Entry> cached : revisions.entrySet()) {
+            Entry entry = cached.getValue();
+            if (!event.isMatch(entry.source)) {
+                continue;
+            }
+
+            Map<SCMHead, SCMRevision> heads = event.heads(entry.source);
+            SCMHead head = entry.revision.getHead();
+            if (heads.containsKey(head)) {
+                SCMRevision revision = heads.get(head);
+                if (event.getType() == SCMEvent.Type.REMOVED || revision == null) {
+                    revisions.remove(cached.getKey(), entry);
+                } else {
+                    revisions.replace(cached.getKey(), entry, new Entry(entry.source, revision, expiresAt));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the cached revisions of the item with the given full name and of all jobs within the item.
+     *
+     * @param fullName
+     *         the full name of the deleted or renamed item
+     */
+    void invalidate(final String fullName) {
+        String prefix = fullName + "/";
+        revisions.keySet().removeIf(name -> name.equals(fullName) || name.startsWith(prefix));
+    }
+
+    private static final class Entry {
+        private final SCMSource source;
+        private final SCMRevision revision;
+        private final long expiresAt;
+
+        Entry(final SCMSource source, final SCMRevision revision, final long expiresAt) {
+            this.source = source;
+            this.revision = revision;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Removes the cached revisions of jobs that are deleted or renamed.
+     */
+    @Extension
+    public static final class ItemRemovalListener extends ItemListener {
+        @Override
+        public void onDeleted(final Item item) {
+            get().invalidate(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+            get().invalidate(oldFullName);
+        }
+    }
+
+    /**
+     * Keeps the cache up to date when Gitea reports pushes to heads.
+     */
+    @Extension
+    public static final class HeadEventListener extends SCMEventListener {
+        @Override
+        public void onSCMHeadEvent(final SCMHeadEvent<?> event) {
+            get().update(event);
+        }
+    }
+}
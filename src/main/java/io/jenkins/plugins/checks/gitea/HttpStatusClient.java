@@ -0,0 +1,308 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.ProxyConfiguration;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import jenkins.authentication.tokens.api.AuthenticationTokens;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugin.gitea.client.api.GiteaAuth;
+import org.jenkinsci.plugin.gitea.client.api.GiteaAuthToken;
+import org.jenkinsci.plugin.gitea.client.api.GiteaAuthUser;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitStatus;
+
+/**
+ * Sends commit statuses with a {@link HttpClient} that is shared by all publishers. The client keeps one connection
+ * per Gitea server and multiplexes concurrent requests over it if the server supports HTTP/2, so that statuses do not
+ * wait for each other or for a free connection. Besides commit statuses, the client sends the requests of the
+ * {@link ReviewCommentPublisher} and the {@link OutputCommentPublisher}.
+ */
+final class HttpStatusClient {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_MULTIPLE_CHOICES = 300;
+
+    private static final HttpStatusClient INSTANCE = new HttpStatusClient(
+            serverUrl -> GiteaChecksGlobalConfiguration.get().getConnectTimeout(serverUrl),
+            serverUrl -> GiteaChecksGlobalConfiguration.get().getReadTimeout(serverUrl),
+            HttpStatusClient::createClient);
+
+    private final ToIntFunction<String> connectTimeoutSeconds;
+    private final ToIntFunction<String> readTimeoutSeconds;
+    private final IntFunction<HttpClient> clientFactory;
+    /** The clients by connect timeout, since the connect timeout can only be set for a whole client. */
+    private final ConcurrentMap<Integer, HttpClient> clients = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    HttpStatusClient(
+            final ToIntFunction<String> connectTimeoutSeconds,
+            final ToIntFunction<String> readTimeoutSeconds,
+            final IntFunction<HttpClient> clientFactory) {
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+        this.readTimeoutSeconds = readTimeoutSeconds;
+        this.clientFactory = clientFactory;
+    }
+
+    /**
+     * Returns the client shared by all publishers of this controller.
+     *
+     * @return the shared client
+     */
+    static HttpStatusClient get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts to create the commit status on the Gitea server.
+     *
+     * @param pending
+     *         the status to send
+     * @return the pending request, which fails with a {@link StatusRequestException} if the server rejects the status
+     */
+    CompletableFuture<Void> createCommitStatus(final PendingCommitStatus pending) {
+        HttpRequest request;
+        try {
+            request = createRequest(pending);
+        } catch (IOException | RuntimeException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+
+        return send(pending.getServerUrl(), request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> null);
+    }
+
+    /**
+     * Creates a request to an endpoint of the Gitea API. The request is authenticated with the credentials and times
+     * out after the read timeout of the server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @param credentials
+     *         the credentials to authenticate with
+     * @param path
+     *         the path of the endpoint below {@code /api/v1/}, with {@linkplain #encode encoded} segments
+     * @return the builder of the request, the method and body still need to be set
+     */
+    HttpRequest.Builder newRequest(final String serverUrl, final StandardCredentials credentials, final String path) {
+        HttpRequest.Builder builder = ProxyConfiguration.newHttpRequestBuilder(
+                URI.create(StringUtils.removeEnd(serverUrl, "/") + "/api/v1/" + path));
+        int readTimeout = readTimeoutSeconds.applyAsInt(serverUrl);
+        if (readTimeout > 0) {
+            builder.timeout(Duration.ofSeconds(readTimeout));
+        }
+        authenticate(builder, credentials);
+        return builder;
+    }
+
+    /**
+     * Sends the request to the Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @param request
+     *         the request to send
+     * @param bodyHandler
+     *         the handler of the response body
+     * @param <T>
+     *         the type of the response body
+     * @return the pending response, which fails with a {@link StatusRequestException} if the server responds with an
+     *         error
+     */
+    <T> CompletableFuture<HttpResponse<T>> send(
+            final String serverUrl, final HttpRequest request, final HttpResponse.BodyHandler<T> bodyHandler) {
+        HttpClient client = clients.computeIfAbsent(connectTimeoutSeconds.applyAsInt(serverUrl), clientFactory::apply);
+        return client.sendAsync(request, bodyHandler).thenCompose(response -> {
+            if (response.statusCode() < HTTP_OK || response.statusCode() >= HTTP_MULTIPLE_CHOICES) {
+                return CompletableFuture.failedFuture(new StatusRequestException(
+                        response.statusCode(),
+                        describe(response.body()),
+                        parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null))));
+            }
+            return CompletableFuture.completedFuture(response);
+        });
+    }
+
+    /**
+     * Sends the request to the Gitea server and waits for the response.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @param request
+     *         the request to send
+     * @param bodyHandler
+     *         the handler of the response body
+     * @param <T>
+     *         the type of the response body
+     * @return the response
+     * @throws IOException
+     *         if the request failed or the server responded with an error
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting for the response
+     */
+    <T> HttpResponse<T> execute(
+            final String serverUrl, final HttpRequest request, final HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<T>> response = send(serverUrl, request, bodyHandler);
+        try {
+            return response.get();
+        } catch (InterruptedException exception) {
+            response.cancel(true);
+            throw exception;
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static String describe(@CheckForNull final Object body) {
+        if (body instanceof InputStream) {
+            try (InputStream stream = (InputStream) body) {
+                return new String(stream.readNBytes(1000), StandardCharsets.UTF_8);
+            } catch (IOException exception) {
+                return "";
+            }
+        }
+        return StringUtils.abbreviate(Objects.toString(body, ""), 1000);
+    }
+
+    private HttpRequest createRequest(final PendingCommitStatus pending) throws IOException {
+        String path = String.format(
+                "repos/%s/%s/statuses/%s",
+                encode(pending.getRepoOwner()), encode(pending.getRepo()), encode(pending.getSha()));
+
+        return newRequest(pending.getServerUrl(), pending.getCredentials(), path)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        MAPPER.writeValueAsString(toJson(pending.getStatus())), StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static void authenticate(final HttpRequest.Builder builder, final StandardCredentials credentials) {
+        GiteaAuth auth = AuthenticationTokens.convert(GiteaAuth.class, credentials);
+        if (auth instanceof GiteaAuthToken) {
+            builder.header("Authorization", "token " + ((GiteaAuthToken) auth).getToken());
+        } else if (auth instanceof GiteaAuthUser) {
+            GiteaAuthUser user = (GiteaAuthUser) auth;
+            String basic = user.getUsername() + ':' + user.getPassword();
+            builder.header(
+                    "Authorization",
+                    "Basic " + Base64.getEncoder().encodeToString(basic.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static ObjectNode toJson(final GiteaCommitStatus status) {
+        ObjectNode json = MAPPER.createObjectNode();
+        if (status.getState() != null) {
+            json.put("state", status.getState().name().toLowerCase(Locale.ENGLISH));
+        }
+        json.put("context", status.getContext());
+        json.put("description", status.getDescription());
+        json.put("target_url", status.getTargetUrl());
+        return json;
+    }
+
+    /**
+     * Encodes a segment of the path of a request.
+     *
+     * @param pathSegment
+     *         the segment to encode
+     * @return the encoded segment
+     */
+    static String encode(final String pathSegment) {
+        return URLEncoder.encode(pathSegment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * Parses the value of a {@code Retry-After} header, which is either a number of seconds or an HTTP date.
+     *
+     * @param value
+     *         the value of the header
+     * @return the time to wait in milliseconds, or -1 if the value is missing or invalid
+     */
+    @VisibleForTesting
+    static long parseRetryAfter(@CheckForNull final String value) {
+        if (StringUtils.isBlank(value)) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        if (StringUtils.isNumeric(trimmed)) {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(trimmed));
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException exception) {
+            return -1;
+        }
+    }
+
+    private static HttpClient createClient(final int connectTimeoutSeconds) {
+        HttpClient.Builder builder =
+                ProxyConfiguration.newHttpClientBuilder().version(HttpClient.Version.HTTP_2);
+        if (connectTimeoutSeconds > 0) {
+            builder.connectTimeout(Duration.ofSeconds(connectTimeoutSeconds));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Thrown if the Gitea server responds to a request with an error.
+     */
+    static final class StatusRequestException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int statusCode;
+        private final long retryAfter;
+
+        StatusRequestException(final int statusCode, final String body, final long retryAfter) {
+            super("Gitea responded with HTTP status " + statusCode + ": " + body);
+
+            this.statusCode = statusCode;
+            this.retryAfter = retryAfter;
+        }
+
+        int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Returns the time the server asked to wait before the next request.
+         *
+         * @return the time in milliseconds, or -1 if the server did not ask to wait
+         */
+        long getRetryAfter() {
+            return retryAfter;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import hudson.Extension;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import jenkins.metrics.api.MetricProvider;
+import jenkins.metrics.api.Metrics;
+
+/**
+ * Records the metrics of {@link GiteaChecksMetrics} in the registry of the Metrics plugin. This class must only be
+ * loaded if the optional Metrics plugin is installed.
+ */
+public final class MetricsPluginRecorder implements GiteaChecksMetrics.Recorder {
+    @Override
+    public void count(final String name) {
+        Metrics.metricRegistry().counter(name).inc();
+    }
+
+    @Override
+    public void time(final String name, final long durationNanos) {
+        Metrics.metricRegistry().timer(name).update(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Provides gauges for the state of the deduplication cache and of the dispatch queue.
+     */
+    @Extension(optional = true)
+    public static final class GaugeProvider extends MetricProvider {
+        private final MetricSet metricSet = () -> {
+            Map<String, Metric> gauges = new HashMap<>();
+            gauges.put(
+                    GiteaChecksMetrics.PREFIX + "dedup.hit-ratio",
+                    (Gauge<Double>) () -> PublishedStatusCache.get().getHitRatio());
+            gauges.put(
+                    GiteaChecksMetrics.PREFIX + "dispatch.queue.size",
+                    (Gauge<Integer>) () -> CommitStatusDispatcher.get().getQueueSize());
+            gauges.put(
+                    GiteaChecksMetrics.PREFIX + "dispatch.coalesced",
+                    (Gauge<Long>) () -> CommitStatusDispatcher.get().getCoalescedCount());
+            return gauges;
+        };
+
+        @Override
+        public MetricSet getMetricSet() {
+            return metricSet;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import edu.hm.hafner.util.VisibleForTesting;
+import java.util.List;
+
+/**
+ * Publishes commit statuses to the mirrors of a Gitea server. The statuses of the mirrors are queued in the
+ * {@linkplain CommitStatusDispatcher#forMirrors() dispatcher for mirrors} without waiting, so they are sent
+ * concurrently with the status of the primary server and never delay it. Each mirror is a server of its own for the
+ * timeouts, the rate limit and the circuit breaker, so a slow or failing mirror affects neither the primary server nor
+ * the other mirrors. The statuses of mirrors are not kept in the {@link StatusOutbox}, mirrors that have been
+ * unavailable for a while catch up with the next status of a check. The published statuses of the mirrors are
+ * remembered in a {@linkplain PublishedStatusCache#forMirrors() cache} of their own.
+ */
+final class MirrorStatusPublisher {
+    private static final MirrorStatusPublisher INSTANCE =
+            new MirrorStatusPublisher(CommitStatusDispatcher.forMirrors(), PublishedStatusCache.forMirrors());
+
+    private final CommitStatusDispatcher dispatcher;
+    private final PublishedStatusCache publishedStatuses;
+
+    @VisibleForTesting
+    MirrorStatusPublisher(final CommitStatusDispatcher dispatcher, final PublishedStatusCache publishedStatuses) {
+        this.dispatcher = dispatcher;
+        this.publishedStatuses = publishedStatuses;
+    }
+
+    /**
+     * Returns the publisher shared by all checks publishers of this controller.
+     *
+     * @return the shared publisher
+     */
+    static MirrorStatusPublisher get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues the status for each of the mirrors. Statuses that have already been published to a mirror are skipped.
+     *
+     * @param status
+     *         the status of the primary server
+     * @param mirrorUrls
+     *         the URLs of the mirrors
+     * @param credentials
+     *         the credentials to authenticate with at the mirrors
+     * @return the number of mirrors the status has been queued for
+     */
+    int publish(
+            final PendingCommitStatus status, final List<String> mirrorUrls, final StandardCredentials credentials) {
+        int queued = 0;
+        for (String mirrorUrl : mirrorUrls) {
+            PendingCommitStatus mirrored = status.forMirror(mirrorUrl, credentials);
+            if (publishedStatuses.isPublished(mirrored)) {
+                continue;
+            }
+
+            publishedStatuses.recordSubmitted(mirrored);
+            try {
+                if (dispatcher.submit(mirrored, 0)) {
+                    queued++;
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return queued;
+    }
+}
@@ -0,0 +1,464 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.checks.api.ChecksDetails;
+import io.jenkins.plugins.checks.api.ChecksOutput;
+import io.jenkins.plugins.checks.gitea.CircuitBreaker.ServerUnavailableException;
+import io.jenkins.plugins.checks.gitea.HttpStatusClient.StatusRequestException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jenkins.util.SystemProperties;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Publishes the outputs of all checks of a pull request in a single comment on the pull request, since the description
+ * of a commit status is limited to 256 characters. The comment is created once and then edited in place whenever the
+ * output of a check changes; if the rendered comment did not change, no request is sent. The comment is recognized by
+ * a marker and its author, so that it is found again after a restart of Jenkins; the outputs of the other checks of the
+ * head commit are then restored from the comment.
+ *
+ * <p>
+ * Only one thread at a time sends the comment of a pull request, without holding a lock while waiting for Gitea.
+ * Outputs that are published while the comment is being sent are picked up by that thread, which sends the comment
+ * again until it is up to date.
+ * </p>
+ *
+ * <p>
+ * The requests are limited by the {@link RateLimiter}, comments are not sent to servers that are unavailable according
+ * to the {@link CircuitBreaker}. If publishing is asynchronous, the comments are sent by a small pool of threads with a
+ * bounded queue.
+ * </p>
+ */
+final class OutputCommentPublisher {
+    private static final Logger LOGGER = Logger.getLogger(OutputCommentPublisher.class.getName());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final String MARKER = "<!-- gitea-checks:output -->";
+    private static final String HEADER = "\n## Jenkins checks of ";
+    private static final Pattern SECTION_MARKER = Pattern.compile("\n<!-- gitea-checks:section (\\S+) -->\n");
+    private static final int HTTP_NOT_FOUND = 404;
+    private static final int PAGE_SIZE = 50;
+    private static final int MAXIMUM_OUTPUT_SIZE = 16_000;
+    private static final int MAXIMUM_COMMENT_SIZE = 65_000;
+
+    private static final int MAXIMUM_SIZE =
+            SystemProperties.getInteger(OutputCommentPublisher.class.getName() + ".maximumSize", 1000);
+
+    private static final int THREADS =
+            SystemProperties.getInteger(OutputCommentPublisher.class.getName() + ".threads", 2);
+    private static final int QUEUE_CAPACITY =
+            SystemProperties.getInteger(OutputCommentPublisher.class.getName() + ".queueCapacity", 100);
+
+    private static final OutputCommentPublisher INSTANCE = new OutputCommentPublisher(
+            HttpStatusClient.get(),
+            MAXIMUM_SIZE,
+            RateLimiter.get(),
+            CircuitBreaker.get(),
+            createExecutor(THREADS, QUEUE_CAPACITY));
+
+    private final HttpStatusClient client;
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final Executor executor;
+    private final Map<String, OutputComment> comments;
+
+    @VisibleForTesting
+    OutputCommentPublisher(final HttpStatusClient client, final int maximumSize) {
+        this(client, maximumSize, RateLimiter.get(), CircuitBreaker.get(), Runnable::run);
+    }
+
+    @VisibleForTesting
+    OutputCommentPublisher(
+            final HttpStatusClient client,
+            final int maximumSize,
+            final RateLimiter rateLimiter,
+            final CircuitBreaker circuitBreaker,
+            final Executor executor) {
+        this.client = client;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.executor = executor;
+        this.comments = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, OutputComment> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the publisher shared by all checks publishers of this controller.
+     *
+     * @return the shared publisher
+     */
+    static OutputCommentPublisher get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Renders the output of a check as a section of the comment.
+     *
+     * @param details
+     *         the details of the check
+     * @param giteaDetails
+     *         the details of the check, adapted to Gitea
+     * @return the section of the comment in markdown
+     */
+    static String renderSection(final ChecksDetails details, final GiteaChecksDetails giteaDetails) {
+        StringBuilder section = new StringBuilder()
+                .append("### ")
+                .append(giteaDetails.getContextString())
+                .append(" (")
+                .append(giteaDetails.getStatus().name().toLowerCase(Locale.ENGLISH))
+                .append(")\n");
+        details.getOutput().ifPresent(output -> appendOutput(section, output));
+        giteaDetails.getDetailsURL().ifPresent(url -> section.append("\n[Details](").append(url).append(")\n"));
+        return section.toString();
+    }
+
+    private static void appendOutput(final StringBuilder section, final ChecksOutput output) {
+        output.getTitle().ifPresent(title -> section.append("\n**").append(title).append("**\n"));
+        output.getSummary(MAXIMUM_OUTPUT_SIZE).ifPresent(summary -> section.append('\n').append(summary).append('\n'));
+        output.getText(MAXIMUM_OUTPUT_SIZE).ifPresent(text -> section.append('\n').append(text).append('\n'));
+    }
+
+    /**
+     * Publishes the rendered output of a check in the comment of the pull request. The outputs of the checks that
+     * have been published for the same head commit before are kept in the comment, outputs of previous head commits
+     * are removed.
+     *
+     * @param pullRequest
+     *         the pull request to comment on
+     * @param checkName
+     *         the name of the check
+     * @param section
+     *         the {@linkplain #renderSection rendered output} of the check
+     * @return {@code true} if the comment has been or is being created or edited, {@code false} if it did not change
+     * @throws IOException
+     *         if the comment could not be created or edited
+     * @throws InterruptedException
+     *         if the current thread has been interrupted
+     */
+    boolean publish(final PullRequest pullRequest, final String checkName, final String section)
+            throws IOException, InterruptedException {
+        String key = pullRequest.getServerUrl() + '/' + pullRequest.getPath("pulls/" + pullRequest.getNumber());
+        OutputComment comment;
+        synchronized (comments) {
+            comment = comments.computeIfAbsent(key, unused -> new OutputComment());
+        }
+
+        synchronized (comment) {
+            if (!pullRequest.getSha().equals(comment.sha)) {
+                comment.sha = pullRequest.getSha();
+                comment.sections.clear();
+            }
+            comment.sections.put(checkName, section);
+
+            if (comment.sending) {
+                return true; // the sending thread picks up the new output
+            }
+            if (comment.found && MessageDigest.isEqual(hash(render(comment)), comment.hash)) {
+                return false;
+            }
+            comment.sending = true; // checks of the same pull request must not create a comment each
+        }
+
+        String serverUrl = pullRequest.getServerUrl();
+        try {
+            circuitBreaker.acquire(serverUrl);
+        } catch (ServerUnavailableException exception) {
+            synchronized (comment) {
+                comment.sending = false;
+            }
+            throw exception;
+        }
+
+        boolean recorded = false;
+        try {
+            boolean sent = send(pullRequest, comment);
+            circuitBreaker.recordSuccess(serverUrl);
+            recorded = true;
+            return sent;
+        } catch (IOException | InterruptedException | RuntimeException exception) {
+            synchronized (comment) {
+                comment.sending = false;
+            }
+            if (exception instanceof IOException && RetryPolicy.isTransient(exception)) {
+                circuitBreaker.recordFailure(serverUrl);
+                recorded = true;
+            }
+            throw exception;
+        } finally {
+            if (!recorded) {
+                circuitBreaker.release(serverUrl); // let the next request probe the server if this was the probe
+            }
+        }
+    }
+
+    /**
+     * Publishes the rendered output of a check in the comment of the pull request in the background.
+     *
+     * @param pullRequest
+     *         the pull request to comment on
+     * @param checkName
+     *         the name of the check
+     * @param section
+     *         the {@linkplain #renderSection rendered output} of the check
+     * @return whether the comment has been or is being created or edited, once it has been sent
+     * @throws java.util.concurrent.RejectedExecutionException
+     *         if too many publications are waiting already
+     */
+    CompletableFuture<Boolean> publishAsync(
+            final PullRequest pullRequest, final String checkName, final String section) {
+        CompletableFuture<Boolean> published = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                published.complete(publish(pullRequest, checkName, section));
+            } catch (IOException | RuntimeException exception) {
+                published.completeExceptionally(exception);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                published.completeExceptionally(exception);
+            }
+        });
+        return published;
+    }
+
+    private boolean send(final PullRequest pullRequest, final OutputComment comment)
+            throws IOException, InterruptedException {
+        boolean found;
+        synchronized (comment) {
+            found = comment.found;
+        }
+        if (!found) {
+            JsonNode existing = findComment(pullRequest);
+            synchronized (comment) {
+                if (existing != null) {
+                    comment.id = existing.path("id").asLong(-1);
+                    restoreSections(comment, existing.path("body").asText());
+                }
+                comment.found = true;
+            }
+        }
+
+        boolean sent = false;
+        while (true) {
+            String body;
+            byte[] hash;
+            long id;
+            synchronized (comment) {
+                body = render(comment);
+                hash = hash(body);
+                if (MessageDigest.isEqual(hash, comment.hash)) {
+                    comment.sending = false;
+                    return sent;
+                }
+                id = comment.id;
+            }
+
+            if (id >= 0 && !editComment(pullRequest, id, body)) {
+                id = -1;
+            }
+            if (id < 0) {
+                id = createComment(pullRequest, body);
+            }
+            synchronized (comment) {
+                comment.id = id;
+                comment.hash = hash;
+            }
+            sent = true;
+        }
+    }
+
+    private static String render(final OutputComment comment) {
+        StringBuilder body = new StringBuilder(MARKER).append(HEADER).append(comment.sha).append('\n');
+        comment.sections.forEach((name, section) -> body.append("\n<!-- gitea-checks:section ")
+                .append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                .append(" -->\n")
+                .append(section));
+        return StringUtils.abbreviate(body.toString(), MAXIMUM_COMMENT_SIZE);
+    }
+
+    /**
+     * Restores the outputs of the checks of the current head commit from the body of an existing comment. Outputs
+     * that have been published since are kept.
+     */
+    private static void restoreSections(final OutputComment comment, final String body) {
+        if (!body.startsWith(MARKER + HEADER + comment.sha + '\n')) {
+            return; // the comment shows the outputs of a previous head commit
+        }
+
+        Matcher matcher = SECTION_MARKER.matcher(body);
+        String name = null;
+        int start = 0;
+        while (true) {
+            boolean more = matcher.find();
+            if (name != null) {
+                comment.sections.putIfAbsent(
+                        URLDecoder.decode(name, StandardCharsets.UTF_8),
+                        body.substring(start, more ? matcher.start() : body.length()));
+            }
+            if (!more) {
+                return;
+            }
+            name = matcher.group(1);
+            start = matcher.end();
+        }
+    }
+
+    private static byte[] hash(final String body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported", exception);
+        }
+    }
+
+    /**
+     * Finds the comment with the marker that has been created by the user of the credentials, going through all pages
+     * of the comments of the pull request. Servers that do not paginate the comments return all of them at once.
+     */
+    @CheckForNull
+    private JsonNode findComment(final PullRequest pullRequest) throws IOException, InterruptedException {
+        String login = getJson(pullRequest, "user").path("login").asText();
+        long previousFirstId = -1;
+        for (int page = 1; ; page++) {
+            JsonNode comments = getJson(
+                    pullRequest,
+                    pullRequest.getPath(String.format(
+                            "issues/%d/comments?page=%d&limit=%d", pullRequest.getNumber(), page, PAGE_SIZE)));
+            long firstId = comments.path(0).path("id").asLong(-1);
+            if (firstId == previousFirstId) {
+                return null; // the server ignores the page
+            }
+            for (JsonNode comment : comments) {
+                if (comment.path("user").path("login").asText().equals(login)
+                        && comment.path("body").asText().startsWith(MARKER)) {
+                    LOGGER.fine(() -> "Found output comment of " + pullRequest);
+                    return comment;
+                }
+            }
+            if (comments.size() != PAGE_SIZE) {
+                return null;
+            }
+            previousFirstId = firstId;
+        }
+    }
+
+    private JsonNode getJson(final PullRequest pullRequest, final String path)
+            throws IOException, InterruptedException {
+        HttpRequest request = client.newRequest(pullRequest.getServerUrl(), pullRequest.getCredentials(), path)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        try (InputStream response = execute(pullRequest, request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            return MAPPER.readTree(response);
+        }
+    }
+
+    private boolean editComment(final PullRequest pullRequest, final long id, final String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = client.newRequest(
+                        pullRequest.getServerUrl(),
+                        pullRequest.getCredentials(),
+                        pullRequest.getPath("issues/comments/" + id))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .method("PATCH", toJson(body))
+                .build();
+        try {
+            execute(pullRequest, request, HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (StatusRequestException exception) {
+            if (exception.getStatusCode() == HTTP_NOT_FOUND) {
+                return false; // the comment has been deleted
+            }
+            throw exception;
+        }
+    }
+
+    private long createComment(final PullRequest pullRequest, final String body)
+            throws IOException, InterruptedException {
+        HttpRequest request = client.newRequest(
+                        pullRequest.getServerUrl(),
+                        pullRequest.getCredentials(),
+                        pullRequest.getPath(String.format("issues/%d/comments", pullRequest.getNumber())))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(toJson(body))
+                .build();
+        String response = execute(pullRequest, request, HttpResponse.BodyHandlers.ofString()).body();
+        return MAPPER.readTree(response).path("id").asLong(-1);
+    }
+
+    private <T> HttpResponse<T> execute(
+            final PullRequest pullRequest, final HttpRequest request, final HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        rateLimiter.acquire(pullRequest.getServerUrl());
+        return client.execute(pullRequest.getServerUrl(), request, bodyHandler);
+    }
+
+    private static HttpRequest.BodyPublisher toJson(final String body) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(
+                MAPPER.writeValueAsString(MAPPER.createObjectNode().put("body", body)), StandardCharsets.UTF_8);
+    }
+
+    private static Executor createExecutor(final int threads, final int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                Math.max(1, threads),
+                Math.max(1, threads),
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new NamingThreadFactory(new DaemonThreadFactory(), "Gitea checks output comments"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The comment of a pull request and the outputs of the checks of its head commit, guarded by the instance itself.
+     */
+    private static final class OutputComment {
+        private long id = -1;
+
+        /** Whether the existing comment has been looked up. */
+        private boolean found;
+
+        /** Whether a thread is sending the comment. */
+        private boolean sending;
+
+        @CheckForNull
+        private String sha;
+
+        @CheckForNull
+        private byte[] hash;
+
+        private final Map<String, String> sections = new TreeMap<>();
+    }
+}
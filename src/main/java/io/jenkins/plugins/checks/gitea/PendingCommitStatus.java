@@ -0,0 +1,214 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitStatus;
+
+/**
+ * A {@link GiteaCommitStatus} together with everything that is required to send it to the Gitea server: the server
+ * URL, the credentials and the commit the status belongs to. Instances are resolved on the build thread so that they
+ * can be delivered later without access to the run.
+ *
+ * <p>
+ * Each status gets a sequence number when it is created, so that a status that is retried can be recognized as being
+ * older than a status that has been created for the same context in the meantime.
+ * </p>
+ */
+final class PendingCommitStatus {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final String serverUrl;
+    private final StandardCredentials credentials;
+    private final String jobName;
+    private final String repoOwner;
+    private final String repo;
+    private final String sha;
+    private final GiteaCommitStatus status;
+    private final long sequence;
+    private final int attempt;
+
+    PendingCommitStatus(
+            final String serverUrl,
+            final StandardCredentials credentials,
+            final String jobName,
+            final String repoOwner,
+            final String repo,
+            final String sha,
+            final GiteaCommitStatus status) {
+        this(serverUrl, credentials, jobName, repoOwner, repo, sha, status, SEQUENCE.incrementAndGet(), 0);
+    }
+
+    private PendingCommitStatus(
+            final String serverUrl,
+            final StandardCredentials credentials,
+            final String jobName,
+            final String repoOwner,
+            final String repo,
+            final String sha,
+            final GiteaCommitStatus status,
+            final long sequence,
+            final int attempt) {
+        this.serverUrl = serverUrl;
+        this.credentials = credentials;
+        this.jobName = jobName;
+        this.repoOwner = repoOwner;
+        this.repo = repo;
+        this.sha = sha;
+        this.status = status;
+        this.sequence = sequence;
+        this.attempt = attempt;
+    }
+
+    String getServerUrl() {
+        return serverUrl;
+    }
+
+    StandardCredentials getCredentials() {
+        return credentials;
+    }
+
+    String getJobName() {
+        return jobName;
+    }
+
+    String getRepoOwner() {
+        return repoOwner;
+    }
+
+    String getRepo() {
+        return repo;
+    }
+
+    String getSha() {
+        return sha;
+    }
+
+    GiteaCommitStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the sequence number of the status. Statuses that have been created later have a higher number.
+     *
+     * @return the sequence number
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns how many times sending the status has been retried.
+     *
+     * @return the number of retries, 0 for the first attempt
+     */
+    int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Returns a copy of the status for the next attempt to send it. The copy keeps the sequence number.
+     *
+     * @return the status for the next attempt
+     */
+    PendingCommitStatus nextAttempt() {
+        return new PendingCommitStatus(
+                serverUrl, credentials, jobName, repoOwner, repo, sha, status, sequence, attempt + 1);
+    }
+
+    /**
+     * Returns a copy of the status that is sent to a mirror of the Gitea server. The copy is a new status with its own
+     * sequence number, so that it is delivered and retried independently of this status.
+     *
+     * @param mirrorUrl
+     *         the URL of the mirror
+     * @param mirrorCredentials
+     *         the credentials to authenticate with at the mirror
+     * @return the status for the mirror
+     */
+    PendingCommitStatus forMirror(final String mirrorUrl, final StandardCredentials mirrorCredentials) {
+        return new PendingCommitStatus(mirrorUrl, mirrorCredentials, jobName, repoOwner, repo, sha, status);
+    }
+
+    /**
+     * Returns the key of the status. Gitea only shows the latest status of a context for a commit, so statuses with
+     * the same key supersede each other.
+     *
+     * @return the key of the status
+     */
+    Key getKey() {
+        return new Key(serverUrl, repoOwner, repo, sha, status.getContext());
+    }
+
+    /**
+     * Returns whether the other status belongs to the same commit and is sent with the same credentials, so that both
+     * statuses can be sent using the same connection.
+     *
+     * @param other
+     *         the other status
+     * @return {@code true} if both statuses belong to the same commit
+     */
+    boolean isSameCommit(final PendingCommitStatus other) {
+        return serverUrl.equals(other.serverUrl)
+                && repoOwner.equals(other.repoOwner)
+                && repo.equals(other.repo)
+                && sha.equals(other.sha)
+                && Objects.equals(credentials.getId(), other.credentials.getId());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                        "repo: %s/%s, sha: %s, job name: %s, name: %s, status: %s",
+                        repoOwner, repo, sha, jobName, status.getContext(), status.getState())
+                .replaceAll("[\r\n]", "");
+    }
+
+    /**
+     * Identifies the commit status of a context on a commit of a repository.
+     */
+    static final class Key {
+        private final String serverUrl;
+        private final String repoOwner;
+        private final String repo;
+        private final String sha;
+
+        @CheckForNull
+        private final String context;
+
+        Key(
+                final String serverUrl,
+                final String repoOwner,
+                final String repo,
+                final String sha,
+                @CheckForNull final String context) {
+            this.serverUrl = serverUrl;
+            this.repoOwner = repoOwner;
+            this.repo = repo;
+            this.sha = sha;
+            this.context = context;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return serverUrl.equals(key.serverUrl)
+                    && repoOwner.equals(key.repoOwner)
+                    && repo.equals(key.repo)
+                    && sha.equals(key.sha)
+                    && Objects.equals(context, key.context);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serverUrl, repoOwner, repo, sha, context);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package io.jenkins.plugins.checks.gitea;
+
+/**
+ * Converts the markdown summary of a check into the plain text description of a Gitea commit status, since Gitea shows
+ * descriptions as plain text. The summary is read character by character and the conversion stops as soon as the
+ * description is full, so that the cost depends on the length of the description rather than on the length of the
+ * summary. Markdown markup and HTML tags are removed, HTML entities are decoded, and all whitespace, including line
+ * breaks, is collapsed to single spaces.
+ */
+final class PlainTextDescription {
+    private static final char ELLIPSIS = '\u2026';
+    private static final int MAXIMUM_ENTITY_LENGTH = 8;
+
+    private final CharSequence markdown;
+    private final int maxLength;
+    private final StringBuilder text;
+
+    private int position;
+    private boolean lineStart = true;
+    private boolean pendingSpace;
+    private boolean full;
+    private int linkTextEnd = -1;
+
+    private PlainTextDescription(final CharSequence markdown, final int maxLength) {
+        this.markdown = markdown;
+        this.maxLength = maxLength;
+        this.text = new StringBuilder(Math.min(maxLength, markdown.length()));
+    }
+
+    /**
+     * Converts the beginning of the markdown to plain text.
+     *
+     * @param markdown
+     *         the markdown to convert
+     * @param maxLength
+     *         the maximum length of the plain text
+     * @param truncated
+     *         whether the markdown has already been truncated, the plain text ends with an ellipsis in this case
+     * @return the plain text, which ends with an ellipsis if it is shorter than the converted markdown
+     */
+    static String create(final CharSequence markdown, final int maxLength, final boolean truncated) {
+        PlainTextDescription description = new PlainTextDescription(markdown, maxLength);
+        description.convert();
+        return description.finish(truncated);
+    }
+
+    private void convert() {
+        while (position < markdown.length() && !full) {
+            if (lineStart) {
+                skipBlockMarkers();
+                lineStart = false;
+                continue;
+            }
+
+            char c = markdown.charAt(position);
+            if (c == '\n') {
+                lineStart = true;
+                pendingSpace = true;
+                position++;
+            } else if (position == linkTextEnd) {
+                skipLinkTarget();
+            } else if (c == '<' && isTagStart(position + 1)) {
+                skipTag();
+            } else if (c == '&') {
+                decodeEntity();
+            } else if (c == '!' && charAt(position + 1) == '[' && isLinkText(position + 1)) {
+                position++; // the alternative text of an image is kept
+            } else if (c == '[' && isLinkText(position)) {
+                position++;
+            } else if (c == '\\' && isPunctuation(charAt(position + 1))) {
+                append(markdown.charAt(position + 1));
+                position += 2;
+            } else if (c == '*' || c == '`' || c == '~' || c == '_' && isWordBoundary()) {
+                position++;
+            } else if (c == '|' || Character.isWhitespace(c)) {
+                pendingSpace = true;
+                position++;
+            } else {
+                append(c);
+                position++;
+            }
+        }
+    }
+
+    private String finish(final boolean truncated) {
+        if (full || truncated && text.length() > 0) {
+            if (text.length() >= maxLength) {
+                text.setLength(maxLength - 1);
+            }
+            text.append(ELLIPSIS);
+        }
+        return text.toString();
+    }
+
+    private void append(final char c) {
+        int spaceLength = pendingSpace && text.length() > 0 ? 1 : 0;
+        if (text.length() + spaceLength >= maxLength) {
+            full = true;
+            return;
+        }
+
+        if (spaceLength > 0) {
+            text.append(' ');
+        }
+        pendingSpace = false;
+        text.append(c);
+    }
+
+    /**
+     * Skips the markers of headings, quotes, lists and code fences at the start of a line, and lines that consist of
+     * markup only, like thematic breaks and the separators of tables.
+     */
+    private void skipBlockMarkers() {
+        skipSpaces();
+        if (startsWith(position, "```") || startsWith(position, "~~~") || isMarkupLine()) {
+            skipLine();
+            return;
+        }
+
+        boolean skipped;
+        do {
+            int start = position;
+            if (charAt(position) == '>') {
+                position++;
+            } else if (charAt(position) == '#') {
+                int end = position;
+                while (charAt(end) == '#') {
+                    end++;
+                }
+                if (charAt(end) == ' ' || charAt(end) == '\n' || charAt(end) == 0) {
+                    position = end;
+                }
+            } else if ((charAt(position) == '-' || charAt(position) == '+' || charAt(position) == '*')
+                    && charAt(position + 1) == ' ') {
+                position++;
+            } else if (Character.isDigit(charAt(position))) {
+                int end = position;
+                while (Character.isDigit(charAt(end))) {
+                    end++;
+                }
+                if ((charAt(end) == '.' || charAt(end) == ')') && charAt(end + 1) == ' ') {
+                    position = end + 1;
+                }
+            }
+            skipped = position > start;
+            skipSpaces();
+        } while (skipped);
+    }
+
+    private boolean isMarkupLine() {
+        int markers = 0;
+        for (int i = position; i < markdown.length() && markdown.charAt(i) != '\n'; i++) {
+            char c = markdown.charAt(i);
+            if (c == '-' || c == '*' || c == '_' || c == '=' || c == '`' || c == '~') {
+                markers++;
+            } else if (c != '|' && c != ':' && !Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return markers >= 3;
+    }
+
+    private boolean isLinkText(final int start) {
+        for (int i = start + 1; i < markdown.length(); i++) {
+            char c = markdown.charAt(i);
+            if (c == '\n' || c == '[') {
+                return false;
+            }
+            if (c == ']') {
+                if (charAt(i + 1) == '(') {
+                    linkTextEnd = i;
+                    return true;
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void skipLinkTarget() {
+        linkTextEnd = -1;
+        position += 2; // "]("
+        while (position < markdown.length() && markdown.charAt(position) != ')') {
+            position++;
+        }
+        position++;
+    }
+
+    private boolean isTagStart(final int index) {
+        char c = charAt(index);
+        return Character.isLetter(c) || c == '/' || c == '!';
+    }
+
+    private void skipTag() {
+        boolean comment = startsWith(position, "<!--");
+        while (position < markdown.length()) {
+            if (comment ? startsWith(position, "-->") : markdown.charAt(position) == '>') {
+                position += comment ? 3 : 1;
+                break;
+            }
+            position++;
+        }
+        pendingSpace = true; // tags like <br> or </p> separate words
+    }
+
+    private void decodeEntity() {
+        int end = position + 1;
+        while (end < markdown.length() && end - position <= MAXIMUM_ENTITY_LENGTH && markdown.charAt(end) != ';') {
+            end++;
+        }
+
+        char decoded = charAt(end) == ';' ? decode(position + 1, end) : 0;
+        if (decoded == 0) {
+            append('&');
+            position++;
+        } else {
+            if (decoded == ' ') {
+                pendingSpace = true;
+            } else {
+                append(decoded);
+            }
+            position = end + 1;
+        }
+    }
+
+    private char decode(final int start, final int end) {
+        if (charAt(start) == '#') {
+            try {
+                boolean hex = charAt(start + 1) == 'x' || charAt(start + 1) == 'X';
+                int codePoint = Integer.parseInt(
+                        markdown.subSequence(hex ? start + 2 : start + 1, end).toString(), hex ? 16 : 10);
+                return Character.isBmpCodePoint(codePoint) ? (char) codePoint : 0;
+            } catch (NumberFormatException exception) {
+                return 0;
+            }
+        }
+        switch (markdown.subSequence(start, end).toString()) {
+            case "amp":
+                return '&';
+            case "lt":
+                return '<';
+            case "gt":
+                return '>';
+            case "quot":
+                return '"';
+            case "apos":
+                return '\'';
+            case "nbsp":
+                return ' ';
+            default:
+                return 0;
+        }
+    }
+
+    private boolean isWordBoundary() {
+        boolean afterWord = text.length() > 0
+                && !pendingSpace
+                && Character.isLetterOrDigit(text.charAt(text.length() - 1));
+        return !afterWord || !Character.isLetterOrDigit(charAt(position + 1));
+    }
+
+    private static boolean isPunctuation(final char c) {
+        return c > ' ' && c < 127 && !Character.isLetterOrDigit(c);
+    }
+
+    private void skipSpaces() {
+        while (charAt(position) == ' ' || charAt(position) == '\t') {
+            position++;
+        }
+    }
+
+    private void skipLine() {
+        while (position < markdown.length() && markdown.charAt(position) != '\n') {
+            position++;
+        }
+    }
+
+    private boolean startsWith(final int index, final String prefix) {
+        if (index + prefix.length() > markdown.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (markdown.charAt(index + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char charAt(final int index) {
+        return index < markdown.length() ? markdown.charAt(index) : 0;
+    }
+}
@@ -0,0 +1,221 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import jenkins.util.SystemProperties;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitState;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitStatus;
+
+/**
+ * Remembers the last status that has been sent for each context of a commit, so that publishing the very same state,
+ * description and target URL again can be skipped. Since statuses are sent asynchronously, the cache also remembers
+ * the last status that has been submitted for sending: as long as a newer status is still queued or waiting for a
+ * retry, Gitea will show that status eventually, so a status equal to the published one is no duplicate. The number
+ * of remembered contexts is bounded, the least recently used ones are forgotten first.
+ */
+final class PublishedStatusCache {
+    private static final int MAXIMUM_SIZE =
+            SystemProperties.getInteger(PublishedStatusCache.class.getName() + ".maximumSize", 10_000);
+
+    private static final PublishedStatusCache INSTANCE = new PublishedStatusCache(MAXIMUM_SIZE);
+    private static final PublishedStatusCache MIRRORS = new PublishedStatusCache(MAXIMUM_SIZE);
+
+    private final Map<PendingCommitStatus.Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @VisibleForTesting
+    PublishedStatusCache(final int maximumSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<PendingCommitStatus.Key, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by all publishers of this controller.
+     *
+     * @return the shared cache
+     */
+    static PublishedStatusCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cache for the statuses of the mirrors of Gitea servers. The mirrors have a cache of their own, so
+     * that their lookups do not skew the hit ratio of the statuses of the primary servers.
+     *
+     * @return the shared cache for mirrors
+     */
+    static PublishedStatusCache forMirrors() {
+        return MIRRORS;
+    }
+
+    /**
+     * Returns whether exactly the same status has already been published for the context of the commit and no other
+     * status has been submitted for the context since.
+     *
+     * @param status
+     *         the status to check
+     * @return {@code true} if publishing the status would not change anything on Gitea
+     */
+    boolean isPublished(final PendingCommitStatus status) {
+        boolean duplicate;
+        synchronized (entries) {
+            Entry entry = entries.get(status.getKey());
+            duplicate = entry != null
+                    && entry.published != null
+                    && entry.submitted <= entry.published.sequence
+                    && new Fingerprint(status.getStatus(), status.getSequence()).equals(entry.published);
+        }
+
+        if (duplicate) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Returns whether a status that has been created after the given one has already been published for the context
+     * of the commit. Sending the given status, e.g. when retrying it, would overwrite the newer status on Gitea.
+     *
+     * @param status
+     *         the status to check
+     * @return {@code true} if a newer status has been published
+     */
+    boolean isSuperseded(final PendingCommitStatus status) {
+        synchronized (entries) {
+            Entry entry = entries.get(status.getKey());
+            return entry != null && entry.published != null && entry.published.sequence > status.getSequence();
+        }
+    }
+
+    /**
+     * Returns whether the status itself or a status that has been created after it has already been published for the
+     * context of the commit, e.g. because a request that timed out on the client side completed on the server.
+     *
+     * @param status
+     *         the status to check
+     * @return {@code true} if sending the status again is not necessary
+     */
+    boolean isDelivered(final PendingCommitStatus status) {
+        synchronized (entries) {
+            Entry entry = entries.get(status.getKey());
+            return entry != null && entry.published != null && entry.published.sequence >= status.getSequence();
+        }
+    }
+
+    /**
+     * Records that the status has been submitted for sending. Until it or a newer status has been published, no status
+     * of the context is considered as published.
+     *
+     * @param status
+     *         the submitted status
+     */
+    void recordSubmitted(final PendingCommitStatus status) {
+        synchronized (entries) {
+            entries.computeIfAbsent(status.getKey(), key -> new Entry()).submit(status.getSequence());
+        }
+    }
+
+    /**
+     * Records that the status has been published successfully. A status that has been created before the status that
+     * is already recorded for the context does not replace it.
+     *
+     * @param status
+     *         the published status
+     */
+    void recordPublished(final PendingCommitStatus status) {
+        Fingerprint fingerprint = new Fingerprint(status.getStatus(), status.getSequence());
+        synchronized (entries) {
+            Entry entry = entries.computeIfAbsent(status.getKey(), key -> new Entry());
+            if (entry.published == null || entry.published.sequence < fingerprint.sequence) {
+                entry.published = fingerprint;
+            }
+            entry.submit(fingerprint.sequence);
+        }
+    }
+
+    /**
+     * Returns the ratio of checked statuses that have been skipped because they have already been published.
+     *
+     * @return the hit ratio between 0 and 1
+     */
+    double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * The last published and the last submitted status of a context, guarded by the map of entries.
+     */
+    private static final class Entry {
+        @CheckForNull
+        private Fingerprint published;
+
+        private long submitted = Long.MIN_VALUE;
+
+        void submit(final long sequence) {
+            submitted = Math.max(submitted, sequence);
+        }
+    }
+
+    private static final class Fingerprint {
+        @CheckForNull
+        private final GiteaCommitState state;
+
+        @CheckForNull
+        private final String description;
+
+        @CheckForNull
+        private final String targetUrl;
+
+        /** The sequence number of the status, which is not part of the fingerprint. */
+        private final long sequence;
+
+        Fingerprint(final GiteaCommitStatus status, final long sequence) {
+            this.state = status.getState();
+            this.description = status.getDescription();
+            this.targetUrl = status.getTargetUrl();
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Fingerprint that = (Fingerprint) o;
+            return state == that.state
+                    && Objects.equals(description, that.description)
+                    && Objects.equals(targetUrl, that.targetUrl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(state, description, targetUrl);
+        }
+    }
+}
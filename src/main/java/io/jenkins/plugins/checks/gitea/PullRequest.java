@@ -0,0 +1,85 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import java.util.Objects;
+
+/**
+ * A pull request of a Gitea repository at a specific head commit.
+ */
+final class PullRequest {
+    private final String serverUrl;
+    private final StandardCredentials credentials;
+    private final String repoOwner;
+    private final String repo;
+    private final long number;
+    private final String sha;
+
+    PullRequest(
+            final String serverUrl,
+            final StandardCredentials credentials,
+            final String repoOwner,
+            final String repo,
+            final long number,
+            final String sha) {
+        this.serverUrl = serverUrl;
+        this.credentials = credentials;
+        this.repoOwner = repoOwner;
+        this.repo = repo;
+        this.number = number;
+        this.sha = sha;
+    }
+
+    String getServerUrl() {
+        return serverUrl;
+    }
+
+    StandardCredentials getCredentials() {
+        return credentials;
+    }
+
+    long getNumber() {
+        return number;
+    }
+
+    String getSha() {
+        return sha;
+    }
+
+    /**
+     * Returns the path of an endpoint of the repository for {@link HttpStatusClient#newRequest}.
+     *
+     * @param endpoint
+     *         the path of the endpoint relative to the repository, e.g. {@code pulls/1/reviews}
+     * @return the path of the endpoint below {@code /api/v1/}
+     */
+    String getPath(final String endpoint) {
+        return String.format(
+                "repos/%s/%s/%s", HttpStatusClient.encode(repoOwner), HttpStatusClient.encode(repo), endpoint);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PullRequest that = (PullRequest) o;
+        return number == that.number
+                && serverUrl.equals(that.serverUrl)
+                && repoOwner.equals(that.repoOwner)
+                && repo.equals(that.repo)
+                && sha.equals(that.sha);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(serverUrl, repoOwner, repo, number, sha);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s/%s#%d@%s", serverUrl, repoOwner, repo, number, sha);
+    }
+}
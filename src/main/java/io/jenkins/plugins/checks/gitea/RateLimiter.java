@@ -0,0 +1,100 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the rate of requests that are sent to each Gitea server with a token bucket per server URL. The bucket holds
+ * up to the configured burst of requests and is refilled at the configured rate. A request that finds the bucket empty
+ * is not dropped, it waits until its token becomes available; tokens are handed out in the order of the requests.
+ */
+final class RateLimiter {
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private static final RateLimiter INSTANCE = new RateLimiter(
+            () -> GiteaChecksGlobalConfiguration.get().getRateLimit(),
+            () -> GiteaChecksGlobalConfiguration.get().getRateLimitBurst(),
+            System::nanoTime);
+
+    private final IntSupplier requestsPerMinute;
+    private final IntSupplier burst;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    RateLimiter(final IntSupplier requestsPerMinute, final IntSupplier burst, final LongSupplier nanoClock) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.burst = burst;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the rate limiter shared by all publishers of this controller.
+     *
+     * @return the shared rate limiter
+     */
+    static RateLimiter get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Waits until a request may be sent to the Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting
+     */
+    void acquire(final String serverUrl) throws InterruptedException {
+        long wait = reserve(serverUrl);
+        if (wait > 0) {
+            GiteaChecksMetrics.get().recordRateLimitWait(wait);
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of the Gitea server.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server
+     * @return the time in nanoseconds the caller needs to wait until its token is available
+     */
+    @VisibleForTesting
+    long reserve(final String serverUrl) {
+        int rate = requestsPerMinute.getAsInt();
+        if (rate <= 0) {
+            return 0;
+        }
+        int capacity = Math.max(1, burst.getAsInt());
+        return buckets.computeIfAbsent(serverUrl, url -> new TokenBucket(capacity, nanoClock.getAsLong()))
+                .reserve(rate, capacity, nanoClock.getAsLong());
+    }
+
+    /**
+     * The tokens of a single server. The number of tokens becomes negative if requests wait for tokens that have not
+     * been refilled yet.
+     */
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(final int capacity, final long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        synchronized long reserve(final int rate, final int capacity, final long now) {
+            double nanosPerToken = (double) NANOS_PER_MINUTE / rate;
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+            lastRefill = now;
+
+            tokens--;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken);
+        }
+    }
+}
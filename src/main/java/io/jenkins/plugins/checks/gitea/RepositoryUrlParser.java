@@ -0,0 +1,215 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Parses the URLs of Git remotes into the host, owner and name of the repository. Supported are http(s) and ssh URLs,
+ * with or without user and port, and the scp-like syntax {@code user@host:owner/repository}. Local paths, including
+ * Windows paths like {@code C:/work/repository} and {@code file://} URLs, are rejected. The repository path must
+ * consist of exactly the owner and the repository name, an optional {@code .git} suffix is removed.
+ *
+ * <p>
+ * URLs are parsed in a single pass without regular expressions; since the same few remote URLs are parsed for every
+ * published status, the results are memoized.
+ * </p>
+ */
+final class RepositoryUrlParser {
+    private static final int MAXIMUM_SIZE = 1000;
+    private static final String GIT_SUFFIX = ".git";
+    private static final String SCHEME_SEPARATOR = "://";
+
+    private static final RepositoryUrlParser INSTANCE = new RepositoryUrlParser();
+
+    private final ConcurrentMap<String, Optional<RepositoryUrl>> parsed = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    RepositoryUrlParser() {
+        // use the singleton
+    }
+
+    /**
+     * Returns the parser shared by all contexts of this controller.
+     *
+     * @return the shared parser
+     */
+    static RepositoryUrlParser get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Parses the URL of a Git remote.
+     *
+     * @param url
+     *         the URL to parse
+     * @return the parsed URL or empty if the URL does not point to a repository of an owner
+     */
+    Optional<RepositoryUrl> parse(@CheckForNull final String url) {
+        if (StringUtils.isBlank(url)) {
+            return Optional.empty();
+        }
+
+        Optional<RepositoryUrl> repositoryUrl = parsed.get(url);
+        if (repositoryUrl == null) {
+            repositoryUrl = Optional.ofNullable(parseUrl(url.trim()));
+            if (parsed.size() >= MAXIMUM_SIZE) {
+                parsed.clear();
+            }
+            parsed.put(url, repositoryUrl);
+        }
+        return repositoryUrl;
+    }
+
+    @CheckForNull
+    @VisibleForTesting
+    static RepositoryUrl parseUrl(final String url) {
+        boolean http;
+        int authorityStart;
+        int authorityEnd;
+        int pathStart;
+
+        int schemeEnd = url.indexOf(SCHEME_SEPARATOR);
+        if (schemeEnd > 0) {
+            http = isScheme(url, schemeEnd, "http") || isScheme(url, schemeEnd, "https");
+            if (!http && !isScheme(url, schemeEnd, "ssh") && !isScheme(url, schemeEnd, "git+ssh")) {
+                return null;
+            }
+            authorityStart = schemeEnd + SCHEME_SEPARATOR.length();
+            authorityEnd = url.indexOf('/', authorityStart);
+            if (authorityEnd < 0) {
+                return null;
+            }
+            pathStart = authorityEnd + 1;
+        } else {
+            // scp-like syntax: [user@]host:owner/repository, like Git a path with a slash before the colon or a
+            // drive letter of Windows is a local path
+            http = false;
+            authorityStart = 0;
+            authorityEnd = url.indexOf(':');
+            if (authorityEnd <= 0 || url.lastIndexOf('/', authorityEnd) >= 0 || isDriveLetter(url, authorityEnd)) {
+                return null;
+            }
+            pathStart = authorityEnd + 1;
+            if (pathStart < url.length() && url.charAt(pathStart) == '/') {
+                pathStart++;
+            }
+        }
+
+        String host = parseHost(url, authorityStart, authorityEnd, schemeEnd > 0);
+        if (host.isEmpty()) {
+            return null;
+        }
+
+        int pathEnd = pathStart;
+        while (pathEnd < url.length() && url.charAt(pathEnd) != '?' && url.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+        if (pathEnd > pathStart && url.charAt(pathEnd - 1) == '/') {
+            pathEnd--;
+        }
+        if (url.startsWith(GIT_SUFFIX, pathEnd - GIT_SUFFIX.length())) {
+            pathEnd -= GIT_SUFFIX.length();
+        }
+
+        int ownerEnd = url.indexOf('/', pathStart);
+        if (ownerEnd <= pathStart || ownerEnd + 1 >= pathEnd) {
+            return null;
+        }
+        int repoEnd = url.indexOf('/', ownerEnd + 1);
+        if (repoEnd >= 0 && repoEnd < pathEnd) {
+            return null;
+        }
+
+        return new RepositoryUrl(
+                host, url.substring(pathStart, ownerEnd), url.substring(ownerEnd + 1, pathEnd), http);
+    }
+
+    private static boolean isDriveLetter(final String url, final int colon) {
+        return colon == 1 && Character.isLetter(url.charAt(0));
+    }
+
+    private static boolean isScheme(final String url, final int schemeEnd, final String scheme) {
+        return schemeEnd == scheme.length() && url.regionMatches(true, 0, scheme, 0, schemeEnd);
+    }
+
+    /**
+     * Returns the host of the authority {@code [user@]host[:port]}. The port is only part of URLs with a scheme, in
+     * the scp-like syntax the colon separates the host from the path.
+     */
+    private static String parseHost(
+            final String url, final int authorityStart, final int authorityEnd, final boolean hasPort) {
+        int hostStart = url.lastIndexOf('@', authorityEnd - 1) + 1;
+        if (hostStart < authorityStart) {
+            hostStart = authorityStart;
+        }
+
+        int hostEnd = authorityEnd;
+        if (hasPort) {
+            if (url.charAt(hostStart) == '[') {
+                hostEnd = url.indexOf(']', hostStart) + 1;
+                if (hostEnd <= 0 || hostEnd > authorityEnd) {
+                    return StringUtils.EMPTY;
+                }
+            } else {
+                int portStart = url.indexOf(':', hostStart);
+                if (portStart >= 0 && portStart < authorityEnd) {
+                    hostEnd = portStart;
+                }
+            }
+        }
+        return url.substring(hostStart, hostEnd);
+    }
+
+    /**
+     * A parsed URL of a Git remote.
+     */
+    static final class RepositoryUrl {
+        private final String host;
+        private final String owner;
+        private final String repo;
+        private final String repository;
+        private final boolean http;
+
+        RepositoryUrl(final String host, final String owner, final String repo, final boolean http) {
+            this.host = host;
+            this.owner = owner;
+            this.repo = repo;
+            this.repository = owner + "/" + repo;
+            this.http = http;
+        }
+
+        String getHost() {
+            return host;
+        }
+
+        String getOwner() {
+            return owner;
+        }
+
+        String getRepo() {
+            return repo;
+        }
+
+        /**
+         * Returns the full name of the repository, e.g. jenkinsci/gitea-checks-plugin.
+         *
+         * @return the full name of the repository
+         */
+        String getRepository() {
+            return repository;
+        }
+
+        /**
+         * Returns whether the remote is accessed with http(s).
+         *
+         * @return {@code true} for http(s) URLs, {@code false} for ssh URLs
+         */
+        boolean isHttp() {
+            return http;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Run;
+import hudson.plugins.git.util.BuildData;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link GiteaChecksContext} that has already been validated for a run. The resolved properties of the contexts of
+ * all repositories the run publishes to are remembered for the run, so that subsequent publications of the same build
+ * neither need to look up the SCM nor resolve the head SHA or repository again. The snapshot only contains plain
+ * values; credentials are still looked up, from the {@link CredentialsCache}, whenever they are needed. A pipeline may
+ * check out further repositories after the contexts have been remembered, so the contexts are only reused as long as
+ * the number of checkouts of the run, i.e. of its {@link BuildData} actions, did not change.
+ */
+final class ResolvedChecksContext extends GiteaChecksContext {
+    private static final Map<Run<?, ?>, Resolution> RESOLUTIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Run<?, ?> run;
+    private final Snapshot snapshot;
+
+    private ResolvedChecksContext(final Run<?, ?> run, final Snapshot snapshot, final SCMFacade scmFacade) {
+        super(run.getParent(), snapshot.url, scmFacade);
+
+        this.run = run;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns the contexts that have been remembered for the run.
+     *
+     * @param run
+     *         the run to get the contexts for
+     * @param scmFacade
+     *         a facade for Jenkins SCM
+     * @return the remembered contexts or an empty list if no context has been validated for the run yet, or if the
+     *         run has checked out further repositories since
+     */
+    static List<GiteaChecksContext> fromRun(final Run<?, ?> run, final SCMFacade scmFacade) {
+        Resolution resolution = RESOLUTIONS.get(run);
+        if (resolution == null || resolution.checkouts != countCheckouts(run)) {
+            return Collections.emptyList();
+        }
+        return resolution.snapshots.stream()
+                .map(snapshot -> new ResolvedChecksContext(run, snapshot, scmFacade))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Remembers the properties of the validated contexts for the run.
+     *
+     * @param run
+     *         the run the contexts belong to
+     * @param contexts
+     *         the validated contexts
+     */
+    static void remember(final Run<?, ?> run, final List<GiteaChecksContext> contexts) {
+        List<Snapshot> snapshots = contexts.stream().map(Snapshot::new).collect(Collectors.toList());
+        RESOLUTIONS.put(run, new Resolution(countCheckouts(run), snapshots));
+    }
+
+    private static int countCheckouts(final Run<?, ?> run) {
+        return run.getActions(BuildData.class).size();
+    }
+
+    @Override
+    public String getHeadSha() {
+        return snapshot.headSha;
+    }
+
+    @Override
+    public String getRepoOwner() {
+        return snapshot.repoOwner;
+    }
+
+    @Override
+    public String getRepo() {
+        return snapshot.repo;
+    }
+
+    @Override
+    public String getGiteaServerUrl() {
+        return snapshot.giteaServerUrl;
+    }
+
+    @Override
+    public String getRepository() {
+        return snapshot.repository;
+    }
+
+    @Override
+    public boolean isValid(final FilteredLog logger) {
+        return hasValidCredentials(logger);
+    }
+
+    @Override
+    @CheckForNull
+    protected String getCredentialsId() {
+        return snapshot.credentialsId;
+    }
+
+    @Override
+    public Optional<Long> getPullRequest() {
+        return Optional.ofNullable(snapshot.pullRequest);
+    }
+
+    @Override
+    protected Optional<Run<?, ?>> getRun() {
+        return Optional.of(run);
+    }
+
+    /**
+     * The contexts of a run and the number of checkouts of the run when they have been resolved.
+     */
+    private static final class Resolution {
+        private final int checkouts;
+        private final List<Snapshot> snapshots;
+
+        Resolution(final int checkouts, final List<Snapshot> snapshots) {
+            this.checkouts = checkouts;
+            this.snapshots = snapshots;
+        }
+    }
+
+    private static final class Snapshot {
+        private final String url;
+        private final String headSha;
+        private final String repoOwner;
+        private final String repo;
+        private final String giteaServerUrl;
+        private final String repository;
+
+        @CheckForNull
+        private final String credentialsId;
+
+        @CheckForNull
+        private final Long pullRequest;
+
+        Snapshot(final GiteaChecksContext context) {
+            this.url = context.getURL();
+            this.headSha = context.getHeadSha();
+            this.repoOwner = context.getRepoOwner();
+            this.repo = context.getRepo();
+            this.giteaServerUrl = context.getGiteaServerUrl();
+            this.repository = context.getRepository();
+            this.credentialsId = context.getCredentialsId();
+            this.pullRequest = context.getPullRequest().orElse(null);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import io.jenkins.plugins.checks.gitea.CircuitBreaker.ServerUnavailableException;
+import io.jenkins.plugins.checks.gitea.HttpStatusClient.StatusRequestException;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import org.jenkinsci.plugin.gitea.client.api.GiteaHttpStatusException;
+
+/**
+ * Decides whether and when sending a {@link PendingCommitStatus} is retried after a failure. Only transient failures
+ * are retried: I/O errors like refused connections or timeouts, and the HTTP status codes 408, 429 and 5xx. The delay
+ * grows exponentially with each attempt and is randomized by up to half of its length, so that statuses that failed
+ * at the same time are not retried at the same time against a recovering server. Statuses that have been rejected
+ * by the {@link CircuitBreaker} are retried once the circuit lets the next request through, statuses that have been
+ * throttled with a {@code Retry-After} header are retried after the time the server asked for.
+ */
+final class RetryPolicy {
+    private static final long INITIAL_DELAY = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAXIMUM_DELAY = TimeUnit.MINUTES.toMillis(1);
+    /** Minimum delay if the server reports that it is overloaded. */
+    private static final long THROTTLED_DELAY = TimeUnit.SECONDS.toMillis(10);
+
+    private static final int REQUEST_TIMEOUT = 408;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final IntSupplier maxRetries;
+    private final DoubleSupplier random;
+
+    RetryPolicy() {
+        this(
+                () -> GiteaChecksGlobalConfiguration.get().getMaxRetries(),
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    @VisibleForTesting
+    RetryPolicy(final IntSupplier maxRetries, final DoubleSupplier random) {
+        this.maxRetries = maxRetries;
+        this.random = random;
+    }
+
+    /**
+     * Returns the delay before the next attempt to send the status.
+     *
+     * @param status
+     *         the status that could not be sent
+     * @param failure
+     *         the cause of the failure
+     * @return the delay in milliseconds, or a negative value if the status should not be retried
+     */
+    long getRetryDelay(final PendingCommitStatus status, final Exception failure) {
+        if (status.getAttempt() >= maxRetries.getAsInt() || !isTransient(failure)) {
+            return -1;
+        }
+
+        long backoff = Math.min(MAXIMUM_DELAY, INITIAL_DELAY << Math.min(status.getAttempt(), 16));
+        long delay = backoff / 2 + (long) (random.getAsDouble() * backoff / 2);
+        if (failure instanceof ServerUnavailableException) {
+            return Math.max(delay, ((ServerUnavailableException) failure).getRetryAfter());
+        }
+        if (failure instanceof StatusRequestException && ((StatusRequestException) failure).getRetryAfter() >= 0) {
+            return Math.max(delay, ((StatusRequestException) failure).getRetryAfter());
+        }
+        if (isThrottled(failure)) {
+            return Math.max(delay, THROTTLED_DELAY);
+        }
+        return delay;
+    }
+
+    /**
+     * Returns whether the failure is caused by a condition of the server or the network that might go away.
+     *
+     * @param failure
+     *         the cause of the failure
+     * @return {@code true} if the failure is transient
+     */
+    static boolean isTransient(final Exception failure) {
+        int statusCode = getStatusCode(failure);
+        if (statusCode > 0) {
+            return statusCode == REQUEST_TIMEOUT || statusCode == TOO_MANY_REQUESTS || statusCode >= 500;
+        }
+        return failure instanceof IOException;
+    }
+
+    private static boolean isThrottled(final Exception failure) {
+        int statusCode = getStatusCode(failure);
+        return statusCode == TOO_MANY_REQUESTS || statusCode == SERVICE_UNAVAILABLE;
+    }
+
+    private static int getStatusCode(final Exception failure) {
+        if (failure instanceof GiteaHttpStatusException) {
+            return ((GiteaHttpStatusException) failure).getStatusCode();
+        }
+        if (failure instanceof StatusRequestException) {
+            return ((StatusRequestException) failure).getStatusCode();
+        }
+        return -1;
+    }
+}
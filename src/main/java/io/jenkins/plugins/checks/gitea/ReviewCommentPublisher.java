@@ -0,0 +1,352 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.checks.api.ChecksAnnotation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Publishes the annotations of a check as review comments on a Gitea pull request. Only annotations on lines that have
+ * been added or changed by the pull request are published, all others are skipped without calling the Gitea API. The
+ * changed lines are looked up in a {@link DiffIndex} that is fetched once for each head commit of a pull request and
+ * cached. The comments are sent in reviews of a bounded number of comments, and each comment is published only once
+ * for the head commit, even if the check is published again: publications for the same head commit are serialized.
+ * The comments that already exist for the head commit are read from Gitea together with the diff, so that they are
+ * not published again after a restart of Jenkins or after the pull request has been evicted from the cache.
+ * If publishing is asynchronous, the reviews are created by a small pool of threads with a bounded queue.
+ */
+final class ReviewCommentPublisher {
+    private static final Logger LOGGER = Logger.getLogger(ReviewCommentPublisher.class.getName());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int PAGE_SIZE = 50;
+
+    private static final int BATCH_SIZE =
+            SystemProperties.getInteger(ReviewCommentPublisher.class.getName() + ".batchSize", 50);
+    private static final int MAXIMUM_SIZE =
+            SystemProperties.getInteger(ReviewCommentPublisher.class.getName() + ".maximumSize", 100);
+    private static final int THREADS =
+            SystemProperties.getInteger(ReviewCommentPublisher.class.getName() + ".threads", 2);
+    private static final int QUEUE_CAPACITY =
+            SystemProperties.getInteger(ReviewCommentPublisher.class.getName() + ".queueCapacity", 100);
+
+    private static final ReviewCommentPublisher INSTANCE = new ReviewCommentPublisher(
+            HttpStatusClient.get(), BATCH_SIZE, MAXIMUM_SIZE, createExecutor(THREADS, QUEUE_CAPACITY));
+
+    private final HttpStatusClient client;
+    private final int batchSize;
+    private final Executor executor;
+    private final Map<PullRequest, Review> reviews;
+
+    @VisibleForTesting
+    ReviewCommentPublisher(final HttpStatusClient client, final int batchSize, final int maximumSize) {
+        this(client, batchSize, maximumSize, Runnable::run);
+    }
+
+    @VisibleForTesting
+    ReviewCommentPublisher(
+            final HttpStatusClient client, final int batchSize, final int maximumSize, final Executor executor) {
+        this.client = client;
+        this.batchSize = Math.max(1, batchSize);
+        this.executor = executor;
+        this.reviews = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<PullRequest, Review> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the publisher shared by all checks publishers of this controller.
+     *
+     * @return the shared publisher
+     */
+    static ReviewCommentPublisher get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Publishes the annotations on changed lines of the pull request as review comments.
+     *
+     * @param pullRequest
+     *         the pull request to comment on
+     * @param checkName
+     *         the name of the check that reported the annotations
+     * @param annotations
+     *         the annotations to publish
+     * @return the number of comments that have been created
+     * @throws IOException
+     *         if the diff could not be fetched or a review could not be created
+     * @throws InterruptedException
+     *         if the current thread has been interrupted
+     */
+    int publish(
+            final PullRequest pullRequest, final String checkName, final Iterable<ChecksAnnotation> annotations)
+            throws IOException, InterruptedException {
+        Review review = findReview(pullRequest);
+
+        review.lock.lockInterruptibly(); // otherwise concurrent publications might post the same comments
+        try {
+            int published = 0;
+            List<Comment> batch = new ArrayList<>(batchSize);
+            for (ChecksAnnotation annotation : annotations) {
+                Comment comment = createComment(review.index, checkName, annotation);
+                if (comment != null && !review.published.contains(comment.getFingerprint())) {
+                    batch.add(comment);
+                    if (batch.size() >= batchSize) {
+                        published += createReview(pullRequest, review, batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                published += createReview(pullRequest, review, batch);
+            }
+            return published;
+        } finally {
+            review.lock.unlock();
+        }
+    }
+
+    /**
+     * Publishes the annotations on changed lines of the pull request as review comments in the background.
+     *
+     * @param pullRequest
+     *         the pull request to comment on
+     * @param checkName
+     *         the name of the check that reported the annotations
+     * @param annotations
+     *         the annotations to publish
+     * @return the number of comments that have been created, once they have been created
+     * @throws java.util.concurrent.RejectedExecutionException
+     *         if too many publications are waiting already
+     */
+    CompletableFuture<Integer> publishAsync(
+            final PullRequest pullRequest, final String checkName, final Iterable<ChecksAnnotation> annotations) {
+        CompletableFuture<Integer> published = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                published.complete(publish(pullRequest, checkName, annotations));
+            } catch (IOException | RuntimeException exception) {
+                published.completeExceptionally(exception);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                published.completeExceptionally(exception);
+            }
+        });
+        return published;
+    }
+
+    private Review findReview(final PullRequest pullRequest) throws IOException, InterruptedException {
+        synchronized (reviews) {
+            Review review = reviews.get(pullRequest);
+            if (review != null) {
+                return review;
+            }
+        }
+
+        HttpRequest request = client.newRequest(
+                        pullRequest.getServerUrl(),
+                        pullRequest.getCredentials(),
+                        pullRequest.getPath(String.format("pulls/%d.diff", pullRequest.getNumber())))
+                .header("Accept", "text/plain")
+                .GET()
+                .build();
+        DiffIndex index;
+        try (InputStream diff = client.execute(
+                                pullRequest.getServerUrl(), request, HttpResponse.BodyHandlers.ofInputStream())
+                        .body();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(diff, StandardCharsets.UTF_8))) {
+            index = DiffIndex.parse(reader);
+        }
+        LOGGER.fine(() -> String.format("Indexed %d changed files of %s", index.getFileCount(), pullRequest));
+
+        Set<String> published = findPublishedComments(pullRequest);
+        synchronized (reviews) {
+            return reviews.computeIfAbsent(pullRequest, key -> new Review(index, published));
+        }
+    }
+
+    /**
+     * Finds the fingerprints of the review comments that have already been published for the head commit of the pull
+     * request, going through all pages of its reviews. Only the comments of reviews of the head commit are fetched.
+     */
+    private Set<String> findPublishedComments(final PullRequest pullRequest) throws IOException, InterruptedException {
+        Set<String> published = ConcurrentHashMap.newKeySet();
+        long previousFirstId = -1;
+        for (int page = 1; ; page++) {
+            JsonNode reviews = getJson(
+                    pullRequest,
+                    pullRequest.getPath(String.format(
+                            "pulls/%d/reviews?page=%d&limit=%d", pullRequest.getNumber(), page, PAGE_SIZE)));
+            long firstId = reviews.path(0).path("id").asLong(-1);
+            if (firstId == previousFirstId) {
+                return published; // the server ignores the page
+            }
+            for (JsonNode review : reviews) {
+                if (pullRequest.getSha().equals(review.path("commit_id").asText())
+                        && review.path("comments_count").asInt() > 0) {
+                    JsonNode comments = getJson(
+                            pullRequest,
+                            pullRequest.getPath(String.format(
+                                    "pulls/%d/reviews/%d/comments",
+                                    pullRequest.getNumber(), review.path("id").asLong())));
+                    for (JsonNode comment : comments) {
+                        published.add(getFingerprint(
+                                comment.path("path").asText(),
+                                comment.path("position").asInt(),
+                                comment.path("body").asText()));
+                    }
+                }
+            }
+            if (reviews.size() != PAGE_SIZE) {
+                return published;
+            }
+            previousFirstId = firstId;
+        }
+    }
+
+    private JsonNode getJson(final PullRequest pullRequest, final String path)
+            throws IOException, InterruptedException {
+        HttpRequest request = client.newRequest(pullRequest.getServerUrl(), pullRequest.getCredentials(), path)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        try (InputStream response = client.execute(
+                        pullRequest.getServerUrl(), request, HttpResponse.BodyHandlers.ofInputStream())
+                .body()) {
+            return MAPPER.readTree(response);
+        }
+    }
+
+    @CheckForNull
+    private Comment createComment(final DiffIndex index, final String checkName, final ChecksAnnotation annotation) {
+        if (annotation.getPath().isEmpty() || annotation.getStartLine().isEmpty()) {
+            return null;
+        }
+
+        String path = annotation.getPath().get();
+        int startLine = annotation.getStartLine().get();
+        int line = index.findChangedLine(path, startLine, annotation.getEndLine().orElse(startLine));
+        if (line < 0) {
+            return null;
+        }
+
+        StringBuilder body = new StringBuilder()
+                .append("**")
+                .append(StringUtils.capitalize(annotation.getAnnotationLevel().name().toLowerCase(Locale.ENGLISH)))
+                .append("** (")
+                .append(checkName)
+                .append(')');
+        annotation.getTitle().ifPresent(title -> body.append(": ").append(title));
+        annotation.getMessage().ifPresent(message -> body.append("\n\n").append(message));
+        return new Comment(path, line, body.toString());
+    }
+
+    private int createReview(final PullRequest pullRequest, final Review review, final List<Comment> comments)
+            throws IOException, InterruptedException {
+        ObjectNode json = MAPPER.createObjectNode();
+        json.put("commit_id", pullRequest.getSha());
+        json.put("event", "COMMENT");
+        json.put("body", "");
+        ArrayNode array = json.putArray("comments");
+        for (Comment comment : comments) {
+            array.addObject()
+                    .put("path", comment.path)
+                    .put("new_position", comment.line)
+                    .put("body", comment.body);
+        }
+
+        HttpRequest request = client.newRequest(
+                        pullRequest.getServerUrl(),
+                        pullRequest.getCredentials(),
+                        pullRequest.getPath(String.format("pulls/%d/reviews", pullRequest.getNumber())))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(json), StandardCharsets.UTF_8))
+                .build();
+        client.execute(pullRequest.getServerUrl(), request, HttpResponse.BodyHandlers.discarding());
+
+        comments.forEach(comment -> review.published.add(comment.getFingerprint()));
+        return comments.size();
+    }
+
+    private static Executor createExecutor(final int threads, final int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                Math.max(1, threads),
+                Math.max(1, threads),
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new NamingThreadFactory(new DaemonThreadFactory(), "Gitea checks review comments"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static String getFingerprint(final String path, final int line, final String body) {
+        return path + ':' + line + ':' + body;
+    }
+
+    /**
+     * The changed lines of a pull request and the comments that have already been published for its head commit.
+     */
+    private static final class Review {
+        private final DiffIndex index;
+        private final Set<String> published;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        Review(final DiffIndex index, final Set<String> published) {
+            this.index = index;
+            this.published = published;
+        }
+    }
+
+    /**
+     * A review comment on a single line.
+     */
+    private static final class Comment {
+        private final String path;
+        private final int line;
+        private final String body;
+
+        Comment(final String path, final int line, final String body) {
+            this.path = path;
+            this.line = line;
+            this.body = body;
+        }
+
+        String getFingerprint() {
+            return ReviewCommentPublisher.getFingerprint(path, line, body);
+        }
+    }
+}
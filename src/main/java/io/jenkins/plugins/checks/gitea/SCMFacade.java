@@ -14,9 +14,13 @@ import hudson.scm.SCM;
 import hudson.security.ACL;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import jenkins.authentication.tokens.api.AuthenticationTokens;
+import jenkins.branch.BranchProjectFactory;
+import jenkins.branch.MultiBranchProject;
 import jenkins.plugins.git.AbstractGitSCMSource;
 import jenkins.plugins.git.GitSCMSource;
 import jenkins.scm.api.SCMHead;
@@ -27,6 +31,8 @@ import jenkins.triggers.SCMTriggerItem;
 import org.jenkinsci.plugin.gitea.GiteaSCMSource;
 import org.jenkinsci.plugin.gitea.PullRequestSCMRevision;
 import org.jenkinsci.plugin.gitea.client.api.GiteaAuth;
+import org.jenkinsci.plugin.gitea.servers.GiteaServer;
+import org.jenkinsci.plugin.gitea.servers.GiteaServers;
 import org.jenkinsci.plugins.workflow.cps.CpsScmFlowDefinition;
 import org.jenkinsci.plugins.workflow.flow.FlowDefinition;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
@@ -46,7 +52,7 @@ public class SCMFacade {
      */
     @CheckForNull
     public SCMSource findSCMSource(final Job<?, ?> job) {
-        return SCMSource.SourceByItem.findSource(job);
+        return SCMSourceCache.get().findSource(job, SCMSource.SourceByItem::findSource);
     }
 
     /**
@@ -99,6 +105,30 @@ public class SCMFacade {
         return toGitScm(scm);
     }
 
+    /**
+     * Finds all {@link GitSCM}s used by the {@code run}. A pipeline may check out several repositories, while other
+     * jobs use a single SCM.
+     *
+     * @param run
+     *            the run to get the SCMs from
+     * @return the found GitSCMs in the order of their checkout, the list is empty if the run does not use Git
+     */
+    public List<GitSCM> findGitSCMs(final Run<?, ?> run) {
+        Job<?, ?> job = run.getParent();
+        if (job instanceof SCMTriggerItem && !(job instanceof AbstractProject)) {
+            List<GitSCM> scms = ((SCMTriggerItem) job)
+                    .getSCMs().stream()
+                    .filter(GitSCM.class::isInstance)
+                    .map(GitSCM.class::cast)
+                    .collect(Collectors.toList());
+            if (!scms.isEmpty()) {
+                return scms;
+            }
+        }
+
+        return findGitSCM(run).map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+
     private Optional<GitSCM> toGitScm(final SCM scm) {
         if (scm instanceof GitSCM) {
             return Optional.of((GitSCM) scm);
@@ -107,6 +137,17 @@ public class SCMFacade {
         return Optional.empty();
     }
 
+    /**
+     * Returns the URLs of the Gitea servers that are configured in Jenkins.
+     *
+     * @return the URLs of the configured Gitea servers
+     */
+    public List<String> findGiteaServerUrls() {
+        return GiteaServers.get().getServers().stream()
+                .map(GiteaServer::getServerUrl)
+                .collect(Collectors.toList());
+    }
+
     UserRemoteConfig getUserRemoteConfig(final GitSCM scm) {
         List<UserRemoteConfig> configs = scm.getUserRemoteConfigs();
         if (configs.isEmpty()) {
@@ -115,6 +156,10 @@ public class SCMFacade {
         return configs.get(0);
     }
 
+    List<UserRemoteConfig> getUserRemoteConfigs(final GitSCM scm) {
+        return scm.getUserRemoteConfigs();
+    }
+
     /**
      * Find {@link StandardCredentials} with the {@code credentialsId} used by the
      * {@code job}.
@@ -123,13 +168,20 @@ public class SCMFacade {
      *                      the Jenkins project
      * @param credentialsId
      *                      the id of the target credentials
-     * @return the found Gitea App credentials or empty
+     * @return the found Gitea App credentials or empty, the result is cached for a short time
      */
     public Optional<StandardCredentials> findGiteaAppCredentials(final Job<?, ?> job, final String credentialsId) {
+        return CredentialsCache.get()
+                .find(job, credentialsId, () -> lookupGiteaAppCredentials(job, credentialsId));
+    }
+
+    private Optional<StandardCredentials> lookupGiteaAppCredentials(final Job<?, ?> job, final String credentialsId) {
+        long start = System.nanoTime();
         StandardCredentials credential = CredentialsMatchers.firstOrNull(
                 CredentialsProvider.lookupCredentialsInItem(StandardCredentials.class, job, ACL.SYSTEM2),
                 CredentialsMatchers.allOf(
                         AuthenticationTokens.matcher(GiteaAuth.class), CredentialsMatchers.withId(credentialsId)));
+        GiteaChecksMetrics.get().recordCredentialsLookup(System.nanoTime() - start);
 
         return Optional.ofNullable(credential);
     }
@@ -168,6 +220,66 @@ public class SCMFacade {
         }
     }
 
+    /**
+     * Find the current {@link SCMRevision} used by the {@code head} of the {@code job} without contacting the
+     * remote repository. The revision is taken from the last branch indexing, from the revision cache or from the
+     * last build of the job, in this order. The revision of the last build may be outdated, so it is not cached.
+     *
+     * @param job
+     *               the Jenkins project
+     * @param source
+     *               the Gitea repository
+     * @param head
+     *               the branch
+     * @return the locally known revision or empty
+     */
+    public Optional<SCMRevision> findLocalRevision(final Job<?, ?> job, final SCMSource source, final SCMHead head) {
+        SCMRevision indexed = findIndexedRevision(job);
+        if (indexed != null && head.equals(indexed.getHead())) {
+            return Optional.of(indexed);
+        }
+
+        Optional<SCMRevision> cached = HeadRevisionCache.get().find(job, head);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        Run<?, ?> lastBuild = job.getLastBuild();
+        SCMRevision built = lastBuild == null ? null : SCMRevisionAction.getRevision(source, lastBuild);
+        if (built == null || !head.equals(built.getHead())) {
+            return Optional.empty();
+        }
+        return Optional.of(built);
+    }
+
+    /**
+     * Remembers the current {@link SCMRevision} of the head of the {@code job} for subsequent calls of
+     * {@link #findLocalRevision(Job, SCMSource, SCMHead)}. Only revisions that have been fetched from the remote
+     * repository should be cached, the cache is kept up to date by SCM head events afterwards.
+     *
+     * @param job
+     *               the Jenkins project
+     * @param source
+     *               the Gitea repository
+     * @param revision
+     *               the current revision
+     */
+    public void cacheRevision(final Job<?, ?> job, final SCMSource source, final SCMRevision revision) {
+        HeadRevisionCache.get().put(job, source, revision);
+    }
+
+    @CheckForNull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private SCMRevision findIndexedRevision(final Job<?, ?> job) {
+        if (job.getParent() instanceof MultiBranchProject) {
+            BranchProjectFactory factory = ((MultiBranchProject) job.getParent()).getProjectFactory();
+            if (factory.isProject(job)) {
+                return factory.getRevision(job);
+            }
+        }
+        return null;
+    }
+
     /**
      * Find the current {@link SCMRevision} of the {@code source} and {@code run}
      * locally through
@@ -234,7 +346,7 @@ public class SCMFacade {
     private SCM extractFromPipeline(final Job<?, ?> job) {
         Collection<? extends SCM> scms = ((SCMTriggerItem) job).getSCMs();
         if (!scms.isEmpty()) {
-            return scms.iterator().next(); // TODO: what should we do if more than one SCM has been used
+            return scms.iterator().next(); // all SCMs are returned by findGitSCMs
         }
 
         if (job instanceof WorkflowJob) {
@@ -0,0 +1,129 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import jenkins.scm.api.SCMSource;
+
+/**
+ * Caches the {@link SCMSource} of jobs so that publishing checks does not need to walk the item tree again for every
+ * status. Jobs are identified by their full name, since the source references its owner and thus the job itself. An
+ * entry is invalidated when the job or one of its parents (e.g. the multibranch project that owns the source) is
+ * reconfigured, renamed or deleted.
+ */
+public final class SCMSourceCache {
+    private static final SCMSourceCache INSTANCE = new SCMSourceCache();
+
+    private final ConcurrentMap<String, Optional<SCMSource>> sources = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @VisibleForTesting
+    SCMSourceCache() {
+        // use the singleton
+    }
+
+    /**
+     * Returns the cache shared by all jobs of this controller.
+     *
+     * @return the shared cache
+     */
+    static SCMSourceCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached source of the job, resolving it with the given function if it is not cached yet. The source is
+     * resolved without holding a lock, so concurrent calls for the same job may resolve it more than once.
+     *
+     * @param job
+     *         the job to get the source for
+     * @param resolver
+     *         resolves the source of a job
+     * @return the source of the job or {@code null} if the job has no source
+     */
+    @CheckForNull
+    SCMSource findSource(final Job<?, ?> job, final Function<Job<?, ?>, SCMSource> resolver) {
+        String name = job.getFullName();
+        Optional<SCMSource> cached = sources.get(name);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+
+        long invalidated = invalidations.get();
+        Optional<SCMSource> resolved = Optional.ofNullable(resolver.apply(job));
+        if (invalidations.get() == invalidated) { // otherwise the resolved source might already be stale
+            sources.putIfAbsent(name, resolved);
+        }
+        return resolved.orElse(null);
+    }
+
+    /**
+     * Removes the cached sources of the item and of all jobs within the item.
+     *
+     * @param item
+     *         the changed item
+     */
+    void invalidate(final Item item) {
+        invalidate(item.getFullName());
+    }
+
+    /**
+     * Removes the cached sources of the item with the given full name and of all jobs within the item.
+     *
+     * @param fullName
+     *         the full name of the changed item
+     */
+    void invalidate(final String fullName) {
+        invalidations.incrementAndGet();
+        String prefix = fullName + "/";
+        sources.keySet().removeIf(name -> name.equals(fullName) || name.startsWith(prefix));
+    }
+
+    /**
+     * Invalidates the cache when items are reconfigured, renamed or deleted.
+     */
+    @Extension
+    public static final class ItemChangeListener extends ItemListener {
+        @Override
+        public void onUpdated(final Item item) {
+            get().invalidate(item);
+        }
+
+        @Override
+        public void onDeleted(final Item item) {
+            get().invalidate(item);
+        }
+
+        @Override
+        public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+            get().invalidate(oldFullName);
+            get().invalidate(newFullName);
+        }
+    }
+
+    /**
+     * Invalidates the cache when folders or multibranch projects are saved, e.g. after their sources have been
+     * updated by an organization scan.
+     */
+    @Extension
+    public static final class ItemGroupSaveListener extends SaveableListener {
+        @Override
+        public void onChange(final Saveable o, final XmlFile file) {
+            if (o instanceof Item && o instanceof ItemGroup) {
+                get().invalidate((Item) o);
+            }
+        }
+    }
+}
@@ -0,0 +1,673 @@
+package io.jenkins.plugins.checks.gitea;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.init.Terminator;
+import hudson.model.Job;
+import hudson.model.PeriodicWork;
+import hudson.util.AtomicFileWriter;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitStatus;
+
+/**
+ * Persists the {@link PendingCommitStatus}es that have not been delivered yet, so that they are sent even if the
+ * controller restarts while they are queued or retried. The outbox is an append-only file of JSON lines in
+ * {@code JENKINS_HOME}: a status is added before it is sent and acknowledged once it has been delivered or rejected by
+ * the server. Statuses that are still pending after a restart, or whose retries have been exhausted, are redelivered
+ * by the dispatcher in the background. Statuses that could not be delivered within the maximum age, e.g. because their
+ * server has been decommissioned, are dropped. The file is compacted periodically, so that it only contains pending
+ * statuses.
+ *
+ * <p>
+ * Since Gitea only shows the latest status of a context, the outbox keeps only the latest status for each
+ * {@link PendingCommitStatus.Key}. Delivery is at least once: a status that has been sent right before a restart
+ * may be sent again.
+ * </p>
+ *
+ * <p>
+ * Adding and acknowledging a status only updates the pending statuses in memory, the file is read and written by a
+ * background thread, so that builds never wait for the disk. A status that is acknowledged before it has been written,
+ * e.g. a status that has been published synchronously, is not written at all.
+ * </p>
+ */
+public final class StatusOutbox {
+    private static final Logger LOGGER = Logger.getLogger(StatusOutbox.class.getName());
+    private static final String FILE_NAME = "gitea-checks-outbox.jsonl";
+    private static final boolean ENABLED =
+            SystemProperties.getBoolean(StatusOutbox.class.getName() + ".enabled", true);
+    private static final long MAXIMUM_AGE = TimeUnit.HOURS.toMillis(
+            SystemProperties.getLong(StatusOutbox.class.getName() + ".maximumAgeHours", 24L));
+
+    private static final String OPERATION = "op";
+    private static final String ADD = "add";
+    private static final String ACK = "ack";
+    private static final String ID = "id";
+    private static final String CREATED = "created";
+    private static final String SERVER_URL = "serverUrl";
+    private static final String CREDENTIALS_ID = "credentialsId";
+    private static final String JOB_NAME = "job";
+    private static final String REPO_OWNER = "owner";
+    private static final String REPO = "repo";
+    private static final String SHA = "sha";
+    private static final String STATUS = "status";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final StatusOutbox INSTANCE = new StatusOutbox(
+            StatusOutbox::getOutboxFile,
+            StatusOutbox::findCredentials,
+            createExecutor(),
+            System::currentTimeMillis,
+            MAXIMUM_AGE);
+
+    private final Supplier<File> file;
+    private final BiFunction<String, String, Optional<StandardCredentials>> credentialsResolver;
+    private final Executor executor;
+    private final LongSupplier clock;
+    private final long maximumAge;
+
+    // guarded by this
+    private final Map<PendingCommitStatus.Key, Entry> entries = new LinkedHashMap<>();
+    /** The records of added statuses that have not been written yet, by ID. */
+    private final Map<Long, ObjectNode> unwrittenAdds = new LinkedHashMap<>();
+    /** The records of acknowledged statuses that have not been written yet. */
+    private final List<ObjectNode> unwrittenAcks = new ArrayList<>();
+
+    @CheckForNull
+    private File outboxFile;
+
+    private boolean writeScheduled;
+    private long nextId;
+    /** The number of records in the file that do not belong to a pending status anymore. */
+    private int obsoleteRecords;
+
+    // guarded by fileLock, which is always acquired before this
+    private final Object fileLock = new Object();
+    private boolean loaded;
+
+    @CheckForNull
+    private Writer writer;
+
+    /**
+     * Creates a new outbox that writes its file in the calling thread.
+     *
+     * @param file
+     *         the file of the outbox, returns {@code null} if statuses should not be persisted
+     * @param credentialsResolver
+     *         finds the credentials with an ID (second argument) for the job with a full name (first argument)
+     */
+    @VisibleForTesting
+    StatusOutbox(
+            final Supplier<File> file,
+            final BiFunction<String, String, Optional<StandardCredentials>> credentialsResolver) {
+        this(file, credentialsResolver, Runnable::run, System::currentTimeMillis, MAXIMUM_AGE);
+    }
+
+    /**
+     * Creates a new outbox.
+     *
+     * @param file
+     *         the file of the outbox, returns {@code null} if statuses should not be persisted
+     * @param credentialsResolver
+     *         finds the credentials with an ID (second argument) for the job with a full name (first argument)
+     * @param executor
+     *         the executor that reads and writes the file
+     * @param clock
+     *         the current time in milliseconds
+     * @param maximumAge
+     *         the time in milliseconds after which statuses that have not been delivered are dropped, 0 or negative
+     *         to keep them until they are delivered
+     */
+    @VisibleForTesting
+    StatusOutbox(
+            final Supplier<File> file,
+            final BiFunction<String, String, Optional<StandardCredentials>> credentialsResolver,
+            final Executor executor,
+            final LongSupplier clock,
+            final long maximumAge) {
+        this.file = file;
+        this.credentialsResolver = credentialsResolver;
+        this.executor = executor;
+        this.clock = clock;
+        this.maximumAge = maximumAge;
+    }
+
+    /**
+     * Returns the outbox of this controller.
+     *
+     * @return the shared outbox
+     */
+    static StatusOutbox get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a status that is about to be sent. A pending status with the same key is replaced.
+     *
+     * @param status
+     *         the status to add
+     */
+    void add(final PendingCommitStatus status) {
+        synchronized (this) {
+            if (!isPersistent()) {
+                return;
+            }
+
+            Entry entry = new Entry(nextId++, status, clock.getAsLong());
+            Entry replaced = entries.put(status.getKey(), entry);
+            if (replaced != null && unwrittenAdds.remove(replaced.id) == null) {
+                obsoleteRecords++;
+            }
+            unwrittenAdds.put(entry.id, toJson(entry));
+        }
+        scheduleWrite();
+    }
+
+    /**
+     * Removes a status that has been delivered or that must not be sent again. Nothing happens if the status has been
+     * replaced by a newer status with the same key in the meantime.
+     *
+     * @param status
+     *         the status to remove
+     */
+    void acknowledge(final PendingCommitStatus status) {
+        synchronized (this) {
+            Entry entry = findEntry(status);
+            if (entry == null) {
+                return;
+            }
+
+            entries.remove(status.getKey());
+            if (!remove(entry)) {
+                return;
+            }
+        }
+        scheduleWrite();
+    }
+
+    /**
+     * Drops the statuses that have not been delivered within the maximum age, e.g. because their server keeps failing
+     * or does not exist anymore. Gitea would show such a status long after the build has finished, if at all.
+     */
+    void expire() {
+        if (maximumAge <= 0) {
+            return;
+        }
+
+        List<PendingCommitStatus> expired = new ArrayList<>();
+        boolean written = false;
+        synchronized (this) {
+            long deadline = clock.getAsLong() - maximumAge;
+            Iterator<Entry> pending = entries.values().iterator();
+            while (pending.hasNext()) {
+                Entry entry = pending.next();
+                if (entry.created - deadline < 0) {
+                    pending.remove();
+                    written |= remove(entry);
+                    expired.add(entry.status);
+                }
+            }
+        }
+
+        for (PendingCommitStatus status : expired) {
+            LOGGER.log(
+                    Level.WARNING,
+                    "Dropped Gitea check from the outbox since it has not been delivered within {0} hours: {1}",
+                    new Object[] {TimeUnit.MILLISECONDS.toHours(maximumAge), status});
+        }
+        if (written) {
+            scheduleWrite();
+        }
+    }
+
+    /**
+     * Marks a status whose delivery has been given up for now, so that it is redelivered later.
+     *
+     * @param status
+     *         the status to redeliver
+     */
+    synchronized void defer(final PendingCommitStatus status) {
+        Entry entry = findEntry(status);
+        if (entry != null) {
+            entry.deferred = true;
+        }
+    }
+
+    /**
+     * Returns the statuses that should be redelivered and clears their mark. Statuses that are still pending from
+     * before a restart are redelivered as well, once the file has been {@linkplain #flush() loaded}.
+     *
+     * @return the statuses to redeliver
+     */
+    synchronized List<PendingCommitStatus> takeDeferred() {
+        List<PendingCommitStatus> deferred = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.deferred) {
+                entry.deferred = false;
+                deferred.add(entry.status);
+            }
+        }
+        return deferred;
+    }
+
+    /**
+     * Returns the number of statuses that have not been delivered yet.
+     *
+     * @return the number of pending statuses
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the statuses that have been added or acknowledged to the file and waits until they have been written. If
+     * the file has not been loaded yet, the statuses that are still pending from before a restart are loaded first.
+     */
+    void flush() {
+        synchronized (fileLock) {
+            File outbox;
+            synchronized (this) {
+                writeScheduled = false;
+                outbox = isPersistent() ? outboxFile : null;
+            }
+            if (outbox == null) {
+                return;
+            }
+
+            if (!loaded) {
+                loaded = true;
+                if (outbox.isFile()) {
+                    load(outbox);
+                    rewrite(outbox);
+                    return;
+                }
+            }
+
+            List<ObjectNode> records;
+            synchronized (this) {
+                records = new ArrayList<>(unwrittenAdds.values());
+                records.addAll(unwrittenAcks);
+                unwrittenAdds.clear();
+                unwrittenAcks.clear();
+            }
+            append(outbox, records);
+        }
+    }
+
+    /**
+     * Rewrites the file of the outbox so that it only contains the pending statuses.
+     */
+    void compact() {
+        synchronized (fileLock) {
+            File outbox;
+            synchronized (this) {
+                outbox = obsoleteRecords > 0 ? outboxFile : null;
+            }
+            if (outbox != null && loaded) {
+                rewrite(outbox);
+            }
+        }
+    }
+
+    /**
+     * Closes the file of the outbox after writing the pending records. It is opened again by the next status that is
+     * added.
+     */
+    void close() {
+        flush();
+        synchronized (fileLock) {
+            closeWriter();
+        }
+    }
+
+    /**
+     * Hands the statuses that should be redelivered to the dispatcher. Statuses that do not fit into the dispatch queue
+     * are redelivered next time.
+     *
+     * @param dispatcher
+     *         the dispatcher that sends the statuses
+     */
+    void redeliver(final CommitStatusDispatcher dispatcher) {
+        for (PendingCommitStatus status : takeDeferred()) {
+            if (!dispatcher.resubmit(status)) {
+                defer(status);
+            }
+        }
+    }
+
+    /**
+     * Records the removal of an entry from the pending statuses.
+     *
+     * @return {@code true} if an acknowledgement needs to be written, {@code false} if the status has not been written
+     */
+    private boolean remove(final Entry entry) {
+        if (unwrittenAdds.remove(entry.id) != null) {
+            return false;
+        }
+        obsoleteRecords += 2;
+        unwrittenAcks.add(MAPPER.createObjectNode().put(OPERATION, ACK).put(ID, entry.id));
+        return true;
+    }
+
+    @CheckForNull
+    private Entry findEntry(final PendingCommitStatus status) {
+        Entry entry = entries.get(status.getKey());
+        if (entry != null && entry.status.getSequence() == status.getSequence()) {
+            return entry;
+        }
+        return null;
+    }
+
+    private boolean isPersistent() {
+        if (outboxFile == null) {
+            outboxFile = file.get();
+        }
+        return outboxFile != null;
+    }
+
+    private void scheduleWrite() {
+        synchronized (this) {
+            if (writeScheduled) {
+                return;
+            }
+            writeScheduled = true;
+        }
+        executor.execute(this::flush);
+    }
+
+    /**
+     * Reads the statuses that are pending from before a restart. Statuses that have been added since the start are
+     * newer and replace the loaded statuses with the same key.
+     */
+    private void load(final File outbox) {
+        Map<Long, JsonNode> added = new LinkedHashMap<>();
+        long maximumId = -1;
+        try (BufferedReader reader = Files.newBufferedReader(outbox.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode record = MAPPER.readTree(line);
+                    long id = record.path(ID).asLong();
+                    maximumId = Math.max(maximumId, id);
+                    if (ADD.equals(record.path(OPERATION).asText())) {
+                        added.put(id, record);
+                    } else {
+                        added.remove(id);
+                    }
+                } catch (JsonProcessingException exception) {
+                    LOGGER.log(Level.WARNING, "Skipped corrupt record in the outbox of Gitea checks", exception);
+                }
+            }
+        } catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Failed to read the outbox of Gitea checks: " + outbox, exception);
+        }
+
+        Map<String, Optional<StandardCredentials>> credentials = new HashMap<>();
+        long now = clock.getAsLong();
+        Map<PendingCommitStatus.Key, PendingCommitStatus> pending = new LinkedHashMap<>();
+        Map<PendingCommitStatus.Key, Long> created = new HashMap<>();
+        for (JsonNode record : added.values()) {
+            Optional<PendingCommitStatus> status = fromJson(record, credentials);
+            if (status.isPresent()) {
+                pending.put(status.get().getKey(), status.get());
+                created.put(status.get().getKey(), record.path(CREATED).asLong(now)); // missing in older outboxes
+            } else {
+                LOGGER.log(
+                        Level.WARNING,
+                        "Dropped Gitea check from the outbox since its status, job or credentials are not valid: {0}",
+                        record);
+            }
+        }
+
+        int found = 0;
+        synchronized (this) {
+            nextId = Math.max(nextId, maximumId + 1);
+            for (PendingCommitStatus status : pending.values()) {
+                // the file is rewritten with the new IDs right away
+                Entry entry = new Entry(nextId++, status, created.get(status.getKey()));
+                entry.deferred = true;
+                if (entries.putIfAbsent(status.getKey(), entry) == null) {
+                    found++;
+                }
+            }
+        }
+
+        LOGGER.log(Level.INFO, "Found {0} pending Gitea checks in the outbox", found);
+    }
+
+    /**
+     * Replaces the file with the records of the pending statuses.
+     */
+    private void rewrite(final File outbox) {
+        List<ObjectNode> records = new ArrayList<>();
+        int acknowledged;
+        int obsolete;
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                records.add(unwrittenAdds.getOrDefault(entry.id, toJson(entry)));
+            }
+            acknowledged = unwrittenAcks.size();
+            obsolete = obsoleteRecords;
+        }
+
+        try {
+            closeWriter();
+            AtomicFileWriter compacted = new AtomicFileWriter(outbox.toPath(), StandardCharsets.UTF_8);
+            try {
+                for (ObjectNode record : records) {
+                    compacted.write(MAPPER.writeValueAsString(record));
+                    compacted.write('\n');
+                }
+                compacted.commit();
+            } finally {
+                compacted.abort();
+            }
+        } catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Failed to compact the outbox of Gitea checks: " + outbox, exception);
+            return;
+        }
+
+        synchronized (this) {
+            // statuses added or acknowledged in the meantime are still written by the next flush
+            records.forEach(record -> unwrittenAdds.remove(record.path(ID).asLong()));
+            unwrittenAcks.subList(0, acknowledged).clear();
+            obsoleteRecords -= obsolete;
+        }
+    }
+
+    private Optional<PendingCommitStatus> fromJson(
+            final JsonNode record, final Map<String, Optional<StandardCredentials>> credentials) {
+        String jobName = record.path(JOB_NAME).asText();
+        String credentialsId = record.path(CREDENTIALS_ID).asText();
+
+        GiteaCommitStatus status;
+        try {
+            status = MAPPER.treeToValue(record.path(STATUS), GiteaCommitStatus.class);
+        } catch (JsonProcessingException exception) {
+            LOGGER.log(Level.FINE, "Failed to read the status of an outbox record", exception);
+            return Optional.empty();
+        }
+
+        return credentials
+                .computeIfAbsent(
+                        jobName + '\n' + credentialsId, key -> credentialsResolver.apply(jobName, credentialsId))
+                .map(resolved -> new PendingCommitStatus(
+                        record.path(SERVER_URL).asText(),
+                        resolved,
+                        jobName,
+                        record.path(REPO_OWNER).asText(),
+                        record.path(REPO).asText(),
+                        record.path(SHA).asText(),
+                        status));
+    }
+
+    private static ObjectNode toJson(final Entry entry) {
+        PendingCommitStatus pending = entry.status;
+        ObjectNode record = MAPPER.createObjectNode()
+                .put(OPERATION, ADD)
+                .put(ID, entry.id)
+                .put(CREATED, entry.created)
+                .put(SERVER_URL, pending.getServerUrl())
+                .put(CREDENTIALS_ID, pending.getCredentials().getId())
+                .put(JOB_NAME, pending.getJobName())
+                .put(REPO_OWNER, pending.getRepoOwner())
+                .put(REPO, pending.getRepo())
+                .put(SHA, pending.getSha());
+        record.set(STATUS, MAPPER.valueToTree(pending.getStatus()));
+        return record;
+    }
+
+    private void append(final File outbox, final List<ObjectNode> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(
+                        outbox.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (ObjectNode record : records) {
+                writer.write(MAPPER.writeValueAsString(record));
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException exception) {
+            LOGGER.log(Level.WARNING, "Failed to write to the outbox of Gitea checks: " + outbox, exception);
+            closeWriter();
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException exception) {
+                LOGGER.log(Level.FINE, "Failed to close the outbox of Gitea checks", exception);
+            }
+            writer = null;
+        }
+    }
+
+    @CheckForNull
+    private static File getOutboxFile() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (!ENABLED || jenkins == null) {
+            return null;
+        }
+        return new File(jenkins.getRootDir(), FILE_NAME);
+    }
+
+    private static Optional<StandardCredentials> findCredentials(final String jobName, final String credentialsId) {
+        Job<?, ?> job = Jenkins.get().getItemByFullName(jobName, Job.class);
+        if (job == null) {
+            return Optional.empty();
+        }
+        return new SCMFacade().findGiteaAppCredentials(job, credentialsId);
+    }
+
+    /**
+     * Redelivers the statuses that are still pending from before the restart once all jobs have been loaded.
+     */
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void recover() {
+        Timer.get().submit(() -> {
+            INSTANCE.flush();
+            INSTANCE.redeliver(CommitStatusDispatcher.get());
+        });
+    }
+
+    /**
+     * Closes the outbox when Jenkins shuts down.
+     */
+    @Terminator
+    public static void terminate() {
+        INSTANCE.close();
+    }
+
+    /**
+     * Periodically drops expired statuses, compacts the outbox and redelivers statuses whose retries have been
+     * exhausted.
+     */
+    @Extension
+    public static final class Maintenance extends PeriodicWork {
+        @Override
+        public long getRecurrencePeriod() {
+            return 5 * MIN;
+        }
+
+        @Override
+        protected void doRun() {
+            get().expire();
+            get().compact();
+            get().redeliver(CommitStatusDispatcher.get());
+        }
+    }
+
+    private static Executor createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "Gitea checks outbox"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final PendingCommitStatus status;
+        private final long created;
+        private boolean deferred;
+
+        Entry(final long id, final PendingCommitStatus status, final long created) {
+            this.id = id;
+            this.status = status;
+            this.created = created;
+        }
+    }
+}
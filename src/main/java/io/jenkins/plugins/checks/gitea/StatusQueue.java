@@ -0,0 +1,263 @@
+package io.jenkins.plugins.checks.gitea;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * A bounded FIFO queue of {@link PendingCommitStatus}es waiting to be sent to Gitea. Since Gitea only shows the latest
+ * status of a context, a status that is queued while an older one with the same {@link PendingCommitStatus.Key} is
+ * still waiting replaces the older one: it takes over its position in the queue and does not need additional
+ * capacity. Conversely, a status that is older than the queued one, e.g. a retry, is dropped. The capacity is read
+ * on every insertion so that changes of the global configuration take effect immediately.
+ *
+ * <p>
+ * A status that has been removed from the queue is in flight until it is {@linkplain #release(Collection) released}.
+ * While a status of a key is in flight, no other status of the same key is handed out, so that two workers never send
+ * statuses of the same context concurrently and the older one cannot overtake the newer one.
+ * </p>
+ */
+final class StatusQueue {
+    private final IntSupplier capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Map<PendingCommitStatus.Key, PendingCommitStatus> entries = new LinkedHashMap<>();
+    private final Set<PendingCommitStatus.Key> inFlight = new HashSet<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    StatusQueue(final IntSupplier capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Inserts the status if the queue has space left or if it supersedes a queued status.
+     *
+     * @param status
+     *         the status to insert
+     * @return {@code true} if the status has been inserted, {@code false} if the queue is full
+     */
+    boolean offer(final PendingCommitStatus status) {
+        lock.lock();
+        try {
+            if (coalesce(status)) {
+                return true;
+            }
+            if (isFull()) {
+                return false;
+            }
+            enqueue(status);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the status, waiting for space to become available if the queue is full and the status does not
+     * supersede a queued status.
+     *
+     * @param status
+     *         the status to insert
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting
+     */
+    void put(final PendingCommitStatus status) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!coalesce(status)) {
+                if (!isFull()) {
+                    enqueue(status);
+                    return;
+                }
+                notFull.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the status, waiting at most for the given time for space to become available if the queue is full and
+     * the status does not supersede a queued status.
+     *
+     * @param status
+     *         the status to insert
+     * @param timeout
+     *         the maximum time to wait
+     * @param unit
+     *         the unit of the timeout
+     * @return {@code true} if the status has been inserted, {@code false} if the queue is still full after the timeout
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting
+     */
+    boolean offer(final PendingCommitStatus status, final long timeout, final TimeUnit unit)
+            throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!coalesce(status)) {
+                if (!isFull()) {
+                    enqueue(status);
+                    return true;
+                }
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest status whose key is not in flight, waiting for one to become available if there is none. The
+     * key of the status is in flight until the status is released.
+     *
+     * @return the oldest status that is not in flight
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting
+     */
+    PendingCommitStatus take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                Iterator<PendingCommitStatus> iterator = entries.values().iterator();
+                while (iterator.hasNext()) {
+                    PendingCommitStatus status = iterator.next();
+                    if (inFlight.add(status.getKey())) {
+                        iterator.remove();
+                        notFull.signal();
+                        return status;
+                    }
+                }
+                notEmpty.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the keys of the statuses that have been sent, so that queued statuses of the same keys are handed out
+     * again.
+     *
+     * @param statuses
+     *         the statuses that have been removed from the queue and are no longer in flight
+     */
+    void release(final Collection<PendingCommitStatus> statuses) {
+        lock.lock();
+        try {
+            for (PendingCommitStatus status : statuses) {
+                inFlight.remove(status.getKey());
+            }
+            if (!entries.isEmpty()) {
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the queued statuses that belong to the same commit as the given status and whose keys are not in flight.
+     * The keys of the removed statuses are in flight until the statuses are released. If no other statuses are queued,
+     * waits at most for the given time for more statuses of the commit to arrive. If the current thread is interrupted
+     * while waiting, the statuses removed so far are returned and the interrupt flag is set.
+     *
+     * @param head
+     *         the status whose commit is drained
+     * @param maxSize
+     *         the maximum number of statuses to remove
+     * @param window
+     *         the maximum time to wait for more statuses in nanoseconds
+     * @return the removed statuses in the order of the queue
+     */
+    List<PendingCommitStatus> drainSameCommit(final PendingCommitStatus head, final int maxSize, final long window) {
+        List<PendingCommitStatus> drained = new ArrayList<>();
+        long remaining = window;
+        lock.lock();
+        try {
+            while (true) {
+                Iterator<PendingCommitStatus> iterator = entries.values().iterator();
+                while (iterator.hasNext() && drained.size() < maxSize) {
+                    PendingCommitStatus status = iterator.next();
+                    if (status.isSameCommit(head) && inFlight.add(status.getKey())) {
+                        drained.add(status);
+                        iterator.remove();
+                    }
+                }
+                if (drained.size() >= maxSize || !entries.isEmpty() || remaining <= 0) {
+                    break;
+                }
+                try {
+                    remaining = notEmpty.awaitNanos(remaining);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (!drained.isEmpty()) {
+                notFull.signalAll();
+            }
+            if (!entries.isEmpty()) {
+                notEmpty.signal(); // might have been consumed by this thread while waiting
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of queued statuses that have been replaced by a newer status before being sent.
+     *
+     * @return the number of superseded statuses
+     */
+    long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private boolean coalesce(final PendingCommitStatus status) {
+        PendingCommitStatus queued = entries.get(status.getKey());
+        if (queued == null) {
+            return false;
+        }
+        if (status.getSequence() > queued.getSequence()) {
+            entries.put(status.getKey(), status);
+        }
+        coalesced.increment();
+        return true;
+    }
+
+    private boolean isFull() {
+        return entries.size() >= capacity.getAsInt();
+    }
+
+    private void enqueue(final PendingCommitStatus status) {
+        entries.put(status.getKey(), status);
+        notEmpty.signal();
+    }
+}
@@ -0,0 +1,14 @@
+package io.jenkins.plugins.checks.gitea;
+
+/**
+ * Determines how commit statuses are sent to the Gitea server.
+ */
+public enum StatusTransport {
+    /** Uses pooled connections of the Gitea plugin's API client, one HTTP/1.1 request at a time per connection. */
+    GITEA_CLIENT,
+    /**
+     * Uses a shared {@link java.net.http.HttpClient} that multiplexes concurrent requests to the same server over a
+     * single HTTP/2 connection if the server supports it.
+     */
+    HTTP2
+}
@@ -0,0 +1,178 @@
+package io.jenkins.plugins.checks.gitea;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import jenkins.util.SystemProperties;
+
+/**
+ * Bounds the time the caller waits for a blocking call to the Gitea API. The Gitea client does not support socket
+ * timeouts, so a call with a timeout runs on a separate thread; if it does not complete in time, the thread is
+ * interrupted and the caller fails with a {@link SocketTimeoutException}, which is retried like any other transient
+ * failure. Requests sent with the {@link HttpStatusClient} have real connect and read timeouts and do not need a
+ * time limiter.
+ *
+ * <p>
+ * Since calls that ignore the interrupt keep their thread busy until the server responds, the number of threads is
+ * bounded for each server and for all servers together, so that a single hung server cannot use up the threads of
+ * the other servers. If a server has no threads left, a call is rejected right away with a
+ * {@link SaturatedException}, which is retried but not counted as a failure of the server.
+ * </p>
+ *
+ * <p>
+ * A call made while a limited call is running in the same thread, e.g. a request sent while a build waits for its
+ * status to be published, runs in that thread: it is bounded by the timeout of the outer call and does not use a
+ * second thread.
+ * </p>
+ */
+final class TimeLimiter {
+    private static final int MAXIMUM_THREADS =
+            SystemProperties.getInteger(TimeLimiter.class.getName() + ".maximumThreads", 64);
+    private static final int MAXIMUM_THREADS_PER_SERVER =
+            SystemProperties.getInteger(TimeLimiter.class.getName() + ".maximumThreadsPerServer", 16);
+
+    private static final TimeLimiter INSTANCE =
+            new TimeLimiter(createExecutor(MAXIMUM_THREADS), MAXIMUM_THREADS_PER_SERVER);
+
+    private static final ThreadLocal<Boolean> LIMITED = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+    private final int maximumThreadsPerServer;
+    private final ConcurrentMap<String, Semaphore> threadsPerServer = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    TimeLimiter(final ExecutorService executor, final int maximumThreadsPerServer) {
+        this.executor = executor;
+        this.maximumThreadsPerServer = Math.max(1, maximumThreadsPerServer);
+    }
+
+    /**
+     * Returns the time limiter shared by all publishers of this controller.
+     *
+     * @return the shared time limiter
+     */
+    static TimeLimiter get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs the call and waits for its result at most for the given time.
+     *
+     * @param serverUrl
+     *         the URL of the Gitea server the call is sent to
+     * @param operation
+     *         a description of the call for the failure message
+     * @param timeoutMillis
+     *         the maximum time to wait in milliseconds, the call is run in the current thread without a limit if the
+     *         timeout is 0 or negative
+     * @param call
+     *         the call to run
+     * @param <T>
+     *         the type of the result
+     * @return the result of the call
+     * @throws IOException
+     *         if the call failed or did not complete in time
+     * @throws SaturatedException
+     *         if there are too many calls in progress
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting for the result
+     */
+    <T> T call(final String serverUrl, final String operation, final long timeoutMillis, final Call<T> call)
+            throws IOException, InterruptedException {
+        if (timeoutMillis <= 0 || Boolean.TRUE.equals(LIMITED.get())) {
+            return call.call();
+        }
+
+        Semaphore threads = threadsPerServer.computeIfAbsent(serverUrl, url -> new Semaphore(maximumThreadsPerServer));
+        if (!threads.tryAcquire()) {
+            throw new SaturatedException(operation);
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                LIMITED.set(Boolean.TRUE);
+                try {
+                    return call.call();
+                } finally {
+                    LIMITED.remove();
+                    threads.release(); // only when the thread is free again, even if the caller stopped waiting
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            threads.release();
+            throw new SaturatedException(operation);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            future.cancel(true);
+            throw new SocketTimeoutException(
+                    String.format("%s did not complete within %d ms", operation, timeoutMillis));
+        } catch (InterruptedException exception) {
+            future.cancel(true);
+            throw exception;
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @VisibleForTesting
+    static ExecutorService createExecutor(final int maximumThreads) {
+        return new ThreadPoolExecutor(
+                0,
+                Math.max(1, maximumThreads),
+                60,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "Gitea checks request"));
+    }
+
+    /**
+     * Thrown if a call is rejected since too many calls are in progress on this controller. The server the call is
+     * sent to is not necessarily unavailable.
+     */
+    static final class SaturatedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        SaturatedException(final String operation) {
+            super(operation + " has been rejected: too many requests in progress");
+        }
+    }
+
+    /**
+     * A blocking call to the Gitea API.
+     *
+     * @param <T>
+     *         the type of the result
+     */
+    @FunctionalInterface
+    interface Call<T> {
+        T call() throws IOException, InterruptedException;
+    }
+}
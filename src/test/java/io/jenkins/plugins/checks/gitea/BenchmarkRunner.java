@@ -0,0 +1,35 @@
+package io.jenkins.plugins.checks.gitea;
+
+import java.util.concurrent.TimeUnit;
+import jenkins.benchmark.jmh.BenchmarkFinder;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all JMH benchmarks of this plugin, i.e. all classes annotated with
+ * {@link jenkins.benchmark.jmh.JmhBenchmark}. The benchmarks are not part of the regular test run, use
+ * {@code mvn test -Dbenchmark} to run them. Results are written to {@code jmh-report.json}.
+ */
+class BenchmarkRunner {
+    @Test
+    void runJmhBenchmarks() throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .mode(Mode.AverageTime)
+                .warmupIterations(2)
+                .measurementIterations(5)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .threads(2)
+                .forks(2)
+                .shouldFailOnError(true)
+                .shouldDoGC(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-report.json");
+
+        new BenchmarkFinder(getClass()).findBenchmarks(options);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.jenkins.plugins.checks.gitea.CircuitBreaker.ServerUnavailableException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+    private static final String SERVER_URL = "https://gitea.example.com";
+
+    @Test
+    void shouldFailFastAfterConsecutiveFailures() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(() -> 2, () -> 60, clock::get);
+
+        breaker.recordFailure(SERVER_URL);
+        assertThatNoException().isThrownBy(() -> breaker.acquire(SERVER_URL));
+        breaker.recordFailure(SERVER_URL);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertThatThrownBy(() -> breaker.acquire(SERVER_URL))
+                .isInstanceOf(ServerUnavailableException.class)
+                .extracting("retryAfter")
+                .isEqualTo(TimeUnit.SECONDS.toMillis(40));
+        assertThatNoException().isThrownBy(() -> breaker.acquire("https://other.example.com"));
+    }
+
+    @Test
+    void shouldResetFailuresAfterSuccess() {
+        CircuitBreaker breaker = new CircuitBreaker(() -> 2, () -> 60, () -> 0);
+
+        breaker.recordFailure(SERVER_URL);
+        breaker.recordSuccess(SERVER_URL);
+        breaker.recordFailure(SERVER_URL);
+
+        assertThatNoException().isThrownBy(() -> breaker.acquire(SERVER_URL));
+    }
+
+    @Test
+    void shouldCloseCircuitAfterSuccessfulProbe() throws ServerUnavailableException {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(() -> 1, () -> 60, clock::get);
+
+        breaker.recordFailure(SERVER_URL);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        breaker.acquire(SERVER_URL);
+        assertThatThrownBy(() -> breaker.acquire(SERVER_URL)).isInstanceOf(ServerUnavailableException.class);
+
+        breaker.recordSuccess(SERVER_URL);
+        assertThatNoException().isThrownBy(() -> breaker.acquire(SERVER_URL));
+    }
+
+    @Test
+    void shouldReopenCircuitAfterFailedProbe() throws ServerUnavailableException {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(() -> 1, () -> 60, clock::get);
+
+        breaker.recordFailure(SERVER_URL);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        breaker.acquire(SERVER_URL);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        breaker.recordFailure(SERVER_URL);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThatThrownBy(() -> breaker.acquire(SERVER_URL)).isInstanceOf(ServerUnavailableException.class);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThatNoException().isThrownBy(() -> breaker.acquire(SERVER_URL));
+    }
+
+    @Test
+    void shouldLetNextRequestProbeIfProbeIsReleased() throws ServerUnavailableException {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(() -> 1, () -> 60, clock::get);
+
+        breaker.recordFailure(SERVER_URL);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        breaker.acquire(SERVER_URL);
+        assertThatThrownBy(() -> breaker.acquire(SERVER_URL)).isInstanceOf(ServerUnavailableException.class);
+
+        breaker.release(SERVER_URL);
+        assertThatNoException().isThrownBy(() -> breaker.acquire(SERVER_URL));
+        assertThatThrownBy(() -> breaker.acquire(SERVER_URL)).isInstanceOf(ServerUnavailableException.class);
+    }
+
+    @Test
+    void shouldNotRejectIfDisabled() {
+        CircuitBreaker breaker = new CircuitBreaker(() -> 0, () -> 60, () -> 0);
+
+        breaker.recordFailure(SERVER_URL);
+        breaker.recordFailure(SERVER_URL);
+
+        assertThatNoException().isThrownBy(() -> breaker.acquire(SERVER_URL));
+    }
+}
@@ -0,0 +1,120 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import io.jenkins.plugins.checks.gitea.CommitStatusDispatcher.QueueFullPolicy;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitState;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitStatus;
+import org.junit.jupiter.api.Test;
+
+class CommitStatusDispatcherTest {
+
+    @Test
+    void shouldSendSubmittedStatusInBackground() throws IOException, InterruptedException {
+        CountDownLatch sent = new CountDownLatch(1);
+        CommitStatusSender sender = mock(CommitStatusSender.class);
+        doAnswer(invocation -> {
+                    sent.countDown();
+                    return null;
+                })
+                .when(sender)
+                .send(any());
+
+        CommitStatusDispatcher dispatcher =
+                new CommitStatusDispatcher(sender, () -> 10, () -> 1, () -> QueueFullPolicy.BLOCK);
+        try {
+            PendingCommitStatus status = createStatus("Jenkins");
+            assertThat(dispatcher.submit(status, 0)).isTrue();
+
+            assertThat(sent.await(10, TimeUnit.SECONDS)).isTrue();
+            verify(sender).send(status);
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void shouldDiscardStatusWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CommitStatusSender sender =
+                new CommitStatusSender(mock(GiteaConnectionPool.class), new PublishedStatusCache(10)) {
+            @Override
+            void send(final PendingCommitStatus pending) throws InterruptedException {
+                blocked.countDown();
+                release.await();
+            }
+        };
+
+        CommitStatusDispatcher dispatcher =
+                new CommitStatusDispatcher(sender, () -> 1, () -> 1, () -> QueueFullPolicy.DISCARD);
+        try {
+            assertThat(dispatcher.submit(createStatus("first"), 0)).isTrue();
+            assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(dispatcher.submit(createStatus("second"), 0)).isTrue();
+            assertThat(dispatcher.submit(createStatus("third"), 0)).isFalse();
+            assertThat(dispatcher.getQueueSize()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRetryStatusAfterTransientFailure() throws IOException, InterruptedException {
+        CountDownLatch sent = new CountDownLatch(2);
+        CommitStatusSender sender = mock(CommitStatusSender.class);
+        doAnswer(invocation -> {
+                    sent.countDown();
+                    if (sent.getCount() > 0) {
+                        throw new IOException("Bad Gateway");
+                    }
+                    return null;
+                })
+                .when(sender)
+                .send(any());
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        CommitStatusDispatcher dispatcher = new CommitStatusDispatcher(
+                sender,
+                () -> 10,
+                () -> 1,
+                () -> QueueFullPolicy.BLOCK,
+                new RetryPolicy(() -> 3, () -> 0),
+                () -> scheduler);
+        try {
+            PendingCommitStatus status = createStatus("Jenkins");
+            assertThat(dispatcher.submit(status, 0)).isTrue();
+
+            assertThat(sent.await(10, TimeUnit.SECONDS)).isTrue();
+            verify(sender)
+                    .send(argThat(retry -> retry.getAttempt() == 1 && retry.getSequence() == status.getSequence()));
+        } finally {
+            dispatcher.shutdown();
+            scheduler.shutdownNow();
+        }
+    }
+
+    static PendingCommitStatus createStatus(final String context) {
+        GiteaCommitStatus status = new GiteaCommitStatus();
+        status.setContext(context);
+        status.setState(GiteaCommitState.PENDING);
+
+        return new PendingCommitStatus(
+                "https://gitea.example.com",
+                mock(StandardCredentials.class),
+                "job",
+                "jenkinsci",
+                "gitea-checks-plugin",
+                "a1b2c3",
+                status);
+    }
+}
@@ -0,0 +1,165 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static io.jenkins.plugins.checks.gitea.CommitStatusDispatcherTest.createStatus;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import io.jenkins.plugins.checks.gitea.GiteaConnectionPool.ConnectionCallback;
+import io.jenkins.plugins.checks.gitea.HttpStatusClient.StatusRequestException;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jenkinsci.plugin.gitea.client.api.GiteaConnection;
+import org.jenkinsci.plugin.gitea.client.api.GiteaHttpStatusException;
+import org.junit.jupiter.api.Test;
+
+class CommitStatusSenderTest {
+    @Test
+    void shouldSendStatusesOfCommitOverSingleConnection() throws IOException, InterruptedException {
+        GiteaConnection connection = mock(GiteaConnection.class);
+        GiteaConnectionPool pool = createPool(connection);
+        PendingCommitStatus build = createStatus("build");
+        PendingCommitStatus rejected = createStatus("rejected");
+        PendingCommitStatus tests = createStatus("tests");
+        when(connection.createCommitStatus(anyString(), anyString(), anyString(), same(rejected.getStatus())))
+                .thenThrow(createFailure(422));
+
+        PublishedStatusCache publishedStatuses = new PublishedStatusCache(10);
+        Map<PendingCommitStatus, Exception> failures =
+                createSender(pool, publishedStatuses).sendBatch(List.of(build, rejected, tests));
+
+        verify(pool, times(1)).execute(anyString(), any(), any());
+        verify(connection, times(3)).createCommitStatus(anyString(), anyString(), anyString(), any());
+        assertThat(failures).containsOnlyKeys(rejected);
+        assertThat(publishedStatuses.isPublished(build)).isTrue();
+        assertThat(publishedStatuses.isPublished(tests)).isTrue();
+    }
+
+    @Test
+    void shouldRecordEachPublishedStatusOnce() throws IOException, InterruptedException {
+        GiteaConnectionPool pool = createPool(mock(GiteaConnection.class));
+        PublishedStatusCache publishedStatuses = spy(new PublishedStatusCache(10));
+        PendingCommitStatus build = createStatus("build");
+
+        assertThat(createSender(pool, publishedStatuses).sendBatch(List.of(build))).isEmpty();
+
+        verify(publishedStatuses).recordPublished(build);
+    }
+
+    @Test
+    void shouldFailRemainingStatusesIfServerFails() throws IOException, InterruptedException {
+        GiteaConnection connection = mock(GiteaConnection.class);
+        GiteaConnectionPool pool = createPool(connection);
+        PendingCommitStatus build = createStatus("build");
+        PendingCommitStatus failed = createStatus("failed");
+        PendingCommitStatus tests = createStatus("tests");
+        IOException failure = createFailure(502);
+        when(connection.createCommitStatus(anyString(), anyString(), anyString(), same(failed.getStatus())))
+                .thenThrow(failure);
+
+        Map<PendingCommitStatus, Exception> failures =
+                createSender(pool, new PublishedStatusCache(10)).sendBatch(List.of(build, failed, tests));
+
+        verify(connection, times(2)).createCommitStatus(anyString(), anyString(), anyString(), any());
+        assertThat(failures).containsOnlyKeys(failed, tests).containsValue(failure);
+    }
+
+    @Test
+    void shouldSendStatusesConcurrentlyWithHttpClient() throws IOException, InterruptedException {
+        GiteaConnectionPool pool = mock(GiteaConnectionPool.class);
+        HttpStatusClient httpClient = mock(HttpStatusClient.class);
+        PendingCommitStatus build = createStatus("build");
+        PendingCommitStatus throttled = createStatus("throttled");
+        StatusRequestException failure = new StatusRequestException(429, "slow down", 1000);
+        when(httpClient.createCommitStatus(any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(httpClient.createCommitStatus(throttled)).thenReturn(CompletableFuture.failedFuture(failure));
+
+        PublishedStatusCache publishedStatuses = new PublishedStatusCache(10);
+        Map<PendingCommitStatus, Exception> failures = new CommitStatusSender(
+                        pool,
+                        publishedStatuses,
+                        new RateLimiter(() -> 0, () -> 1, System::nanoTime),
+                        new CircuitBreaker(() -> 0, () -> 1, System::nanoTime),
+                        new GiteaChecksMetrics(mock(GiteaChecksMetrics.Recorder.class)),
+                        httpClient,
+                        () -> StatusTransport.HTTP2)
+                .sendBatch(List.of(build, throttled));
+
+        verifyNoInteractions(pool);
+        assertThat(failures).containsOnly(entry(throttled, failure));
+        assertThat(publishedStatuses.isPublished(build)).isTrue();
+    }
+
+    @Test
+    void shouldNotCountRejectionOfTooManyRequestsAsFailureOfServer() throws IOException, InterruptedException {
+        GiteaConnectionPool pool = mock(GiteaConnectionPool.class);
+        when(pool.execute(anyString(), any(), any()))
+                .thenThrow(new TimeLimiter.SaturatedException("Leasing a connection"));
+        CircuitBreaker circuitBreaker = new CircuitBreaker(() -> 1, () -> 60, System::nanoTime);
+        PendingCommitStatus build = createStatus("build");
+
+        Map<PendingCommitStatus, Exception> failures = new CommitStatusSender(
+                        pool,
+                        new PublishedStatusCache(10),
+                        new RateLimiter(() -> 0, () -> 1, System::nanoTime),
+                        circuitBreaker,
+                        new GiteaChecksMetrics(mock(GiteaChecksMetrics.Recorder.class)))
+                .sendBatch(List.of(build));
+
+        assertThat(failures.get(build)).isInstanceOf(TimeLimiter.SaturatedException.class);
+        assertThatNoException().isThrownBy(() -> circuitBreaker.acquire(build.getServerUrl()));
+    }
+
+    @Test
+    void shouldReleaseProbeIfInterrupted() throws IOException, InterruptedException {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(() -> 1, () -> 60, clock::get);
+        PendingCommitStatus build = createStatus("build");
+        circuitBreaker.recordFailure(build.getServerUrl());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        GiteaConnectionPool pool = mock(GiteaConnectionPool.class);
+        when(pool.execute(anyString(), any(), any())).thenThrow(new InterruptedException());
+        CommitStatusSender sender = new CommitStatusSender(
+                pool,
+                new PublishedStatusCache(10),
+                new RateLimiter(() -> 0, () -> 1, System::nanoTime),
+                circuitBreaker,
+                new GiteaChecksMetrics(mock(GiteaChecksMetrics.Recorder.class)));
+
+        assertThatThrownBy(() -> sender.sendBatch(List.of(build))).isInstanceOf(InterruptedException.class);
+
+        assertThatNoException()
+                .as("the next request probes the server")
+                .isThrownBy(() -> circuitBreaker.acquire(build.getServerUrl()));
+    }
+
+    private GiteaConnectionPool createPool(final GiteaConnection connection) throws IOException, InterruptedException {
+        GiteaConnectionPool pool = mock(GiteaConnectionPool.class);
+        when(pool.execute(anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(2).apply(connection));
+        when(pool.request(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<TimeLimiter.Call<?>>getArgument(2).call());
+        return pool;
+    }
+
+    private CommitStatusSender createSender(
+            final GiteaConnectionPool pool, final PublishedStatusCache publishedStatuses) {
+        return new CommitStatusSender(
+                pool,
+                publishedStatuses,
+                new RateLimiter(() -> 0, () -> 1, System::nanoTime),
+                new CircuitBreaker(() -> 0, () -> 1, System::nanoTime),
+                new GiteaChecksMetrics(mock(GiteaChecksMetrics.Recorder.class)));
+    }
+
+    private GiteaHttpStatusException createFailure(final int statusCode) {
+        GiteaHttpStatusException failure = mock(GiteaHttpStatusException.class);
+        when(failure.getStatusCode()).thenReturn(statusCode);
+        return failure;
+    }
+}
@@ -0,0 +1,88 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import hudson.model.Job;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CredentialsCacheTest {
+    private static final long TIME_TO_LIVE = 1000;
+
+    @Test
+    void shouldReuseCredentialsUntilExpired() {
+        AtomicLong clock = new AtomicLong();
+        CredentialsCache cache = new CredentialsCache(TIME_TO_LIVE, clock::get);
+        Job<?, ?> job = createJob("folder/job");
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        AtomicInteger lookups = new AtomicInteger();
+
+        assertThat(cache.find(job, "1", () -> lookup(lookups, credentials))).contains(credentials);
+        clock.addAndGet(TIME_TO_LIVE - 1);
+        assertThat(cache.find(job, "1", () -> lookup(lookups, credentials))).contains(credentials);
+        assertThat(lookups).hasValue(1);
+
+        clock.addAndGet(1);
+        assertThat(cache.find(job, "1", () -> lookup(lookups, credentials))).contains(credentials);
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void shouldLookupCredentialsPerJobAndId() {
+        CredentialsCache cache = new CredentialsCache(TIME_TO_LIVE, () -> 0);
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        AtomicInteger lookups = new AtomicInteger();
+
+        cache.find(createJob("first"), "1", () -> lookup(lookups, credentials));
+        cache.find(createJob("second"), "1", () -> lookup(lookups, credentials));
+        cache.find(createJob("first"), "2", () -> lookup(lookups, credentials));
+
+        assertThat(lookups).hasValue(3);
+    }
+
+    @Test
+    void shouldLookupCredentialsAgainAfterInvalidation() {
+        CredentialsCache cache = new CredentialsCache(TIME_TO_LIVE, () -> 0);
+        Job<?, ?> job = createJob("job");
+        AtomicInteger lookups = new AtomicInteger();
+
+        assertThat(cache.find(job, "1", () -> lookup(lookups, null))).isEmpty();
+        assertThat(cache.find(job, "1", () -> lookup(lookups, null))).isEmpty();
+        assertThat(lookups).hasValue(1);
+
+        cache.invalidateAll();
+        cache.find(job, "1", () -> lookup(lookups, null));
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void shouldLookupCredentialsOfJobsInFolderAgainAfterInvalidationOfFolder() {
+        CredentialsCache cache = new CredentialsCache(TIME_TO_LIVE, () -> 0);
+        Job<?, ?> inFolder = createJob("folder/job");
+        Job<?, ?> inOtherFolder = createJob("folder-2/job");
+        AtomicInteger lookups = new AtomicInteger();
+
+        cache.find(inFolder, "1", () -> lookup(lookups, null));
+        cache.find(inOtherFolder, "1", () -> lookup(lookups, null));
+        cache.invalidate("folder");
+
+        cache.find(inFolder, "1", () -> lookup(lookups, null));
+        cache.find(inOtherFolder, "1", () -> lookup(lookups, null));
+        assertThat(lookups).hasValue(3);
+    }
+
+    private Optional<StandardCredentials> lookup(final AtomicInteger lookups, final StandardCredentials credentials) {
+        lookups.incrementAndGet();
+        return Optional.ofNullable(credentials);
+    }
+
+    private Job<?, ?> createJob(final String fullName) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(fullName);
+        return job;
+    }
+}
@@ -0,0 +1,71 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+class DiffIndexTest {
+    static final String DIFF = String.join(
+            "\n",
+            "diff --git a/src/Main.java b/src/Main.java",
+            "index 1111111..2222222 100644",
+            "--- a/src/Main.java",
+            "+++ b/src/Main.java",
+            "@@ -10,4 +10,5 @@ class Main {",
+            "     int a;",
+            "-    int b;",
+            "+    int c;",
+            "+    int d;",
+            "--- not a header but a removed line",
+            "     int e;",
+            "@@ -40 +41 @@",
+            "-old",
+            "+new",
+            "\\ No newline at end of file",
+            "diff --git a/README.md b/README.md",
+            "deleted file mode 100644",
+            "--- a/README.md",
+            "+++ /dev/null",
+            "@@ -1,2 +0,0 @@",
+            "-# Title",
+            "-+ list item",
+            "diff --git a/docs/new file.txt b/docs/new file.txt",
+            "new file mode 100644",
+            "--- /dev/null",
+            "+++ \"b/docs/new file.txt\"",
+            "@@ -0,0 +1,2 @@",
+            "+first",
+            "+second",
+            "");
+
+    @Test
+    void shouldIndexAddedLinesOfEachFile() throws IOException {
+        DiffIndex index = parse(DIFF);
+
+        assertThat(index.getFileCount()).isEqualTo(2);
+        assertThat(index.findChangedLine("src/Main.java", 10, 10)).isEqualTo(-1);
+        assertThat(index.findChangedLine("src/Main.java", 11, 11)).isEqualTo(11);
+        assertThat(index.findChangedLine("src/Main.java", 12, 12)).isEqualTo(12);
+        assertThat(index.findChangedLine("src/Main.java", 13, 13)).isEqualTo(-1);
+        assertThat(index.findChangedLine("src/Main.java", 41, 41)).isEqualTo(41);
+        assertThat(index.findChangedLine("docs/new file.txt", 1, 2)).isEqualTo(1);
+        assertThat(index.findChangedLine("README.md", 1, 2)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldFindFirstChangedLineOfRange() throws IOException {
+        DiffIndex index = parse(DIFF);
+
+        assertThat(index.findChangedLine("src/Main.java", 1, 20)).isEqualTo(11);
+        assertThat(index.findChangedLine("src/Main.java", 13, 40)).isEqualTo(-1);
+        assertThat(index.findChangedLine("src/Main.java", 13, 5)).isEqualTo(-1);
+        assertThat(index.findChangedLine("src/Other.java", 1, 100)).isEqualTo(-1);
+    }
+
+    private DiffIndex parse(final String diff) throws IOException {
+        return DiffIndex.parse(new BufferedReader(new StringReader(diff)));
+    }
+}
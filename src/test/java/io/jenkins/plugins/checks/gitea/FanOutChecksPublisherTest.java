@@ -0,0 +1,125 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.jenkins.plugins.checks.api.ChecksDetails;
+import io.jenkins.plugins.checks.api.ChecksPublisher;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class FanOutChecksPublisherTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldPublishToAllRepositoriesConcurrently() throws InterruptedException {
+        ChecksDetails details = new ChecksDetails.ChecksDetailsBuilder().build();
+        CountDownLatch started = new CountDownLatch(3);
+        List<ChecksPublisher> publishers = List.of(
+                new AwaitingPublisher(started), new AwaitingPublisher(started), new AwaitingPublisher(started));
+
+        new FanOutChecksPublisher(publishers, executor, () -> 0).publish(details);
+
+        assertThat(started.await(0, TimeUnit.SECONDS))
+                .as("all publishers run at the same time and are done when publish returns")
+                .isTrue();
+    }
+
+    @Test
+    void shouldPublishToOtherRepositoriesIfOnePublisherFails() {
+        ChecksDetails details = new ChecksDetails.ChecksDetailsBuilder().build();
+        ChecksPublisher first = mock(ChecksPublisher.class);
+        ChecksPublisher failing = mock(ChecksPublisher.class);
+        ChecksPublisher last = mock(ChecksPublisher.class);
+        doThrow(new IllegalStateException("Gitea is down")).when(failing).publish(details);
+
+        new FanOutChecksPublisher(List.of(first, failing, last), executor, () -> 0).publish(details);
+
+        verify(first).publish(details);
+        verify(failing).publish(details);
+        verify(last).publish(details);
+    }
+
+    @Test
+    void shouldWaitForOtherRepositoriesAtMostForPublishTimeout() throws InterruptedException {
+        ChecksDetails details = new ChecksDetails.ChecksDetailsBuilder().build();
+        CountDownLatch blocked = new CountDownLatch(2);
+        ChecksPublisher first = mock(ChecksPublisher.class);
+
+        long start = System.nanoTime();
+        new FanOutChecksPublisher(List.of(first, new AwaitingPublisher(blocked)), executor, () -> 100)
+                .publish(details);
+
+        assertThat(System.nanoTime() - start)
+                .as("publish returns while the other publisher is still blocked")
+                .isLessThan(TimeUnit.SECONDS.toNanos(5));
+        verify(first).publish(details);
+        blocked.countDown();
+        blocked.countDown();
+    }
+
+    @Test
+    void shouldPublishInCallingThreadIfQueueIsFull() {
+        ChecksDetails details = new ChecksDetails.ChecksDetailsBuilder().build();
+        ChecksPublisher first = mock(ChecksPublisher.class);
+        ChecksPublisher other = mock(ChecksPublisher.class);
+        ThreadPoolExecutor saturated = FanOutChecksPublisher.createExecutor(1, 1);
+        CountDownLatch busy = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            try {
+                busy.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        saturated.execute(blocking);
+        saturated.execute(blocking);
+        try {
+            new FanOutChecksPublisher(List.of(first, other), saturated, () -> 0).publish(details);
+
+            verify(other).publish(details);
+        } finally {
+            busy.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectEmptyListOfPublishers() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new FanOutChecksPublisher(List.of(), executor, () -> 0));
+    }
+
+    /**
+     * Blocks until all publishers have started, which only happens if they run concurrently.
+     */
+    private static final class AwaitingPublisher extends ChecksPublisher {
+        private final CountDownLatch started;
+
+        AwaitingPublisher(final CountDownLatch started) {
+            super();
+
+            this.started = started;
+        }
+
+        @Override
+        public void publish(final ChecksDetails details) {
+            started.countDown();
+            try {
+                assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
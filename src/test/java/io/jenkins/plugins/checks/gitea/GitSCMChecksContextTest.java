@@ -1,12 +1,26 @@
 package io.jenkins.plugins.checks.gitea;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
+import hudson.EnvVars;
+import hudson.model.Job;
 import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.plugins.git.GitSCM;
+import hudson.plugins.git.Revision;
+import hudson.plugins.git.UserRemoteConfig;
+import hudson.plugins.git.util.BuildData;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.eclipse.jgit.lib.ObjectId;
 import org.junit.jupiter.api.Test;
 
 class GitSCMChecksContextTest {
+    private static final String FIRST_SHA = "1111111111111111111111111111111111111111";
+    private static final String SECOND_SHA = "2222222222222222222222222222222222222222";
 
     @Test
     void shouldGetRepository() {
@@ -21,4 +35,98 @@ class GitSCMChecksContextTest {
                     .isEqualTo("jenkinsci/gitea-checks-plugin");
         }
     }
+
+    @Test
+    void shouldResolveHeadShaFromBuildDataWithoutComputingEnvironment() throws IOException, InterruptedException {
+        Run<?, ?> run = mockRun();
+        BuildData buildData = createBuildData(FIRST_SHA, "https://gitea.example.com/owner/repo.git");
+        when(run.getActions(BuildData.class)).thenReturn(Collections.singletonList(buildData));
+
+        GitSCMChecksContext context = new GitSCMChecksContext(run, "", mock(SCMFacade.class));
+        assertThat(context.getHeadSha()).isEqualTo(FIRST_SHA);
+        assertThat(context.getHeadSha()).isEqualTo(FIRST_SHA);
+
+        verify(run, never()).getEnvironment(any());
+        verify(buildData).getLastBuiltRevision();
+    }
+
+    @Test
+    void shouldChooseBuildDataOfPublishedRepository() {
+        Run<?, ?> run = mockRun();
+        SCMFacade scmFacade = mock(SCMFacade.class);
+        GitSCM gitSCM = mock(GitSCM.class);
+        UserRemoteConfig config = mock(UserRemoteConfig.class);
+        when(scmFacade.findGitSCM(run)).thenReturn(Optional.of(gitSCM));
+        when(scmFacade.getUserRemoteConfig(gitSCM)).thenReturn(config);
+        when(config.getUrl()).thenReturn("https://gitea.example.com/owner/repo.git");
+
+        BuildData library = createBuildData(FIRST_SHA, "https://gitea.example.com/owner/library.git");
+        BuildData repository = createBuildData(SECOND_SHA, "https://gitea.example.com/owner/repo.git");
+        when(run.getActions(BuildData.class)).thenReturn(Arrays.asList(library, repository));
+
+        assertThat(new GitSCMChecksContext(run, "", scmFacade).getHeadSha()).isEqualTo(SECOND_SHA);
+    }
+
+    @Test
+    void shouldChooseBuildDataOfExplicitRemote() {
+        Run<?, ?> run = mockRun();
+        SCMFacade scmFacade = mock(SCMFacade.class);
+        UserRemoteConfig library = new UserRemoteConfig("https://gitea.example.com/owner/library.git", null, null, "1");
+
+        when(run.getActions(BuildData.class))
+                .thenReturn(Arrays.asList(
+                        createBuildData(FIRST_SHA, "https://gitea.example.com/owner/library.git"),
+                        createBuildData(SECOND_SHA, "https://gitea.example.com/owner/repo.git")));
+
+        GitSCMChecksContext context = new GitSCMChecksContext(run, "", scmFacade, library);
+        assertThat(context.getHeadSha()).isEqualTo(FIRST_SHA);
+        assertThat(context.getRepository()).isEqualTo("owner/library");
+        assertThat(context.getGiteaServerUrl()).isEqualTo("https://gitea.example.com");
+        assertThat(context.getCredentialsId()).isEqualTo("1");
+
+        verifyNoInteractions(scmFacade);
+    }
+
+    @Test
+    void shouldNotUseGitCommitEnvironmentForRemoteThatHasNotBeenCheckedOut() throws IOException, InterruptedException {
+        Run<?, ?> run = mockRun();
+        UserRemoteConfig remote = new UserRemoteConfig("https://gitea.example.com/owner/other.git", null, null, "1");
+
+        when(run.getActions(BuildData.class))
+                .thenReturn(Arrays.asList(
+                        createBuildData(FIRST_SHA, "https://gitea.example.com/owner/library.git"),
+                        createBuildData(SECOND_SHA, "https://gitea.example.com/owner/repo.git")));
+
+        assertThat(new GitSCMChecksContext(run, "", mock(SCMFacade.class), remote).getHeadSha())
+                .isEmpty();
+        verify(run, never()).getEnvironment(any());
+    }
+
+    @Test
+    void shouldFallBackToGitCommitEnvironment() throws IOException, InterruptedException {
+        Run<?, ?> run = mockRun();
+        EnvVars envVars = mock(EnvVars.class);
+        when(run.getEnvironment(TaskListener.NULL)).thenReturn(envVars);
+        when(envVars.get("GIT_COMMIT")).thenReturn(FIRST_SHA);
+
+        assertThat(new GitSCMChecksContext(run, "", mock(SCMFacade.class)).getHeadSha())
+                .isEqualTo(FIRST_SHA);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Run<?, ?> mockRun() {
+        Run<?, ?> run = mock(Run.class);
+        Job<?, ?> job = mock(Job.class);
+        doReturn(job).when(run).getParent();
+        return run;
+    }
+
+    private BuildData createBuildData(final String sha, final String remoteUrl) {
+        BuildData buildData = mock(BuildData.class);
+        Revision revision = mock(Revision.class);
+        when(revision.getSha1()).thenReturn(ObjectId.fromString(sha));
+        when(buildData.getLastBuiltRevision()).thenReturn(revision);
+        when(buildData.getRemoteUrls()).thenReturn(Collections.singleton(remoteUrl));
+        return buildData;
+    }
 }
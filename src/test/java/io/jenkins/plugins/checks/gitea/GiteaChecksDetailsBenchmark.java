@@ -0,0 +1,58 @@
+package io.jenkins.plugins.checks.gitea;
+
+import io.jenkins.plugins.checks.api.ChecksConclusion;
+import io.jenkins.plugins.checks.api.ChecksDetails;
+import io.jenkins.plugins.checks.api.ChecksDetails.ChecksDetailsBuilder;
+import io.jenkins.plugins.checks.api.ChecksOutput.ChecksOutputBuilder;
+import io.jenkins.plugins.checks.api.ChecksStatus;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures mapping {@link ChecksDetails} to the properties of a Gitea commit status, for summaries that fit into the
+ * description of a status and for large summaries of several megabytes, like the reports of static analysis tools,
+ * that need to be truncated and converted to plain text.
+ */
+@JmhBenchmark
+@State(Scope.Benchmark)
+public class GiteaChecksDetailsBenchmark {
+    private static final String MARKDOWN =
+            "Some *Markdown* text with a [link](https://ci.jenkins.io/) and <b>HTML</b> &amp; a table:\n"
+                    + "| File | Issues |\n|:---|---:|\n| `src/main.c` | 2 |\n";
+
+    @Param({"100", "100000", "5000000"})
+    private int summaryLength;
+
+    private ChecksDetails details;
+
+    @Setup
+    public void setup() {
+        int repetitions = Math.max(1, summaryLength / MARKDOWN.length());
+        details = new ChecksDetailsBuilder()
+                .withName("Jenkins")
+                .withStatus(ChecksStatus.COMPLETED)
+                .withConclusion(ChecksConclusion.SUCCESS)
+                .withDetailsURL("https://ci.jenkins.io/job/gitea-checks-plugin/1/")
+                .withOutput(new ChecksOutputBuilder()
+                        .withTitle("Jenkins Check")
+                        .withSummary("# Summary\n" + StringUtils.repeat(MARKDOWN, repetitions))
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public void mapDetails(final Blackhole blackhole) {
+        GiteaChecksDetails giteaDetails = new GiteaChecksDetails(details);
+
+        blackhole.consume(giteaDetails.getContextString());
+        blackhole.consume(giteaDetails.getStatus());
+        blackhole.consume(giteaDetails.getDescription());
+        blackhole.consume(giteaDetails.getDetailsURL());
+    }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.*;
 import io.jenkins.plugins.checks.api.ChecksConclusion;
 import io.jenkins.plugins.checks.api.ChecksDetails;
 import io.jenkins.plugins.checks.api.ChecksDetails.ChecksDetailsBuilder;
+import io.jenkins.plugins.checks.api.ChecksOutput.ChecksOutputBuilder;
 import io.jenkins.plugins.checks.api.ChecksStatus;
 import org.apache.commons.lang3.StringUtils;
 import org.jenkinsci.plugin.gitea.client.api.GiteaCommitState;
@@ -27,6 +28,38 @@ class GiteaChecksDetailsTest {
         assertThat(giteaDetails.getDetailsURL()).isPresent().hasValue("https://ci.jenkins.io");
     }
 
+    @Test
+    void shouldReturnBeginningOfSummaryAsPlainTextDescription() {
+        ChecksDetails details = new ChecksDetailsBuilder()
+                .withName("checks")
+                .withOutput(new ChecksOutputBuilder()
+                        .withTitle("Warnings")
+                        .withSummary("## Static Analysis\n" + StringUtils.repeat("| *a.c* | 2 |\n", 1_000_000))
+                        .build())
+                .build();
+
+        assertThat(new GiteaChecksDetails(details).getDescription())
+                .hasValueSatisfying(description -> assertThat(description)
+                        .hasSize(256)
+                        .startsWith("Static Analysis a.c 2 a.c 2")
+                        .endsWith("\u2026"));
+    }
+
+    @Test
+    void shouldMarkDescriptionAsTruncatedOnlyIfSummaryIsLongerThanWindow() {
+        String passed = "All tests passed";
+
+        assertThat(createDetailsWithSummary(StringUtils.rightPad(passed, 4050)).getDescription())
+                .as("a summary of 4050 characters fits into the window")
+                .hasValue(passed);
+        assertThat(createDetailsWithSummary(StringUtils.rightPad(passed, 4096)).getDescription())
+                .hasValue(passed);
+        assertThat(createDetailsWithSummary(StringUtils.rightPad(passed, 4097)).getDescription())
+                .hasValue(passed + "\u2026");
+        assertThat(createDetailsWithSummary(StringUtils.rightPad(passed, 100_000)).getDescription())
+                .hasValue(passed + "\u2026");
+    }
+
     @Test
     void shouldReturnEmptyWhenDetailsURLIsBlank() {
         GiteaChecksDetails giteaChecksDetails = new GiteaChecksDetails(
@@ -42,4 +75,11 @@ class GiteaChecksDetailsTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("The details url is not http or https scheme: ci.jenkins.io");
     }
+
+    private GiteaChecksDetails createDetailsWithSummary(final String summary) {
+        return new GiteaChecksDetails(new ChecksDetailsBuilder()
+                .withName("checks")
+                .withOutput(new ChecksOutputBuilder().withSummary(summary).build())
+                .build());
+    }
 }
@@ -0,0 +1,73 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import io.jenkins.plugins.checks.gitea.GiteaChecksMetrics.Recorder;
+import io.jenkins.plugins.checks.gitea.GiteaConnectionPool.ConnectionCallback;
+import java.io.IOException;
+import org.jenkinsci.plugin.gitea.client.api.GiteaConnection;
+import org.junit.jupiter.api.Test;
+
+class GiteaChecksMetricsTest {
+
+    @Test
+    void shouldRecordPublishedStatus() throws IOException, InterruptedException {
+        Recorder recorder = mock(Recorder.class);
+        GiteaConnectionPool pool = mock(GiteaConnectionPool.class);
+        GiteaConnection connection = mock(GiteaConnection.class);
+        when(pool.execute(anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(2).apply(connection));
+        when(pool.request(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<TimeLimiter.Call<?>>getArgument(2).call());
+
+        PendingCommitStatus status = CommitStatusDispatcherTest.createStatus("Jenkins");
+        new CommitStatusSender(
+                        pool,
+                        new PublishedStatusCache(10),
+                        createRateLimiter(),
+                        createCircuitBreaker(),
+                        new GiteaChecksMetrics(recorder))
+                .send(status);
+
+        verify(connection).createCommitStatus("jenkinsci", "gitea-checks-plugin", "a1b2c3", status.getStatus());
+        verify(recorder).count("gitea-checks.publish.success.pending");
+        verify(recorder).time(eq(GiteaChecksMetrics.HTTP_DURATION), longThat(duration -> duration >= 0));
+        verify(recorder).time(eq(GiteaChecksMetrics.PUBLISH_DURATION), longThat(duration -> duration >= 0));
+        verifyNoMoreInteractions(recorder);
+    }
+
+    @Test
+    void shouldRecordFailedStatus() throws IOException, InterruptedException {
+        Recorder recorder = mock(Recorder.class);
+        GiteaConnectionPool pool = mock(GiteaConnectionPool.class);
+        when(pool.execute(anyString(), any(), any())).thenThrow(new IOException("Bad Gateway"));
+
+        PublishedStatusCache publishedStatuses = new PublishedStatusCache(10);
+        PendingCommitStatus status = CommitStatusDispatcherTest.createStatus("Jenkins");
+        CommitStatusSender sender = new CommitStatusSender(
+                pool, publishedStatuses, createRateLimiter(), createCircuitBreaker(), new GiteaChecksMetrics(recorder));
+
+        assertThatThrownBy(() -> sender.send(status)).isInstanceOf(IOException.class);
+
+        verify(recorder).count("gitea-checks.publish.failure.pending");
+        verifyNoMoreInteractions(recorder);
+        assertThat(publishedStatuses.isPublished(status)).isFalse();
+    }
+
+    @Test
+    void shouldNotRecordWithoutJenkins() {
+        GiteaChecksMetrics metrics = new GiteaChecksMetrics(null);
+
+        assertThatNoException().isThrownBy(() -> metrics.recordContextResolution(1));
+    }
+
+    private RateLimiter createRateLimiter() {
+        return new RateLimiter(() -> 0, () -> 1, System::nanoTime);
+    }
+
+    private CircuitBreaker createCircuitBreaker() {
+        return new CircuitBreaker(() -> 0, () -> 1, System::nanoTime);
+    }
+}
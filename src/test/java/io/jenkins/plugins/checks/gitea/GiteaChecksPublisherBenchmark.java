@@ -0,0 +1,144 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import edu.hm.hafner.util.FilteredLog;
+import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.checks.api.ChecksConclusion;
+import io.jenkins.plugins.checks.api.ChecksDetails.ChecksDetailsBuilder;
+import io.jenkins.plugins.checks.api.ChecksOutput.ChecksOutputBuilder;
+import io.jenkins.plugins.checks.api.ChecksStatus;
+import io.jenkins.plugins.util.PluginLogger;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.benchmark.jmh.JmhBenchmarkState;
+import org.jenkinsci.plugin.gitea.credentials.PersonalAccessTokenImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures publishing a commit status end to end, from the {@link io.jenkins.plugins.checks.api.ChecksDetails} to
+ * the response of a local WireMock server that stubs the Gitea API.
+ */
+@JmhBenchmark
+public class GiteaChecksPublisherBenchmark {
+    private static final String SHA = "18c8e2fd86e7aa3748e279c14a00dc3f0b963e7f";
+
+    /**
+     * Starts Jenkins and the stubbed Gitea server.
+     */
+    public static class PublisherState extends JmhBenchmarkState {
+        private final AtomicLong builds = new AtomicLong();
+
+        private WireMockServer gitea;
+        private GiteaChecksPublisher publisher;
+
+        @Override
+        public void setup() throws Exception {
+            gitea = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+            gitea.start();
+            gitea.stubFor(get(urlPathEqualTo("/api/v1/version"))
+                    .willReturn(okJson("{\"version\":\"1.21.0\"}")));
+            gitea.stubFor(post(urlPathEqualTo("/api/v1/repos/jenkinsci/gitea-checks-plugin/statuses/" + SHA))
+                    .willReturn(aResponse()
+                            .withStatus(201)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("{\"id\":1,\"state\":\"success\",\"context\":\"Jenkins\"}")));
+
+            FreeStyleProject job = getJenkins().createProject(FreeStyleProject.class, "gitea-checks-plugin");
+            StandardCredentials credentials =
+                    new PersonalAccessTokenImpl(CredentialsScope.GLOBAL, "gitea-token", "", "token");
+            publisher = new GiteaChecksPublisher(
+                    new StaticChecksContext(job, credentials),
+                    new PluginLogger(TaskListener.NULL.getLogger(), "Gitea Checks"),
+                    gitea.baseUrl());
+        }
+
+        @Override
+        public void tearDown() {
+            gitea.stop();
+        }
+    }
+
+    /**
+     * Publishes a status with a new description each time, so that no publication is skipped as unchanged.
+     */
+    @Benchmark
+    public void publish(final PublisherState state) {
+        state.publisher.publish(new ChecksDetailsBuilder()
+                .withName("Jenkins")
+                .withStatus(ChecksStatus.COMPLETED)
+                .withConclusion(ChecksConclusion.SUCCESS)
+                .withDetailsURL("https://ci.jenkins.io/job/gitea-checks-plugin/1/")
+                .withOutput(new ChecksOutputBuilder()
+                        .withTitle("Jenkins Check")
+                        .withSummary("Build #" + state.builds.incrementAndGet() + " succeeded")
+                        .build())
+                .build());
+    }
+
+    /**
+     * A context with fixed properties, so that the benchmark does not depend on an SCM.
+     */
+    private static class StaticChecksContext extends GiteaChecksContext {
+        private final StandardCredentials credentials;
+
+        StaticChecksContext(final Job<?, ?> job, final StandardCredentials credentials) {
+            super(job, "https://ci.jenkins.io/job/gitea-checks-plugin/1/", new SCMFacade());
+
+            this.credentials = credentials;
+        }
+
+        @Override
+        public String getHeadSha() {
+            return SHA;
+        }
+
+        @Override
+        public String getRepoOwner() {
+            return "jenkinsci";
+        }
+
+        @Override
+        public String getRepo() {
+            return "gitea-checks-plugin";
+        }
+
+        @Override
+        public String getGiteaServerUrl() {
+            return "";
+        }
+
+        @Override
+        public String getRepository() {
+            return "jenkinsci/gitea-checks-plugin";
+        }
+
+        @Override
+        public boolean isValid(final FilteredLog logger) {
+            return true;
+        }
+
+        @Override
+        protected String getCredentialsId() {
+            return credentials.getId();
+        }
+
+        @Override
+        public StandardCredentials getCredentials() {
+            return credentials;
+        }
+
+        @Override
+        protected Optional<Run<?, ?>> getRun() {
+            return Optional.empty();
+        }
+    }
+}
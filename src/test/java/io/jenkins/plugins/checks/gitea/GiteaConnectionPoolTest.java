@@ -0,0 +1,170 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jenkinsci.plugin.gitea.client.api.GiteaConnection;
+import org.junit.jupiter.api.Test;
+
+class GiteaConnectionPoolTest {
+    private static final String SERVER_URL = "https://gitea.example.com";
+
+    @Test
+    void shouldReuseConnectionForSameServerAndCredentials() throws IOException, InterruptedException {
+        GiteaConnectionPool.ConnectionFactory factory = createFactory();
+        GiteaConnectionPool pool = new GiteaConnectionPool(factory, () -> 2, () -> 60, System::nanoTime);
+        StandardCredentials credentials = createCredentials("1");
+
+        GiteaConnection first = pool.execute(SERVER_URL, credentials, connection -> connection);
+        GiteaConnection second = pool.execute(SERVER_URL, credentials, connection -> connection);
+
+        assertThat(second).isSameAs(first);
+        verify(factory, times(1)).open(SERVER_URL, credentials);
+    }
+
+    @Test
+    void shouldOpenSeparateConnectionsForDifferentCredentials() throws IOException, InterruptedException {
+        GiteaConnectionPool.ConnectionFactory factory = createFactory();
+        GiteaConnectionPool pool = new GiteaConnectionPool(factory, () -> 2, () -> 60, System::nanoTime);
+
+        GiteaConnection first = pool.execute(SERVER_URL, createCredentials("1"), connection -> connection);
+        GiteaConnection second = pool.execute(SERVER_URL, createCredentials("2"), connection -> connection);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(pool.getIdleConnectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCloseConnectionWhenCallbackFails() throws IOException, InterruptedException {
+        GiteaConnectionPool.ConnectionFactory factory = createFactory();
+        GiteaConnectionPool pool = new GiteaConnectionPool(factory, () -> 2, () -> 60, System::nanoTime);
+        StandardCredentials credentials = createCredentials("1");
+        GiteaConnection[] leased = new GiteaConnection[1];
+
+        assertThatThrownBy(() -> pool.execute(SERVER_URL, credentials, connection -> {
+                    leased[0] = connection;
+                    throw new IOException("Bad Gateway");
+                }))
+                .isInstanceOf(IOException.class);
+
+        verify(leased[0]).close();
+        assertThat(pool.getIdleConnectionCount()).isZero();
+    }
+
+    @Test
+    void shouldEvictIdleConnectionsAfterTimeout() throws IOException, InterruptedException {
+        AtomicLong clock = new AtomicLong();
+        GiteaConnectionPool pool = new GiteaConnectionPool(createFactory(), () -> 2, () -> 60, clock::get);
+
+        GiteaConnection connection = pool.execute(SERVER_URL, createCredentials("1"), leased -> leased);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        pool.evictIdleConnections();
+        assertThat(pool.getIdleConnectionCount()).isEqualTo(1);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        pool.evictIdleConnections();
+        assertThat(pool.getIdleConnectionCount()).isZero();
+        verify(connection).close();
+    }
+
+    @Test
+    void shouldEvictOnlyConnectionsOfChangedCredentials() throws IOException, InterruptedException {
+        GiteaConnectionPool pool = new GiteaConnectionPool(createFactory(), () -> 2, () -> 60, System::nanoTime);
+        StandardCredentials changed = createCredentials("1");
+        StandardCredentials unchanged = createCredentials("2");
+
+        GiteaConnection evicted = pool.execute(SERVER_URL, changed, leased -> leased);
+        GiteaConnection kept = pool.execute(SERVER_URL, unchanged, leased -> leased);
+        GiteaConnection inUse = pool.execute(SERVER_URL, changed, leased -> {
+            pool.evict(Set.of("1"));
+            return leased;
+        });
+
+        assertThat(inUse).as("the connection is in use while evicted").isSameAs(evicted);
+        verify(evicted).close();
+        assertThat(pool.execute(SERVER_URL, changed, leased -> leased)).isNotSameAs(evicted);
+        assertThat(pool.execute(SERVER_URL, unchanged, leased -> leased)).isSameAs(kept);
+        verify(kept, never()).close();
+    }
+
+    @Test
+    void shouldNotKeepConnectionsWhenIdleTimeoutIsZero() throws IOException, InterruptedException {
+        GiteaConnectionPool pool = new GiteaConnectionPool(createFactory(), () -> 2, () -> 0, System::nanoTime);
+
+        GiteaConnection connection = pool.execute(SERVER_URL, createCredentials("1"), leased -> leased);
+
+        assertThat(pool.getIdleConnectionCount()).isZero();
+        verify(connection).close();
+    }
+
+    @Test
+    void shouldCloseConnectionWhenRequestTimesOut() throws IOException, InterruptedException {
+        GiteaConnectionPool pool = new GiteaConnectionPool(
+                createFactory(), () -> 2, () -> 60, System::nanoTime, serverUrl -> 0, serverUrl -> 1);
+        GiteaConnection[] leased = new GiteaConnection[1];
+
+        assertThatThrownBy(() -> pool.execute(SERVER_URL, createCredentials("1"), connection -> {
+                    leased[0] = connection;
+                    pool.request(SERVER_URL, "Request to " + SERVER_URL, () -> "first");
+                    return pool.request(SERVER_URL, "Request to " + SERVER_URL, () -> {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                        return "second";
+                    });
+                }))
+                .isInstanceOf(SocketTimeoutException.class)
+                .hasMessageContaining(SERVER_URL);
+
+        verify(leased[0]).close();
+        assertThat(pool.getIdleConnectionCount()).isZero();
+    }
+
+    @Test
+    void shouldWaitForFreeConnectionAtMostForConnectTimeout() throws IOException, InterruptedException {
+        GiteaConnectionPool pool = new GiteaConnectionPool(
+                createFactory(), () -> 1, () -> 60, System::nanoTime, serverUrl -> 1, serverUrl -> 0);
+        CountDownLatch leased = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StandardCredentials credentials = createCredentials("1");
+        Thread holder = new Thread(() -> {
+            try {
+                pool.execute(SERVER_URL, credentials, connection -> {
+                    leased.countDown();
+                    return release.await(10, TimeUnit.SECONDS);
+                });
+            } catch (IOException | InterruptedException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        holder.start();
+        try {
+            assertThat(leased.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> pool.execute(SERVER_URL, createCredentials("2"), connection -> connection))
+                    .isInstanceOf(TimeLimiter.SaturatedException.class)
+                    .hasMessageContaining(SERVER_URL);
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private GiteaConnectionPool.ConnectionFactory createFactory() throws IOException, InterruptedException {
+        GiteaConnectionPool.ConnectionFactory factory = mock(GiteaConnectionPool.ConnectionFactory.class);
+        when(factory.open(anyString(), any())).thenAnswer(invocation -> mock(GiteaConnection.class));
+        return factory;
+    }
+
+    private StandardCredentials createCredentials(final String id) {
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        when(credentials.getId()).thenReturn(id);
+        return credentials;
+    }
+}
@@ -0,0 +1,81 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.mockito.Mockito.*;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import edu.hm.hafner.util.FilteredLog;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import java.util.Optional;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.jenkinsci.plugin.gitea.GiteaSCMSource;
+import org.jenkinsci.plugin.gitea.PullRequestSCMRevision;
+import org.jenkinsci.plugins.displayurlapi.DisplayURLProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the validation of a {@link GiteaSCMSourceChecksContext} and the creation of publishers by the
+ * {@link GiteaPublisherFactory}. The SCM is provided by a stubbed {@link SCMFacade}, so the benchmark measures the
+ * overhead of the plugin itself rather than the lookup in Jenkins.
+ */
+@JmhBenchmark
+@State(Scope.Benchmark)
+public class GiteaPublisherFactoryBenchmark {
+    private static final String RUN_URL = "https://ci.jenkins.io/job/gitea-checks-plugin/1/";
+
+    private Run<?, ?> run;
+    private SCMFacade scmFacade;
+    private GiteaPublisherFactory factory;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        run = mock(Run.class, withSettings().stubOnly());
+        Job<?, ?> job = mock(Job.class, withSettings().stubOnly());
+        GiteaSCMSource source = mock(GiteaSCMSource.class, withSettings().stubOnly());
+        StandardCredentials credentials = mock(StandardCredentials.class, withSettings().stubOnly());
+        PullRequestSCMRevision revision = mock(PullRequestSCMRevision.class, withSettings().stubOnly());
+        DisplayURLProvider urlProvider = mock(DisplayURLProvider.class, withSettings().stubOnly());
+        scmFacade = mock(SCMFacade.class, withSettings().stubOnly());
+
+        doReturn(job).when(run).getParent();
+        doReturn(run).when(job).getLastBuild();
+        when(job.getFullName()).thenReturn("gitea-checks-plugin/main");
+        when(source.getCredentialsId()).thenReturn("credentials id");
+        when(source.getRepoOwner()).thenReturn("jenkinsci");
+        when(source.getRepository()).thenReturn("gitea-checks-plugin");
+        when(source.getServerUrl()).thenReturn("https://gitea.example.com");
+        when(scmFacade.findGiteaSCMSource(job)).thenReturn(Optional.of(source));
+        when(scmFacade.findGiteaAppCredentials(job, "credentials id")).thenReturn(Optional.of(credentials));
+        when(scmFacade.findRevision(source, run)).thenReturn(Optional.of(revision));
+        when(scmFacade.findHash(revision)).thenReturn(Optional.of("18c8e2fd86e7aa3748e279c14a00dc3f0b963e7f"));
+        when(urlProvider.getRunURL(run)).thenReturn(RUN_URL);
+
+        factory = new GiteaPublisherFactory(scmFacade, urlProvider);
+    }
+
+    /**
+     * Validates a new context, as done for the first publication of a run.
+     */
+    @Benchmark
+    public void validateContext(final Blackhole blackhole) {
+        GiteaChecksContext context = GiteaSCMSourceChecksContext.fromRun(run, RUN_URL, scmFacade);
+
+        blackhole.consume(context.isValid(new FilteredLog("Benchmark")));
+        blackhole.consume(context.getHeadSha());
+        blackhole.consume(context.getRepository());
+    }
+
+    /**
+     * Creates a publisher for a run whose context has already been validated.
+     */
+    @Benchmark
+    public void createPublisher(final Blackhole blackhole) {
+        blackhole.consume(factory.createPublisher(run, TaskListener.NULL));
+    }
+}
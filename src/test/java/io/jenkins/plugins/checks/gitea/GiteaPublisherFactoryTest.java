@@ -9,16 +9,24 @@ import hudson.model.Job;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.plugins.git.GitSCM;
+import hudson.plugins.git.Revision;
 import hudson.plugins.git.UserRemoteConfig;
+import hudson.plugins.git.util.BuildData;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.mixin.ChangeRequestSCMHead;
+import org.eclipse.jgit.lib.ObjectId;
 import org.jenkinsci.plugin.gitea.GiteaSCMSource;
 import org.jenkinsci.plugin.gitea.PullRequestSCMRevision;
 import org.jenkinsci.plugins.displayurlapi.DisplayURLProvider;
 import org.junit.jupiter.api.Test;
 
 class GiteaPublisherFactoryTest {
+    private static final String FIRST_SHA = "1111111111111111111111111111111111111111";
+    private static final String SECOND_SHA = "2222222222222222222222222222222222222222";
 
     @Test
     void shouldCreateGiteaChecksPublisherFromRunForProjectWithValidGiteaSCMSource() {
@@ -41,6 +49,73 @@ class GiteaPublisherFactoryTest {
         assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
     }
 
+    @Test
+    void shouldReuseValidatedContextForSubsequentPublishersOfRun() {
+        var run = mock(Run.class);
+        var job = mock(Job.class);
+        GiteaSCMSource source = mock(GiteaSCMSource.class);
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        PullRequestSCMRevision revision = mock(PullRequestSCMRevision.class);
+        SCMFacade scmFacade = mock(SCMFacade.class);
+
+        when(run.getParent()).thenReturn(job);
+        when(job.getLastBuild()).thenReturn(run);
+        when(scmFacade.findGiteaSCMSource(job)).thenReturn(Optional.of(source));
+        when(source.getCredentialsId()).thenReturn("credentials id");
+        when(scmFacade.findGiteaAppCredentials(job, "credentials id")).thenReturn(Optional.of(credentials));
+        when(scmFacade.findRevision(source, run)).thenReturn(Optional.of(revision));
+        when(scmFacade.findHash(revision)).thenReturn(Optional.of("a1b2c3"));
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
+
+        verify(scmFacade).findGiteaSCMSource(job);
+        verify(scmFacade).findRevision(source, run);
+        verify(scmFacade).findGitSCMs(run);
+
+        when(scmFacade.findGiteaAppCredentials(job, "credentials id")).thenReturn(Optional.empty());
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).isNotPresent();
+    }
+
+    @Test
+    void shouldPublishToPullRequestWithRememberedContext() {
+        var run = mock(Run.class);
+        var job = mock(Job.class);
+        GiteaSCMSource source = mock(GiteaSCMSource.class);
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        PullRequestSCMRevision revision = mock(PullRequestSCMRevision.class);
+        SCMHead head = mock(SCMHead.class, withSettings().extraInterfaces(ChangeRequestSCMHead.class));
+        SCMFacade scmFacade = mock(SCMFacade.class);
+
+        when(run.getParent()).thenReturn(job);
+        when(job.getLastBuild()).thenReturn(run);
+        when(scmFacade.findGiteaSCMSource(job)).thenReturn(Optional.of(source));
+        when(source.getServerUrl()).thenReturn("https://gitea.example.com");
+        when(source.getRepoOwner()).thenReturn("owner");
+        when(source.getRepository()).thenReturn("application");
+        when(source.getCredentialsId()).thenReturn("credentials id");
+        when(scmFacade.findGiteaAppCredentials(job, "credentials id")).thenReturn(Optional.of(credentials));
+        when(scmFacade.findRevision(source, run)).thenReturn(Optional.of(revision));
+        when(scmFacade.findHash(revision)).thenReturn(Optional.of(FIRST_SHA));
+        when(scmFacade.findHead(job)).thenReturn(Optional.of(head));
+        when(((ChangeRequestSCMHead) head).getId()).thenReturn("42");
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
+        for (int publication = 0; publication < 2; publication++) {
+            assertThat(factory.createPublisher(run, TaskListener.NULL))
+                    .containsInstanceOf(GiteaChecksPublisher.class)
+                    .get()
+                    .satisfies(publisher -> assertThat(((GiteaChecksPublisher) publisher).findPullRequest())
+                            .hasValueSatisfying(pullRequest -> {
+                                assertThat(pullRequest.getNumber()).isEqualTo(42);
+                                assertThat(pullRequest.getSha()).isEqualTo(FIRST_SHA);
+                            }));
+        }
+
+        verify(scmFacade).findRevision(source, run);
+    }
+
     @Test
     void shouldReturnGiteaChecksPublisherFromJobProjectWithValidGiteaSCMSource() {
         var run = mock(Run.class);
@@ -77,17 +152,188 @@ class GiteaPublisherFactoryTest {
         when(run.getParent()).thenReturn(job);
         when(run.getEnvironment(TaskListener.NULL)).thenReturn(envVars);
         when(envVars.get("GIT_COMMIT")).thenReturn("a1b2c3");
-        when(scmFacade.getScm(job)).thenReturn(gitSCM);
-        when(scmFacade.findGitSCM(run)).thenReturn(Optional.of(gitSCM));
-        when(scmFacade.getUserRemoteConfig(gitSCM)).thenReturn(config);
+        when(scmFacade.findGitSCMs(run)).thenReturn(List.of(gitSCM));
+        when(scmFacade.getUserRemoteConfigs(gitSCM)).thenReturn(List.of(config));
         when(config.getCredentialsId()).thenReturn("1");
         when(scmFacade.findGiteaAppCredentials(job, "1")).thenReturn(Optional.of(credentials));
-        when(config.getUrl()).thenReturn("https://github.com/jenkinsci/gitea-checks-plugin");
+        when(config.getUrl()).thenReturn("https://gitea.example.com/jenkinsci/gitea-checks-plugin");
+        when(scmFacade.findGiteaServerUrls()).thenReturn(List.of("https://gitea.example.com/"));
 
         GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
         assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
     }
 
+    @Test
+    void shouldCreateFanOutPublisherForPipelineWithSeveralGiteaRepositories() {
+        var job = mock(Job.class);
+        var run = mock(Run.class);
+        GitSCM application = mock(GitSCM.class);
+        GitSCM library = mock(GitSCM.class);
+        SCMFacade scmFacade = mock(SCMFacade.class);
+
+        when(run.getParent()).thenReturn(job);
+        when(run.getActions(BuildData.class))
+                .thenReturn(List.of(
+                        createBuildData("https://gitea.example.com/owner/application.git", FIRST_SHA),
+                        createBuildData("https://gitea.example.com/owner/library.git", SECOND_SHA)));
+        when(scmFacade.findGitSCMs(run)).thenReturn(List.of(application, library));
+        when(scmFacade.findGiteaServerUrls()).thenReturn(List.of("https://gitea.example.com"));
+        when(scmFacade.getUserRemoteConfigs(application))
+                .thenReturn(List.of(createRemote("https://gitea.example.com/owner/application.git")));
+        when(scmFacade.getUserRemoteConfigs(library))
+                .thenReturn(List.of(
+                        createRemote("https://gitea.example.com/owner/library.git"),
+                        createRemote("https://gitea.example.com/owner/not-checked-out.git")));
+        when(scmFacade.findGiteaAppCredentials(job, "1")).thenReturn(Optional.of(mock(StandardCredentials.class)));
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(FanOutChecksPublisher.class);
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(FanOutChecksPublisher.class);
+
+        verify(scmFacade).findGitSCMs(run);
+    }
+
+    @Test
+    void shouldResolveContextsAgainAfterPipelineCheckedOutAnotherRepository() {
+        var job = mock(Job.class);
+        var run = mock(Run.class);
+        GitSCM application = mock(GitSCM.class);
+        GitSCM library = mock(GitSCM.class);
+        SCMFacade scmFacade = mock(SCMFacade.class);
+        BuildData applicationCheckout = createBuildData("https://gitea.example.com/owner/application.git", FIRST_SHA);
+
+        when(run.getParent()).thenReturn(job);
+        when(run.getActions(BuildData.class)).thenReturn(List.of(applicationCheckout));
+        when(scmFacade.findGitSCMs(run)).thenReturn(List.of(application));
+        when(scmFacade.findGiteaServerUrls()).thenReturn(List.of("https://gitea.example.com"));
+        when(scmFacade.getUserRemoteConfigs(application))
+                .thenReturn(List.of(createRemote("https://gitea.example.com/owner/application.git")));
+        when(scmFacade.getUserRemoteConfigs(library))
+                .thenReturn(List.of(createRemote("https://gitea.example.com/owner/library.git")));
+        when(scmFacade.findGiteaAppCredentials(job, "1")).thenReturn(Optional.of(mock(StandardCredentials.class)));
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
+        verify(scmFacade).findGitSCMs(run);
+
+        when(run.getActions(BuildData.class))
+                .thenReturn(List.of(
+                        applicationCheckout,
+                        createBuildData("https://gitea.example.com/owner/library.git", SECOND_SHA)));
+        when(scmFacade.findGitSCMs(run)).thenReturn(List.of(application, library));
+
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(FanOutChecksPublisher.class);
+        verify(scmFacade, times(2)).findGitSCMs(run);
+    }
+
+    @Test
+    void shouldPublishOnlyOnceToRepositoryOfGiteaSCMSourceThatIsCheckedOutWithGit() {
+        var run = mock(Run.class);
+        var job = mock(Job.class);
+        GiteaSCMSource source = mock(GiteaSCMSource.class);
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        PullRequestSCMRevision revision = mock(PullRequestSCMRevision.class);
+        GitSCM gitSCM = mock(GitSCM.class);
+        SCMFacade scmFacade = mock(SCMFacade.class);
+
+        when(run.getParent()).thenReturn(job);
+        when(job.getLastBuild()).thenReturn(run);
+        when(scmFacade.findGiteaSCMSource(job)).thenReturn(Optional.of(source));
+        when(source.getServerUrl()).thenReturn("https://Gitea.example.com:3000");
+        when(source.getRepoOwner()).thenReturn("owner");
+        when(source.getRepository()).thenReturn("application");
+        when(source.getCredentialsId()).thenReturn("1");
+        when(scmFacade.findGiteaAppCredentials(job, "1")).thenReturn(Optional.of(credentials));
+        when(scmFacade.findRevision(source, run)).thenReturn(Optional.of(revision));
+        when(scmFacade.findHash(revision)).thenReturn(Optional.of(FIRST_SHA));
+        when(run.getActions(BuildData.class))
+                .thenReturn(List.of(createBuildData("https://gitea.example.com/owner/application.git", SECOND_SHA)));
+        when(scmFacade.findGitSCMs(run)).thenReturn(List.of(gitSCM));
+        when(scmFacade.getUserRemoteConfigs(gitSCM))
+                .thenReturn(List.of(createRemote("https://gitea.example.com/owner/application.git")));
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
+    }
+
+    @Test
+    void shouldSkipRemotesThatAreNotHostedOnGiteaIfRunHasSeveralRemotes() {
+        var job = mock(Job.class);
+        var run = mock(Run.class);
+        GitSCM application = mock(GitSCM.class);
+        GitSCM gitHub = mock(GitSCM.class);
+        SCMFacade scmFacade = mock(SCMFacade.class);
+
+        String gitHubUrl = "https://github.com/jenkinsci/gitea-checks-plugin.git";
+        when(run.getParent()).thenReturn(job);
+        when(run.getActions(BuildData.class))
+                .thenReturn(List.of(
+                        createBuildData("https://gitea.example.com/owner/application.git", FIRST_SHA),
+                        createBuildData(gitHubUrl, SECOND_SHA)));
+        when(scmFacade.findGitSCMs(run)).thenReturn(List.of(application, gitHub));
+        when(scmFacade.findGiteaServerUrls()).thenReturn(List.of("https://gitea.example.com"));
+        when(scmFacade.getUserRemoteConfigs(application))
+                .thenReturn(List.of(createRemote("https://gitea.example.com/owner/application.git")));
+        when(scmFacade.getUserRemoteConfigs(gitHub))
+                .thenReturn(List.of(new UserRemoteConfig(gitHubUrl, null, null, "github")));
+        when(scmFacade.findGiteaAppCredentials(eq(job), any()))
+                .thenReturn(Optional.of(mock(StandardCredentials.class)));
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
+
+        verify(scmFacade, never()).findGiteaAppCredentials(job, "github");
+    }
+
+    @Test
+    void shouldUseSingleRemoteOfRunWithoutCheckingItsHost() {
+        var job = mock(Job.class);
+        var run = mock(Run.class);
+        GitSCM gitSCM = mock(GitSCM.class);
+        SCMFacade scmFacade = mock(SCMFacade.class);
+
+        String url = "https://git.example.com/owner/application.git";
+        when(run.getParent()).thenReturn(job);
+        when(run.getActions(BuildData.class)).thenReturn(List.of(createBuildData(url, FIRST_SHA)));
+        when(scmFacade.findGitSCMs(run)).thenReturn(List.of(gitSCM));
+        when(scmFacade.getUserRemoteConfigs(gitSCM)).thenReturn(List.of(createRemote(url)));
+        when(scmFacade.findGiteaAppCredentials(job, "1")).thenReturn(Optional.of(mock(StandardCredentials.class)));
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
+
+        verify(scmFacade, never()).findGiteaServerUrls();
+    }
+
+    @Test
+    void shouldNotValidateGitSCMOfSingleRepositoryIfGiteaSCMSourceIsValid() {
+        var run = mock(Run.class);
+        var job = mock(Job.class);
+        GiteaSCMSource source = mock(GiteaSCMSource.class);
+        PullRequestSCMRevision revision = mock(PullRequestSCMRevision.class);
+        GitSCM gitSCM = mock(GitSCM.class);
+        SCMFacade scmFacade = mock(SCMFacade.class);
+
+        when(run.getParent()).thenReturn(job);
+        when(job.getLastBuild()).thenReturn(run);
+        when(scmFacade.findGiteaSCMSource(job)).thenReturn(Optional.of(source));
+        when(source.getServerUrl()).thenReturn("https://gitea.example.com");
+        when(source.getCredentialsId()).thenReturn("credentials id");
+        when(scmFacade.findGiteaAppCredentials(job, "credentials id"))
+                .thenReturn(Optional.of(mock(StandardCredentials.class)));
+        when(scmFacade.findRevision(source, run)).thenReturn(Optional.of(revision));
+        when(scmFacade.findHash(revision)).thenReturn(Optional.of(FIRST_SHA));
+        when(scmFacade.findGitSCMs(run)).thenReturn(List.of(gitSCM));
+        when(scmFacade.getUserRemoteConfigs(gitSCM))
+                .thenReturn(List.of(createRemote("https://gitea.example.com/owner/library.git")));
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(scmFacade, createDisplayURLProvider(run, job));
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).containsInstanceOf(GiteaChecksPublisher.class);
+
+        verify(scmFacade, never()).findGiteaAppCredentials(job, "1");
+    }
+
     @Test
     void shouldReturnEmptyFromRunForInvalidProject() {
         var run = mock(Run.class);
@@ -108,6 +354,41 @@ class GiteaPublisherFactoryTest {
         assertThat(factory.createPublisher(job, TaskListener.NULL)).isNotPresent();
     }
 
+    @Test
+    void shouldSkipContextCreationForProjectWithoutGiteaOrGitSCM() {
+        var run = mock(Run.class);
+        var job = mock(Job.class);
+        SCMFacade facade = mock(SCMFacade.class);
+        DisplayURLProvider urlProvider = mock(DisplayURLProvider.class);
+
+        when(run.getParent()).thenReturn(job);
+        when(facade.findGiteaSCMSource(job)).thenReturn(Optional.empty());
+        when(facade.findGitSCMs(run)).thenReturn(List.of());
+
+        GiteaPublisherFactory factory = new GiteaPublisherFactory(facade, urlProvider);
+        assertThat(factory.createPublisher(run, TaskListener.NULL)).isNotPresent();
+
+        verify(facade).findGiteaSCMSource(job);
+        verify(facade).findGitSCMs(run);
+        verify(facade, never()).findGiteaServerUrls();
+        verify(facade, never()).getUserRemoteConfigs(any());
+        verify(facade, never()).findGiteaAppCredentials(any(), any());
+        verifyNoInteractions(urlProvider);
+    }
+
+    private UserRemoteConfig createRemote(final String url) {
+        return new UserRemoteConfig(url, null, null, "1");
+    }
+
+    private BuildData createBuildData(final String remoteUrl, final String sha) {
+        BuildData buildData = mock(BuildData.class);
+        Revision revision = mock(Revision.class);
+        when(revision.getSha1()).thenReturn(ObjectId.fromString(sha));
+        when(buildData.getLastBuiltRevision()).thenReturn(revision);
+        when(buildData.getRemoteUrls()).thenReturn(Set.of(remoteUrl));
+        return buildData;
+    }
+
     private DisplayURLProvider createDisplayURLProvider(final Run<?, ?> run, final Job<?, ?> job) {
         DisplayURLProvider urlProvider = mock(DisplayURLProvider.class);
 
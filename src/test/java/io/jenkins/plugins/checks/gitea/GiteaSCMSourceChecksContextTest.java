@@ -13,6 +13,7 @@ import jenkins.plugins.git.AbstractGitSCMSource;
 import jenkins.scm.api.SCMHead;
 import jenkins.scm.api.SCMRevision;
 import org.jenkinsci.plugin.gitea.GiteaSCMSource;
+import org.jenkinsci.plugin.gitea.PullRequestSCMHead;
 import org.jenkinsci.plugin.gitea.PullRequestSCMRevision;
 import org.jenkinsci.plugins.displayurlapi.ClassicDisplayURLProvider;
 import org.junit.jupiter.api.Test;
@@ -63,6 +64,56 @@ class GiteaSCMSourceChecksContextTest {
                 .isEqualTo("a1b2c3");
     }
 
+    @Test
+    void shouldResolveHeadShaLazilyWithoutFetchingLocallyKnownRevision() {
+        var job = mock(Job.class);
+        SCMHead head = mock(SCMHead.class);
+        AbstractGitSCMSource.SCMRevisionImpl revision = mock(AbstractGitSCMSource.SCMRevisionImpl.class);
+        GiteaSCMSource source = mock(GiteaSCMSource.class);
+        SCMFacade facade = createGiteaSCMFacadeWithSource(job, source);
+
+        when(facade.findHead(job)).thenReturn(Optional.of(head));
+        when(facade.findLocalRevision(job, source, head)).thenReturn(Optional.of(revision));
+        when(facade.findHash(revision)).thenReturn(Optional.of("a1b2c3"));
+
+        GiteaSCMSourceChecksContext context = GiteaSCMSourceChecksContext.fromJob(job, URL, facade);
+        verify(facade, never()).findHead(job);
+
+        assertThat(context.getHeadSha()).isEqualTo("a1b2c3");
+        assertThat(context.getHeadSha()).isEqualTo("a1b2c3");
+        verify(facade, times(1)).findLocalRevision(job, source, head);
+        verify(facade, never()).findRevision(source, head);
+    }
+
+    @Test
+    void shouldGetNumberOfPullRequest() {
+        var job = mock(Job.class);
+        PullRequestSCMHead pullRequest = mock(PullRequestSCMHead.class);
+        SCMFacade facade = createGiteaSCMFacadeWithSource(job, mock(GiteaSCMSource.class));
+
+        when(pullRequest.getId()).thenReturn("7");
+        when(facade.findHead(job)).thenReturn(Optional.of(pullRequest));
+        assertThat(GiteaSCMSourceChecksContext.fromJob(job, URL, facade).getPullRequest())
+                .contains(7L);
+
+        when(facade.findHead(job)).thenReturn(Optional.of(mock(SCMHead.class)));
+        assertThat(GiteaSCMSourceChecksContext.fromJob(job, URL, facade).getPullRequest())
+                .isEmpty();
+    }
+
+    @Test
+    void shouldCacheFetchedRevision() {
+        var job = mock(Job.class);
+        SCMHead head = mock(SCMHead.class);
+        AbstractGitSCMSource.SCMRevisionImpl revision = mock(AbstractGitSCMSource.SCMRevisionImpl.class);
+        GiteaSCMSource source = mock(GiteaSCMSource.class);
+        SCMFacade facade = createGiteaSCMFacadeWithRevision(job, source, head, revision, "a1b2c3");
+
+        assertThat(GiteaSCMSourceChecksContext.fromJob(job, URL, facade).getHeadSha())
+                .isEqualTo("a1b2c3");
+        verify(facade).cacheRevision(job, source, revision);
+    }
+
     @Test
     void shouldThrowIllegalStateExceptionWhenGetHeadShaButNoSCMHeadAvailable() {
         var job = mock(Job.class);
@@ -242,6 +293,30 @@ class GiteaSCMSourceChecksContextTest {
         assertThat(logger.getErrorMessages()).contains("No HEAD SHA found for jenkinsci/gitea-checks");
     }
 
+    @Test
+    void shouldResolveGiteaSCMSourceOnlyOnce() {
+        var job = mock(Job.class);
+        GiteaSCMSource source = mock(GiteaSCMSource.class);
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        FilteredLog logger = new FilteredLog("");
+
+        when(source.getRepoOwner()).thenReturn("jenkinsci");
+        when(source.getRepository()).thenReturn("gitea-checks-plugin");
+        when(source.getServerUrl()).thenReturn("https://gitea.example.com");
+
+        SCMFacade facade = createGiteaSCMFacadeWithCredentials(job, source, credentials, "1");
+        GiteaSCMSourceChecksContext context = GiteaSCMSourceChecksContext.fromJob(job, URL, facade);
+
+        context.isValid(logger);
+        assertThat(context.getRepoOwner()).isEqualTo("jenkinsci");
+        assertThat(context.getRepo()).isEqualTo("gitea-checks-plugin");
+        assertThat(context.getRepository()).isEqualTo("jenkinsci/gitea-checks-plugin");
+        assertThat(context.getGiteaServerUrl()).isEqualTo("https://gitea.example.com");
+        assertThat(context.getCredentials()).isEqualTo(credentials);
+
+        verify(facade, times(1)).findGiteaSCMSource(job);
+    }
+
     private SCMFacade createGiteaSCMFacadeWithRevision(
             final Job<?, ?> job,
             final GiteaSCMSource source,
@@ -0,0 +1,31 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class GiteaServerSettingsTest {
+    @Test
+    void shouldParseMirrorUrls() {
+        GiteaServerSettings settings = new GiteaServerSettings("https://gitea.example.com");
+        assertThat(settings.getMirrors()).isEmpty();
+
+        settings.setMirrorUrls(" https://mirror.example.com/ \r\n\n"
+                + "https://GITEA.example.com/\n"
+                + "https://other-mirror.example.com\n"
+                + "https://mirror.example.com\n");
+
+        assertThat(settings.getMirrors())
+                .containsExactly("https://mirror.example.com", "https://other-mirror.example.com");
+    }
+
+    @Test
+    void shouldUseCredentialsOfServerForMirrorsByDefault() {
+        GiteaServerSettings settings = new GiteaServerSettings("https://gitea.example.com");
+        settings.setMirrorCredentialsId(" ");
+        assertThat(settings.getMirrorCredentialsId()).isNull();
+
+        settings.setMirrorCredentialsId("mirror");
+        assertThat(settings.getMirrorCredentialsId()).isEqualTo("mirror");
+    }
+}
@@ -0,0 +1,87 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import hudson.model.Job;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import jenkins.scm.api.SCMEvent;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadEvent;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMSource;
+import org.junit.jupiter.api.Test;
+
+class HeadRevisionCacheTest {
+    private static final long TIME_TO_LIVE = 1000;
+
+    @Test
+    void shouldReturnCachedRevisionOfSameHeadUntilExpired() {
+        AtomicLong clock = new AtomicLong();
+        HeadRevisionCache cache = new HeadRevisionCache(TIME_TO_LIVE, clock::get);
+        Job<?, ?> job = createJob("multibranch/main");
+        SCMHead head = new SCMHead("main");
+        SCMRevision revision = createRevision(head);
+
+        assertThat(cache.find(job, head)).isEmpty();
+
+        cache.put(job, mock(SCMSource.class), revision);
+        assertThat(cache.find(job, head)).contains(revision);
+        assertThat(cache.find(job, new SCMHead("feature"))).isEmpty();
+
+        clock.addAndGet(TIME_TO_LIVE);
+        assertThat(cache.find(job, head)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void shouldUpdateRevisionFromHeadEvent() {
+        HeadRevisionCache cache = new HeadRevisionCache(TIME_TO_LIVE, () -> 0);
+        Job<?, ?> job = createJob("multibranch/main");
+        SCMSource source = mock(SCMSource.class);
+        SCMHead head = new SCMHead("main");
+        cache.put(job, source, createRevision(head));
+
+        SCMRevision pushed = createRevision(head);
+        SCMHeadEvent event = mock(SCMHeadEvent.class);
+        when(event.getType()).thenReturn(SCMEvent.Type.UPDATED);
+        when(event.isMatch(source)).thenReturn(true);
+        when(event.heads(source)).thenReturn(Collections.singletonMap(head, pushed));
+
+        cache.update(event);
+        assertThat(cache.find(job, head)).contains(pushed);
+
+        when(event.getType()).thenReturn(SCMEvent.Type.REMOVED);
+        cache.update(event);
+        assertThat(cache.find(job, head)).isEmpty();
+    }
+
+    @Test
+    void shouldForgetRevisionsOfDeletedOrRenamedJobs() {
+        HeadRevisionCache cache = new HeadRevisionCache(TIME_TO_LIVE, () -> 0);
+        Job<?, ?> job = createJob("multibranch/main");
+        Job<?, ?> other = createJob("multibranch-2/main");
+        SCMHead head = new SCMHead("main");
+        SCMRevision revision = createRevision(head);
+        cache.put(job, mock(SCMSource.class), revision);
+        cache.put(other, mock(SCMSource.class), revision);
+
+        cache.invalidate("multibranch");
+
+        assertThat(cache.find(job, head)).isEmpty();
+        assertThat(cache.find(other, head)).contains(revision);
+    }
+
+    private Job<?, ?> createJob(final String fullName) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(fullName);
+        return job;
+    }
+
+    private SCMRevision createRevision(final SCMHead head) {
+        SCMRevision revision = mock(SCMRevision.class);
+        when(revision.getHead()).thenReturn(head);
+        return revision;
+    }
+}
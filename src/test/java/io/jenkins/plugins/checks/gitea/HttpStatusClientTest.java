@@ -0,0 +1,87 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.jenkins.plugins.checks.gitea.HttpStatusClient.StatusRequestException;
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutionException;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitState;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitStatus;
+import org.jenkinsci.plugin.gitea.credentials.PersonalAccessTokenImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class HttpStatusClientTest {
+    private static final String STATUSES = "/api/v1/repos/jenkinsci/gitea%20checks/statuses/a1b2c3";
+
+    @RegisterExtension
+    private static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.options().dynamicPort())
+            .build();
+
+    private final HttpStatusClient client =
+            new HttpStatusClient(serverUrl -> 5, serverUrl -> 5, timeout -> HttpClient.newHttpClient());
+
+    @BeforeEach
+    void setUp(final JenkinsRule rule) {
+        wireMock.resetAll();
+    }
+
+    @Test
+    void shouldCreateCommitStatus() throws InterruptedException, ExecutionException {
+        wireMock.stubFor(post(STATUSES).willReturn(created()));
+
+        client.createCommitStatus(createStatus()).get();
+
+        wireMock.verify(postRequestedFor(urlEqualTo(STATUSES))
+                .withHeader("Authorization", equalTo("token secret"))
+                .withRequestBody(equalToJson("{\"state\": \"success\", \"context\": \"build\", "
+                        + "\"description\": \"[1/2] {passed}\", \"target_url\": \"https://ci.example.com/1\"}")));
+    }
+
+    @Test
+    void shouldFailWithStatusAndRetryAfterOfRejectedRequest() {
+        wireMock.stubFor(post(STATUSES).willReturn(status(429).withHeader("Retry-After", "7")));
+
+        assertThatThrownBy(() -> client.createCommitStatus(createStatus()).get())
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOfSatisfying(StatusRequestException.class, exception -> {
+                    assertThat(exception.getStatusCode()).isEqualTo(429);
+                    assertThat(exception.getRetryAfter()).isEqualTo(7000);
+                });
+    }
+
+    @Test
+    void shouldParseRetryAfter() {
+        assertThat(HttpStatusClient.parseRetryAfter("120")).isEqualTo(120_000);
+        assertThat(HttpStatusClient.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT")).isZero();
+        assertThat(HttpStatusClient.parseRetryAfter("soon")).isEqualTo(-1);
+        assertThat(HttpStatusClient.parseRetryAfter(null)).isEqualTo(-1);
+    }
+
+    private PendingCommitStatus createStatus() {
+        GiteaCommitStatus status = new GiteaCommitStatus();
+        status.setContext("build");
+        status.setState(GiteaCommitState.SUCCESS);
+        status.setDescription("[1/2] {passed}");
+        status.setTargetUrl("https://ci.example.com/1");
+
+        return new PendingCommitStatus(
+                wireMock.baseUrl(),
+                new PersonalAccessTokenImpl(CredentialsScope.GLOBAL, "gitea", "Gitea", "secret"),
+                "job",
+                "jenkinsci",
+                "gitea checks",
+                "a1b2c3",
+                status);
+    }
+}
@@ -0,0 +1,105 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static io.jenkins.plugins.checks.gitea.CommitStatusDispatcherTest.createStatus;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import io.jenkins.plugins.checks.gitea.CommitStatusDispatcher.QueueFullPolicy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class MirrorStatusPublisherTest {
+    private static final String MIRROR = "https://mirror.example.com";
+    private static final String OTHER_MIRROR = "https://other-mirror.example.com";
+
+    @Test
+    void shouldSendStatusToEachMirrorWithMirrorCredentials() throws IOException, InterruptedException {
+        List<PendingCommitStatus> sent = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        CommitStatusSender sender = mock(CommitStatusSender.class);
+        doAnswer(invocation -> {
+                    sent.add(invocation.getArgument(0));
+                    done.countDown();
+                    return null;
+                })
+                .when(sender)
+                .send(any());
+        StandardCredentials credentials = mock(StandardCredentials.class);
+
+        CommitStatusDispatcher dispatcher =
+                new CommitStatusDispatcher(sender, () -> 10, () -> 2, () -> QueueFullPolicy.DISCARD);
+        try {
+            PendingCommitStatus status = createStatus("Jenkins");
+            MirrorStatusPublisher publisher = new MirrorStatusPublisher(dispatcher, new PublishedStatusCache(10));
+
+            assertThat(publisher.publish(status, List.of(MIRROR, OTHER_MIRROR), credentials))
+                    .isEqualTo(2);
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(sent)
+                    .extracting(PendingCommitStatus::getServerUrl)
+                    .containsExactlyInAnyOrder(MIRROR, OTHER_MIRROR);
+            assertThat(sent).allSatisfy(mirrored -> {
+                assertThat(mirrored.getCredentials()).isSameAs(credentials);
+                assertThat(mirrored.getSha()).isEqualTo(status.getSha());
+                assertThat(mirrored.getStatus()).isSameAs(status.getStatus());
+                assertThat(mirrored.getSequence()).isNotEqualTo(status.getSequence());
+            });
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void shouldSkipMirrorsThatAlreadyShowTheStatus() {
+        CommitStatusDispatcher dispatcher = new CommitStatusDispatcher(
+                mock(CommitStatusSender.class), () -> 10, () -> 0, () -> QueueFullPolicy.DISCARD);
+        PublishedStatusCache publishedStatuses = new PublishedStatusCache(10);
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        PendingCommitStatus status = createStatus("Jenkins");
+        publishedStatuses.recordPublished(status.forMirror(MIRROR, credentials));
+
+        MirrorStatusPublisher publisher = new MirrorStatusPublisher(dispatcher, publishedStatuses);
+
+        assertThat(publisher.publish(status, List.of(MIRROR, OTHER_MIRROR), credentials))
+                .isEqualTo(1);
+        assertThat(dispatcher.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotWaitForMirrorsThatAreBehind() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CommitStatusSender sender =
+                new CommitStatusSender(mock(GiteaConnectionPool.class), new PublishedStatusCache(10)) {
+            @Override
+            void send(final PendingCommitStatus pending) throws InterruptedException {
+                blocked.countDown();
+                release.await();
+            }
+        };
+
+        CommitStatusDispatcher dispatcher =
+                new CommitStatusDispatcher(sender, () -> 1, () -> 1, () -> QueueFullPolicy.DISCARD);
+        try {
+            MirrorStatusPublisher publisher = new MirrorStatusPublisher(dispatcher, new PublishedStatusCache(10));
+            StandardCredentials credentials = mock(StandardCredentials.class);
+
+            assertThat(publisher.publish(createStatus("build"), List.of(MIRROR), credentials))
+                    .isEqualTo(1);
+            assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(publisher.publish(createStatus("tests"), List.of(MIRROR, OTHER_MIRROR), credentials))
+                    .as("the status for the second mirror is discarded because the queue is full")
+                    .isEqualTo(1);
+        } finally {
+            release.countDown();
+            dispatcher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import org.jenkinsci.plugin.gitea.credentials.PersonalAccessTokenImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class OutputCommentPublisherTest {
+    private static final String COMMENTS = "/api/v1/repos/jenkinsci/gitea-checks-plugin/issues/7/comments";
+    private static final String COMMENT = "/api/v1/repos/jenkinsci/gitea-checks-plugin/issues/comments/42";
+    private static final String USER = "/api/v1/user";
+
+    @RegisterExtension
+    private static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.options().dynamicPort())
+            .build();
+
+    @BeforeEach
+    void setUp(final JenkinsRule rule) {
+        wireMock.resetAll();
+        wireMock.stubFor(get(USER).willReturn(okJson("{\"login\": \"jenkins\"}")));
+        wireMock.stubFor(
+                get(urlPathEqualTo(COMMENTS)).willReturn(okJson("[" + createComment(1, "jenkins", "LGTM") + "]")));
+        wireMock.stubFor(post(COMMENTS).willReturn(okJson("{\"id\": 42}")));
+        wireMock.stubFor(patch(urlEqualTo(COMMENT)).willReturn(okJson("{\"id\": 42}")));
+    }
+
+    @Test
+    void shouldEditCommentOnlyIfOutputChanged() throws IOException, InterruptedException {
+        OutputCommentPublisher publisher = createPublisher();
+
+        assertThat(publisher.publish(createPullRequest("a1b2c3"), "build", "### build (pending)\n")).isTrue();
+        assertThat(publisher.publish(createPullRequest("a1b2c3"), "build", "### build (pending)\n")).isFalse();
+        assertThat(publisher.publish(createPullRequest("a1b2c3"), "tests", "### tests (success)\n")).isTrue();
+
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo(COMMENTS)));
+        wireMock.verify(1, postRequestedFor(urlEqualTo(COMMENTS))
+                .withRequestBody(matchingJsonPath("$.body", containing(OutputCommentPublisher.MARKER))));
+        wireMock.verify(1, patchRequestedFor(urlEqualTo(COMMENT))
+                .withRequestBody(matchingJsonPath("$.body", containing("### build (pending)")))
+                .withRequestBody(matchingJsonPath("$.body", containing("### tests (success)"))));
+    }
+
+    @Test
+    void shouldReplaceOutputsOfPreviousCommit() throws IOException, InterruptedException {
+        OutputCommentPublisher publisher = createPublisher();
+
+        publisher.publish(createPullRequest("a1b2c3"), "build", "### build (failure)\n");
+        publisher.publish(createPullRequest("d4e5f6"), "tests", "### tests (pending)\n");
+
+        wireMock.verify(1, patchRequestedFor(urlEqualTo(COMMENT))
+                .withRequestBody(matchingJsonPath("$.body", containing("d4e5f6")))
+                .withRequestBody(matchingJsonPath("$.body", notContaining("### build"))));
+    }
+
+    @Test
+    void shouldEditExistingCommentAfterRestart() throws IOException, InterruptedException {
+        wireMock.stubFor(get(urlPathEqualTo(COMMENTS))
+                .willReturn(okJson("[" + createComment(1, "jenkins", "LGTM") + ", "
+                        + createComment(42, "jenkins", OutputCommentPublisher.MARKER + "\nold") + "]")));
+
+        assertThat(createPublisher().publish(createPullRequest("a1b2c3"), "build", "### build (success)\n"))
+                .isTrue();
+
+        wireMock.verify(0, postRequestedFor(urlEqualTo(COMMENTS)));
+        wireMock.verify(1, patchRequestedFor(urlEqualTo(COMMENT)));
+    }
+
+    @Test
+    void shouldCreateCommentAgainIfDeleted() throws IOException, InterruptedException {
+        OutputCommentPublisher publisher = createPublisher();
+        publisher.publish(createPullRequest("a1b2c3"), "build", "### build (pending)\n");
+        wireMock.stubFor(patch(urlEqualTo(COMMENT)).willReturn(notFound()));
+
+        assertThat(publisher.publish(createPullRequest("a1b2c3"), "build", "### build (success)\n"))
+                .isTrue();
+
+        wireMock.verify(2, postRequestedFor(urlEqualTo(COMMENTS)));
+    }
+
+    @Test
+    void shouldFindOwnCommentOnLaterPage() throws IOException, InterruptedException {
+        StringBuilder firstPage = new StringBuilder("[")
+                .append(createComment(7, "reviewer", OutputCommentPublisher.MARKER + "\ncopied"));
+        for (int id = 100; id < 149; id++) {
+            firstPage.append(", ").append(createComment(id, "reviewer", "LGTM"));
+        }
+        wireMock.stubFor(get(urlPathEqualTo(COMMENTS))
+                .withQueryParam("page", equalTo("1"))
+                .willReturn(okJson(firstPage.append(']').toString())));
+        wireMock.stubFor(get(urlPathEqualTo(COMMENTS))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(okJson("[" + createComment(42, "jenkins", OutputCommentPublisher.MARKER) + "]")));
+
+        createPublisher().publish(createPullRequest("a1b2c3"), "build", "### build (success)\n");
+
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo(COMMENTS)));
+        wireMock.verify(0, patchRequestedFor(urlEqualTo(COMMENT.replace("42", "7"))));
+        wireMock.verify(1, patchRequestedFor(urlEqualTo(COMMENT)));
+    }
+
+    @Test
+    void shouldRestoreOutputsOfOtherChecksAfterRestart() throws IOException, InterruptedException {
+        OutputCommentPublisher before = createPublisher();
+        before.publish(createPullRequest("a1b2c3"), "build", "### build (success)\n");
+        before.publish(createPullRequest("a1b2c3"), "tests", "### tests (pending)\n");
+        ObjectNode comment = (ObjectNode) new ObjectMapper()
+                .readTree(wireMock.findAll(patchRequestedFor(urlEqualTo(COMMENT))).get(0).getBodyAsString());
+        comment.put("id", 42).putObject("user").put("login", "jenkins");
+        wireMock.stubFor(get(urlPathEqualTo(COMMENTS)).willReturn(okJson("[" + comment + "]")));
+        wireMock.resetRequests();
+
+        createPublisher().publish(createPullRequest("a1b2c3"), "tests", "### tests (success)\n");
+
+        wireMock.verify(1, patchRequestedFor(urlEqualTo(COMMENT))
+                .withRequestBody(matchingJsonPath("$.body", containing("### build (success)")))
+                .withRequestBody(matchingJsonPath("$.body", containing("### tests (success)")))
+                .withRequestBody(matchingJsonPath("$.body", notContaining("### tests (pending)"))));
+    }
+
+    @Test
+    void shouldNotSendCommentToUnavailableServer() throws IOException, InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(() -> 1, () -> 60, () -> 0);
+        circuitBreaker.recordFailure(wireMock.baseUrl());
+        OutputCommentPublisher publisher = new OutputCommentPublisher(
+                createClient(), 10, new RateLimiter(() -> 0, () -> 0, () -> 0), circuitBreaker, Runnable::run);
+
+        assertThatExceptionOfType(CircuitBreaker.ServerUnavailableException.class)
+                .isThrownBy(() -> publisher.publish(createPullRequest("a1b2c3"), "build", "### build (pending)\n"));
+        wireMock.verify(0, anyRequestedFor(anyUrl()));
+
+        circuitBreaker.recordSuccess(wireMock.baseUrl());
+        assertThat(publisher.publishAsync(createPullRequest("a1b2c3"), "build", "### build (success)\n"))
+                .isCompletedWithValue(true);
+        wireMock.verify(1, postRequestedFor(urlEqualTo(COMMENTS))
+                .withRequestBody(matchingJsonPath("$.body", containing("### build (success)"))));
+    }
+
+    private static String createComment(final long id, final String login, final String body) {
+        return String.format(
+                "{\"id\": %d, \"user\": {\"login\": \"%s\"}, \"body\": \"%s\"}",
+                id, login, body.replace("\n", "\\n"));
+    }
+
+    private OutputCommentPublisher createPublisher() {
+        return new OutputCommentPublisher(createClient(), 10);
+    }
+
+    private HttpStatusClient createClient() {
+        return new HttpStatusClient(serverUrl -> 5, serverUrl -> 5, timeout -> HttpClient.newHttpClient());
+    }
+
+    private PullRequest createPullRequest(final String sha) {
+        return new PullRequest(
+                wireMock.baseUrl(),
+                new PersonalAccessTokenImpl(CredentialsScope.GLOBAL, "gitea", "Gitea", "secret"),
+                "jenkinsci",
+                "gitea-checks-plugin",
+                7,
+                sha);
+    }
+}
@@ -0,0 +1,54 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class PlainTextDescriptionTest {
+    @ParameterizedTest
+    @CsvSource(
+            delimiter = '|',
+            quoteCharacter = '"',
+            value = {
+                "# Summary\\nSome *Markdown* text.            | Summary Some Markdown text.",
+                "## Issues\\n- 3 **new**\\n- 2 `fixed`         | Issues 3 new 2 fixed",
+                "1. first\\n2. second\\n> quoted              | first second quoted",
+                "See [the report](https://ci.example.com/1)   | See the report",
+                "![Coverage](https://ci.example.com/badge) 80% | Coverage 80%",
+                "<p>Tests&nbsp;passed:<br/>12 &lt; 13</p>     | Tests passed: 12 < 13",
+                "<!-- marker -->Done &#8211; &unknown;        | Done \u2013 &unknown;",
+                "snake_case and _emphasis_ and \\*stars\\*   | snake_case and emphasis and *stars*",
+                "| File | Issues |\\n|:---|---:|\\n| a.c | 2 |   | File Issues a.c 2",
+                "Title\\n\\n---\\n\\n```java\\nint x;\\n```     | Title int x;",
+                "#123 is not a heading                        | #123 is not a heading",
+                "[1/2] tests                                  | [1/2] tests"
+            })
+    void shouldConvertMarkdownToPlainText(final String markdown, final String expected) {
+        assertThat(PlainTextDescription.create(markdown.replace("\\n", "\n"), 256, false))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void shouldStopWhenDescriptionIsFull() {
+        String markdown = "# Report\n" + StringUtils.repeat("**word** ", 100);
+
+        String description = PlainTextDescription.create(markdown, 20, false);
+
+        assertThat(description).hasSize(20).isEqualTo("Report word word wo\u2026");
+    }
+
+    @Test
+    void shouldNotAddEllipsisIfTextFitsExactly() {
+        assertThat(PlainTextDescription.create("**12345**", 5, false)).isEqualTo("12345");
+        assertThat(PlainTextDescription.create("**12345** <br>", 5, false)).isEqualTo("12345");
+    }
+
+    @Test
+    void shouldMarkTruncatedMarkdown() {
+        assertThat(PlainTextDescription.create("Some text", 256, true)).isEqualTo("Some text\u2026");
+        assertThat(PlainTextDescription.create("<br>", 256, true)).isEmpty();
+    }
+}
@@ -0,0 +1,119 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static io.jenkins.plugins.checks.gitea.CommitStatusDispatcherTest.createStatus;
+import static org.assertj.core.api.Assertions.*;
+
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitState;
+import org.junit.jupiter.api.Test;
+
+class PublishedStatusCacheTest {
+
+    @Test
+    void shouldDetectIdenticalStatusAsPublished() {
+        PublishedStatusCache cache = new PublishedStatusCache(10);
+        PendingCommitStatus published = createStatus("build");
+        published.getStatus().setDescription("Building");
+
+        assertThat(cache.isPublished(published)).isFalse();
+        cache.recordPublished(published);
+
+        PendingCommitStatus repeated = createStatus("build");
+        repeated.getStatus().setDescription("Building");
+        assertThat(cache.isPublished(repeated)).isTrue();
+        assertThat(cache.getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldNotSkipStatusWhileNewerStatusIsPending() {
+        PublishedStatusCache cache = new PublishedStatusCache(10);
+        PendingCommitStatus running = createStatus("build");
+        cache.recordSubmitted(running);
+        cache.recordPublished(running);
+
+        PendingCommitStatus failed = createStatus("build");
+        failed.getStatus().setState(GiteaCommitState.FAILURE);
+        cache.recordSubmitted(failed);
+
+        PendingCommitStatus rerun = createStatus("build");
+        assertThat(cache.isPublished(rerun))
+                .as("the failed status is still queued and would overwrite the running status on Gitea")
+                .isFalse();
+
+        cache.recordSubmitted(rerun);
+        cache.recordPublished(failed);
+        cache.recordPublished(rerun);
+        assertThat(cache.isPublished(createStatus("build"))).isTrue();
+    }
+
+    @Test
+    void shouldNotSkipChangedStatus() {
+        PublishedStatusCache cache = new PublishedStatusCache(10);
+        cache.recordPublished(createStatus("build"));
+
+        PendingCommitStatus completed = createStatus("build");
+        completed.getStatus().setState(GiteaCommitState.SUCCESS);
+        assertThat(cache.isPublished(completed)).isFalse();
+
+        PendingCommitStatus described = createStatus("build");
+        described.getStatus().setDescription("Tests are running");
+        assertThat(cache.isPublished(described)).isFalse();
+
+        assertThat(cache.isPublished(createStatus("tests"))).isFalse();
+        assertThat(cache.getHitCount()).isZero();
+    }
+
+    @Test
+    void shouldForgetLeastRecentlyUsedStatuses() {
+        PublishedStatusCache cache = new PublishedStatusCache(2);
+        cache.recordPublished(createStatus("build"));
+        cache.recordPublished(createStatus("tests"));
+        cache.recordPublished(createStatus("deploy"));
+
+        assertThat(cache.isPublished(createStatus("build"))).isFalse();
+        assertThat(cache.isPublished(createStatus("tests"))).isTrue();
+        assertThat(cache.isPublished(createStatus("deploy"))).isTrue();
+    }
+
+    @Test
+    void shouldRecognizeRetryOfSupersededStatus() {
+        PublishedStatusCache cache = new PublishedStatusCache(10);
+
+        PendingCommitStatus failed = createStatus("build");
+        PendingCommitStatus completed = createStatus("build");
+        completed.getStatus().setState(GiteaCommitState.SUCCESS);
+        cache.recordPublished(completed);
+
+        PendingCommitStatus retry = failed.nextAttempt();
+        assertThat(cache.isSuperseded(retry)).isTrue();
+        assertThat(cache.isSuperseded(completed)).isFalse();
+
+        cache.recordPublished(retry);
+        assertThat(cache.isPublished(createStatus("build"))).isFalse();
+    }
+
+    @Test
+    void shouldRecognizeRetryOfDeliveredStatus() {
+        PublishedStatusCache cache = new PublishedStatusCache(10);
+        PendingCommitStatus timedOut = createStatus("build");
+        assertThat(cache.isDelivered(timedOut.nextAttempt())).isFalse();
+
+        cache.recordPublished(timedOut); // the request completed on the server after the timeout
+        assertThat(cache.isDelivered(timedOut.nextAttempt())).isTrue();
+        assertThat(cache.isDelivered(createStatus("build"))).isFalse();
+    }
+
+    @Test
+    void shouldUseSeparateCacheForMirrors() {
+        PublishedStatusCache primary = PublishedStatusCache.get();
+        PublishedStatusCache mirrors = PublishedStatusCache.forMirrors();
+        assertThat(mirrors).isNotSameAs(primary);
+
+        long hits = primary.getHitCount();
+        long misses = primary.getMissCount();
+        assertThat(mirrors.isPublished(createStatus("build"))).isFalse();
+
+        assertThat(mirrors.getMissCount()).isPositive();
+        assertThat(primary.getHitCount()).isEqualTo(hits);
+        assertThat(primary.getMissCount()).isEqualTo(misses);
+    }
+}
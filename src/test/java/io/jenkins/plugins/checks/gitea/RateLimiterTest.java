@@ -0,0 +1,45 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+    private static final String SERVER_URL = "https://gitea.example.com";
+
+    @Test
+    void shouldQueueRequestsThatExceedBurst() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(() -> 60, () -> 2, clock::get);
+
+        assertThat(limiter.reserve(SERVER_URL)).isZero();
+        assertThat(limiter.reserve(SERVER_URL)).isZero();
+        assertThat(limiter.reserve(SERVER_URL)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.reserve(SERVER_URL)).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(limiter.reserve(SERVER_URL)).isZero();
+        assertThat(limiter.reserve(SERVER_URL)).isZero();
+        assertThat(limiter.reserve(SERVER_URL)).isPositive();
+    }
+
+    @Test
+    void shouldLimitEachServerSeparately() {
+        RateLimiter limiter = new RateLimiter(() -> 60, () -> 1, () -> 0);
+
+        assertThat(limiter.reserve(SERVER_URL)).isZero();
+        assertThat(limiter.reserve("https://other.example.com")).isZero();
+        assertThat(limiter.reserve(SERVER_URL)).isPositive();
+    }
+
+    @Test
+    void shouldNotLimitIfDisabled() {
+        RateLimiter limiter = new RateLimiter(() -> 0, () -> 1, () -> 0);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.reserve(SERVER_URL)).isZero();
+        }
+    }
+}
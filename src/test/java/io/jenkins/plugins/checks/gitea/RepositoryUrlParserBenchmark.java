@@ -0,0 +1,69 @@
+package io.jenkins.plugins.checks.gitea;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares parsing the owner and name of a repository with {@link RepositoryUrlParser} to the previous
+ * implementation, which created a {@link URL} or matched a regular expression for each call.
+ */
+@JmhBenchmark
+@State(Scope.Benchmark)
+public class RepositoryUrlParserBenchmark {
+    @Param({
+        "https://gitea.example.com/jenkinsci/gitea-checks-plugin.git",
+        "git@gitea.example.com:jenkinsci/gitea-checks-plugin.git"
+    })
+    private String url;
+
+    private final RepositoryUrlParser parser = new RepositoryUrlParser();
+
+    @Benchmark
+    public void parseWithPreviousImplementation(final Blackhole blackhole) {
+        // getRepository(), getRepoOwner() and getRepo() each parsed the URL again
+        blackhole.consume(getRepository(url));
+        blackhole.consume(getRepository(url).split("/")[0]);
+        blackhole.consume(getRepository(url).split("/")[1]);
+    }
+
+    @Benchmark
+    public void parseWithoutMemo(final Blackhole blackhole) {
+        RepositoryUrlParser.RepositoryUrl parsed = RepositoryUrlParser.parseUrl(url);
+        blackhole.consume(parsed.getRepository());
+        blackhole.consume(parsed.getOwner());
+        blackhole.consume(parsed.getRepo());
+    }
+
+    @Benchmark
+    public void parseWithMemo(final Blackhole blackhole) {
+        blackhole.consume(parser.parse(url).map(RepositoryUrlParser.RepositoryUrl::getRepository));
+        blackhole.consume(parser.parse(url).map(RepositoryUrlParser.RepositoryUrl::getOwner));
+        blackhole.consume(parser.parse(url).map(RepositoryUrlParser.RepositoryUrl::getRepo));
+    }
+
+    private static String getRepository(final String repositoryUrl) {
+        if (repositoryUrl.startsWith("http")) {
+            URL parsed;
+            try {
+                parsed = new URL(repositoryUrl);
+            } catch (MalformedURLException e) {
+                return StringUtils.EMPTY;
+            }
+
+            String[] pathParts = StringUtils.removeStart(parsed.getPath(), "/").split("/");
+            if (pathParts.length == 2) {
+                return pathParts[0] + "/" + StringUtils.removeEnd(pathParts[1], ".git");
+            }
+        } else if (repositoryUrl.matches("git@.+:.+\\/.+")) {
+            return StringUtils.removeEnd(repositoryUrl.split(":")[1], ".git");
+        }
+        return StringUtils.EMPTY;
+    }
+}
@@ -0,0 +1,98 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static io.jenkins.plugins.checks.gitea.CommitStatusDispatcherTest.createStatus;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.jenkins.plugins.checks.gitea.CircuitBreaker.ServerUnavailableException;
+import io.jenkins.plugins.checks.gitea.HttpStatusClient.StatusRequestException;
+import java.io.IOException;
+import java.net.ConnectException;
+import org.jenkinsci.plugin.gitea.client.api.GiteaHttpStatusException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RetryPolicyTest {
+
+    @Test
+    void shouldBackOffExponentiallyWithJitter() {
+        PendingCommitStatus first = createStatus("build");
+        PendingCommitStatus second = first.nextAttempt();
+        PendingCommitStatus third = second.nextAttempt();
+        IOException failure = new ConnectException("Connection refused");
+
+        RetryPolicy lowest = new RetryPolicy(() -> 5, () -> 0);
+        assertThat(lowest.getRetryDelay(first, failure)).isEqualTo(500);
+        assertThat(lowest.getRetryDelay(second, failure)).isEqualTo(1000);
+        assertThat(lowest.getRetryDelay(third, failure)).isEqualTo(2000);
+
+        RetryPolicy highest = new RetryPolicy(() -> 5, () -> 0.999);
+        assertThat(highest.getRetryDelay(first, failure)).isBetween(500L, 1000L);
+        assertThat(highest.getRetryDelay(third, failure)).isBetween(2000L, 4000L);
+    }
+
+    @Test
+    void shouldWaitUntilCircuitIsClosed() {
+        RetryPolicy policy = new RetryPolicy(() -> 5, () -> 0);
+
+        assertThat(policy.getRetryDelay(
+                        createStatus("build"), new ServerUnavailableException("https://gitea.example.com", 30_000)))
+                .isEqualTo(30_000);
+    }
+
+    @Test
+    void shouldWaitAsLongAsServerAsked() {
+        RetryPolicy policy = new RetryPolicy(() -> 5, () -> 0);
+
+        assertThat(policy.getRetryDelay(createStatus("build"), new StatusRequestException(429, "slow down", 45_000)))
+                .isEqualTo(45_000);
+        assertThat(policy.getRetryDelay(createStatus("build"), new StatusRequestException(422, "invalid", -1)))
+                .isNegative();
+    }
+
+    @Test
+    void shouldLimitNumberOfRetries() {
+        RetryPolicy policy = new RetryPolicy(() -> 1, () -> 0);
+        PendingCommitStatus first = createStatus("build");
+        IOException failure = new IOException("Read timed out");
+
+        assertThat(policy.getRetryDelay(first, failure)).isNotNegative();
+        assertThat(policy.getRetryDelay(first.nextAttempt(), failure)).isNegative();
+        assertThat(new RetryPolicy(() -> 0, () -> 0).getRetryDelay(first, failure)).isNegative();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {408, 500, 502, 504})
+    void shouldRetryTransientHttpStatus(final int statusCode) {
+        assertThat(new RetryPolicy(() -> 3, () -> 0).getRetryDelay(createStatus("build"), createFailure(statusCode)))
+                .isEqualTo(500);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {429, 503})
+    void shouldWaitLongerIfServerIsOverloaded(final int statusCode) {
+        assertThat(new RetryPolicy(() -> 3, () -> 0).getRetryDelay(createStatus("build"), createFailure(statusCode)))
+                .isEqualTo(10_000);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {400, 401, 403, 404, 422})
+    void shouldNotRetryClientErrors(final int statusCode) {
+        assertThat(new RetryPolicy(() -> 3, () -> 0).getRetryDelay(createStatus("build"), createFailure(statusCode)))
+                .isNegative();
+    }
+
+    @Test
+    void shouldNotRetryProgrammingErrors() {
+        assertThat(new RetryPolicy(() -> 3, () -> 0)
+                        .getRetryDelay(createStatus("build"), new IllegalStateException("No credentials")))
+                .isNegative();
+    }
+
+    private GiteaHttpStatusException createFailure(final int statusCode) {
+        GiteaHttpStatusException failure = mock(GiteaHttpStatusException.class);
+        when(failure.getStatusCode()).thenReturn(statusCode);
+        return failure;
+    }
+}
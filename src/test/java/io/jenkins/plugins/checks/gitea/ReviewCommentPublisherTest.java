@@ -0,0 +1,141 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.jenkins.plugins.checks.api.ChecksAnnotation;
+import io.jenkins.plugins.checks.api.ChecksAnnotation.ChecksAnnotationBuilder;
+import io.jenkins.plugins.checks.api.ChecksAnnotation.ChecksAnnotationLevel;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jenkinsci.plugin.gitea.credentials.PersonalAccessTokenImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class ReviewCommentPublisherTest {
+    private static final String DIFF = "/api/v1/repos/jenkinsci/gitea-checks-plugin/pulls/7.diff";
+    private static final String REVIEWS = "/api/v1/repos/jenkinsci/gitea-checks-plugin/pulls/7/reviews";
+
+    @RegisterExtension
+    private static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.options().dynamicPort())
+            .build();
+
+    private final ReviewCommentPublisher publisher = new ReviewCommentPublisher(
+            new HttpStatusClient(serverUrl -> 5, serverUrl -> 5, timeout -> HttpClient.newHttpClient()), 2, 10);
+
+    @BeforeEach
+    void setUp(final JenkinsRule rule) {
+        wireMock.resetAll();
+        wireMock.stubFor(get(DIFF).willReturn(ok(DiffIndexTest.DIFF)));
+        wireMock.stubFor(post(REVIEWS).willReturn(ok("{}")));
+        wireMock.stubFor(get(urlPathEqualTo(REVIEWS)).willReturn(okJson("[]")));
+    }
+
+    @Test
+    void shouldPublishAnnotationsOnChangedLinesInBatches() throws IOException, InterruptedException {
+        List<ChecksAnnotation> annotations = new ArrayList<>();
+        annotations.add(createAnnotation("src/Main.java", 11, "Unused field"));
+        annotations.add(createAnnotation("src/Main.java", 10, "Unchanged line"));
+        annotations.add(createAnnotation("src/Main.java", 12, "Missing javadoc"));
+        annotations.add(createAnnotation("src/Other.java", 1, "Unchanged file"));
+        annotations.add(createAnnotation("docs/new file.txt", 2, "Typo"));
+
+        assertThat(publisher.publish(createPullRequest(), "Warnings", annotations)).isEqualTo(3);
+
+        wireMock.verify(1, getRequestedFor(urlEqualTo(DIFF)));
+        wireMock.verify(2, postRequestedFor(urlEqualTo(REVIEWS)));
+        wireMock.verify(postRequestedFor(urlEqualTo(REVIEWS))
+                .withHeader("Authorization", equalTo("token secret"))
+                .withRequestBody(matchingJsonPath("$.commit_id", equalTo("a1b2c3")))
+                .withRequestBody(matchingJsonPath("$.comments[0].path", equalTo("src/Main.java")))
+                .withRequestBody(matchingJsonPath("$.comments[0].new_position", equalTo("11")))
+                .withRequestBody(matchingJsonPath("$.comments[1].new_position", equalTo("12"))));
+    }
+
+    @Test
+    void shouldPublishEachCommentOnlyOnce() throws IOException, InterruptedException {
+        List<ChecksAnnotation> annotations = List.of(createAnnotation("src/Main.java", 11, "Unused field"));
+
+        assertThat(publisher.publish(createPullRequest(), "Warnings", annotations)).isOne();
+        assertThat(publisher.publish(createPullRequest(), "Warnings", annotations)).isZero();
+
+        wireMock.verify(1, getRequestedFor(urlEqualTo(DIFF)));
+        wireMock.verify(1, postRequestedFor(urlEqualTo(REVIEWS)));
+    }
+
+    @Test
+    void shouldNotPublishCommentsThatExistInGiteaAlready() throws IOException, InterruptedException {
+        wireMock.stubFor(get(urlPathEqualTo(REVIEWS))
+                .willReturn(okJson("[{\"id\": 3, \"commit_id\": \"a1b2c3\", \"comments_count\": 1},"
+                        + " {\"id\": 4, \"commit_id\": \"0f0f0f\", \"comments_count\": 1}]")));
+        wireMock.stubFor(get(REVIEWS + "/3/comments")
+                .willReturn(okJson("[{\"path\": \"src/Main.java\", \"position\": 11,"
+                        + " \"body\": \"**Warning** (Warnings)\\n\\nUnused field\"}]")));
+        List<ChecksAnnotation> annotations = List.of(
+                createAnnotation("src/Main.java", 11, "Unused field"),
+                createAnnotation("src/Main.java", 12, "Missing javadoc"));
+
+        assertThat(publisher.publish(createPullRequest(), "Warnings", annotations)).isOne();
+
+        wireMock.verify(0, getRequestedFor(urlEqualTo(REVIEWS + "/4/comments")));
+        wireMock.verify(postRequestedFor(urlEqualTo(REVIEWS))
+                .withRequestBody(matchingJsonPath("$.comments[0].new_position", equalTo("12")))
+                .withRequestBody(notContaining("Unused field")));
+    }
+
+    @Test
+    void shouldNotPublishSameCommentTwiceIfPublishedConcurrently() throws InterruptedException, ExecutionException {
+        wireMock.stubFor(post(REVIEWS).willReturn(ok("{}").withFixedDelay(200)));
+        List<ChecksAnnotation> annotations = List.of(createAnnotation("src/Main.java", 11, "Unused field"));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ReviewCommentPublisher concurrent = new ReviewCommentPublisher(
+                    new HttpStatusClient(serverUrl -> 5, serverUrl -> 5, timeout -> HttpClient.newHttpClient()),
+                    2,
+                    10,
+                    executor);
+
+            CompletableFuture<Integer> first = concurrent.publishAsync(createPullRequest(), "Warnings", annotations);
+            CompletableFuture<Integer> second =
+                    concurrent.publishAsync(createPullRequest(), "Warnings", annotations);
+
+            assertThat(first.get() + second.get()).isOne();
+            wireMock.verify(1, postRequestedFor(urlEqualTo(REVIEWS)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PullRequest createPullRequest() {
+        return new PullRequest(
+                wireMock.baseUrl(),
+                new PersonalAccessTokenImpl(CredentialsScope.GLOBAL, "gitea", "Gitea", "secret"),
+                "jenkinsci",
+                "gitea-checks-plugin",
+                7,
+                "a1b2c3");
+    }
+
+    private ChecksAnnotation createAnnotation(final String path, final int line, final String message) {
+        return new ChecksAnnotationBuilder()
+                .withPath(path)
+                .withLine(line)
+                .withAnnotationLevel(ChecksAnnotationLevel.WARNING)
+                .withMessage(message)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import java.util.List;
+import jenkins.branch.BranchProjectFactory;
+import jenkins.branch.MultiBranchProject;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMRevisionAction;
+import jenkins.scm.api.SCMSource;
+import org.junit.jupiter.api.Test;
+
+class SCMFacadeTest {
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void shouldPreferIndexedRevisionOverCachedRevision() {
+        SCMHead head = new SCMHead("main");
+        SCMRevision indexed = createRevision(head);
+        Job job = createJob("shouldPreferIndexedRevisionOverCachedRevision/main");
+        MultiBranchProject parent = mock(MultiBranchProject.class);
+        BranchProjectFactory factory = mock(BranchProjectFactory.class);
+        when(job.getParent()).thenReturn(parent);
+        when(parent.getProjectFactory()).thenReturn(factory);
+        when(factory.isProject(job)).thenReturn(true);
+        when(factory.getRevision(job)).thenReturn(indexed);
+
+        SCMFacade facade = new SCMFacade();
+        SCMSource source = mock(SCMSource.class);
+        facade.cacheRevision(job, source, createRevision(head));
+
+        assertThat(facade.findLocalRevision(job, source, head)).contains(indexed);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void shouldNotCacheRevisionOfLastBuild() {
+        SCMHead head = new SCMHead("main");
+        SCMRevision built = createRevision(head);
+        SCMSource source = mock(SCMSource.class);
+        when(source.getId()).thenReturn("gitea");
+        Run lastBuild = mock(Run.class);
+        when(lastBuild.getActions(SCMRevisionAction.class)).thenReturn(List.of(new SCMRevisionAction(source, built)));
+        Job job = createJob("shouldNotCacheRevisionOfLastBuild/main");
+        when(job.getLastBuild()).thenReturn(lastBuild);
+
+        assertThat(new SCMFacade().findLocalRevision(job, source, head)).contains(built);
+        assertThat(HeadRevisionCache.get().find(job, head)).isEmpty();
+    }
+
+    private Job<?, ?> createJob(final String fullName) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(fullName);
+        return job;
+    }
+
+    private SCMRevision createRevision(final SCMHead head) {
+        SCMRevision revision = mock(SCMRevision.class);
+        when(revision.getHead()).thenReturn(head);
+        return revision;
+    }
+}
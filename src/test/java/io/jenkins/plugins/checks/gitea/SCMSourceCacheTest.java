@@ -0,0 +1,79 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import hudson.model.Item;
+import hudson.model.Job;
+import java.util.function.Function;
+import jenkins.scm.api.SCMSource;
+import org.junit.jupiter.api.Test;
+
+class SCMSourceCacheTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldResolveSourceOnceUntilParentIsInvalidated() {
+        SCMSourceCache cache = new SCMSourceCache();
+        Job<?, ?> job = createJob("multibranch/main");
+        SCMSource source = mock(SCMSource.class);
+        Function<Job<?, ?>, SCMSource> resolver = mock(Function.class);
+        when(resolver.apply(job)).thenReturn(source);
+
+        assertThat(cache.findSource(job, resolver)).isSameAs(source);
+        assertThat(cache.findSource(job, resolver)).isSameAs(source);
+        verify(resolver, times(1)).apply(job);
+
+        Item other = mock(Item.class);
+        when(other.getFullName()).thenReturn("multibranch-other");
+        cache.invalidate(other);
+        assertThat(cache.findSource(job, resolver)).isSameAs(source);
+        verify(resolver, times(1)).apply(job);
+
+        Item parent = mock(Item.class);
+        when(parent.getFullName()).thenReturn("multibranch");
+        cache.invalidate(parent);
+        assertThat(cache.findSource(job, resolver)).isSameAs(source);
+        verify(resolver, times(2)).apply(job);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCacheMissingSource() {
+        SCMSourceCache cache = new SCMSourceCache();
+        Job<?, ?> job = createJob("freestyle");
+        Function<Job<?, ?>, SCMSource> resolver = mock(Function.class);
+
+        assertThat(cache.findSource(job, resolver)).isNull();
+        assertThat(cache.findSource(job, resolver)).isNull();
+        verify(resolver, times(1)).apply(job);
+
+        cache.invalidate(job);
+        assertThat(cache.findSource(job, resolver)).isNull();
+        verify(resolver, times(2)).apply(job);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldForgetSourcesByFullNameOfParent() {
+        SCMSourceCache cache = new SCMSourceCache();
+        Job<?, ?> job = createJob("multibranch/main");
+        Function<Job<?, ?>, SCMSource> resolver = mock(Function.class);
+        when(resolver.apply(job)).thenReturn(mock(SCMSource.class));
+
+        cache.findSource(job, resolver);
+        cache.invalidate("multibranch-2");
+        cache.findSource(job, resolver);
+        verify(resolver, times(1)).apply(job);
+
+        cache.invalidate("multibranch");
+        cache.findSource(job, resolver);
+        verify(resolver, times(2)).apply(job);
+    }
+
+    private Job<?, ?> createJob(final String fullName) {
+        Job<?, ?> job = mock(Job.class);
+        when(job.getFullName()).thenReturn(fullName);
+        return job;
+    }
+}
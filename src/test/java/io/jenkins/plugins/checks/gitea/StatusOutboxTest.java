@@ -0,0 +1,245 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static io.jenkins.plugins.checks.gitea.CommitStatusDispatcherTest.createStatus;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.cloudbees.plugins.credentials.common.StandardCredentials;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StatusOutboxTest {
+    @TempDir
+    private Path home;
+
+    @Test
+    void shouldRedeliverPendingStatusesAfterRestart() {
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        StatusOutbox outbox = createOutbox(Optional.of(credentials));
+        PendingCommitStatus delivered = createStatus("build");
+        PendingCommitStatus pending = createStatus("test");
+        pending.getStatus().setDescription("[1/2] tests {passed}");
+        outbox.add(delivered);
+        outbox.add(pending);
+        outbox.acknowledge(delivered);
+        outbox.close();
+
+        StatusOutbox restarted = createOutbox(Optional.of(credentials));
+        assertThat(restarted.takeDeferred()).as("the file is loaded in the background").isEmpty();
+        restarted.flush();
+        List<PendingCommitStatus> redelivered = restarted.takeDeferred();
+
+        assertThat(redelivered).hasSize(1);
+        PendingCommitStatus status = redelivered.get(0);
+        assertThat(status.getKey()).isEqualTo(pending.getKey());
+        assertThat(status.getCredentials()).isSameAs(credentials);
+        assertThat(status.getJobName()).isEqualTo("job");
+        assertThat(status.getStatus().getState()).isEqualTo(GiteaCommitState.PENDING);
+        assertThat(status.getStatus().getDescription()).isEqualTo("[1/2] tests {passed}");
+        assertThat(restarted.takeDeferred()).isEmpty();
+    }
+
+    @Test
+    void shouldKeepLatestStatusOfContext() {
+        StatusOutbox outbox = createOutbox(Optional.of(mock(StandardCredentials.class)));
+        PendingCommitStatus older = createStatus("build");
+        PendingCommitStatus newer = createStatus("build");
+        outbox.add(older);
+        outbox.add(newer);
+
+        outbox.acknowledge(older);
+        assertThat(outbox.size()).isOne();
+
+        outbox.acknowledge(newer);
+        assertThat(outbox.size()).isZero();
+    }
+
+    @Test
+    void shouldRedeliverDeferredStatuses() {
+        StatusOutbox outbox = createOutbox(Optional.of(mock(StandardCredentials.class)));
+        PendingCommitStatus status = createStatus("build");
+        outbox.add(status);
+        assertThat(outbox.takeDeferred()).isEmpty();
+
+        outbox.defer(status.nextAttempt());
+
+        assertThat(outbox.takeDeferred()).containsExactly(status);
+    }
+
+    @Test
+    void shouldCompactAcknowledgedStatuses() throws IOException {
+        StatusOutbox outbox = createOutbox(Optional.of(mock(StandardCredentials.class)));
+        for (int i = 0; i < 10; i++) {
+            PendingCommitStatus status = createStatus("build-" + i);
+            outbox.add(status);
+            outbox.acknowledge(status);
+        }
+        outbox.add(createStatus("test"));
+        assertThat(readOutbox()).hasSize(21);
+
+        outbox.compact();
+
+        assertThat(readOutbox()).hasSize(1).allSatisfy(line -> assertThat(line).contains("\"test\""));
+    }
+
+    @Test
+    void shouldDropStatusesWithoutCredentials() {
+        StatusOutbox outbox = createOutbox(Optional.of(mock(StandardCredentials.class)));
+        outbox.add(createStatus("build"));
+        outbox.close();
+
+        StatusOutbox restarted = createOutbox(Optional.empty());
+        restarted.flush();
+
+        assertThat(restarted.takeDeferred()).isEmpty();
+        assertThat(restarted.size()).isZero();
+    }
+
+    @Test
+    void shouldSkipCorruptRecords() throws IOException {
+        StatusOutbox outbox = createOutbox(Optional.of(mock(StandardCredentials.class)));
+        outbox.add(createStatus("build"));
+        outbox.close();
+        Files.writeString(getOutboxFile().toPath(), "{\"op\":\"add\",\"id\":", StandardOpenOption.APPEND);
+
+        StatusOutbox restarted = createOutbox(Optional.of(mock(StandardCredentials.class)));
+        restarted.flush();
+
+        assertThat(restarted.takeDeferred()).hasSize(1);
+    }
+
+    @Test
+    void shouldWriteStatusesInBackground() throws IOException {
+        List<Runnable> writes = new ArrayList<>();
+        StatusOutbox outbox = new StatusOutbox(
+                this::getOutboxFile, (job, id) -> Optional.of(mock(StandardCredentials.class)), writes::add);
+        PendingCommitStatus build = createStatus("build");
+        PendingCommitStatus test = createStatus("test");
+
+        outbox.add(build);
+        outbox.add(test);
+        assertThat(writes).as("a single write is scheduled").hasSize(1);
+        assertThat(getOutboxFile()).doesNotExist();
+
+        writes.forEach(Runnable::run);
+        assertThat(readOutbox()).hasSize(2);
+    }
+
+    @Test
+    void shouldNotWriteStatusThatIsAcknowledgedBeforeItIsWritten() throws IOException {
+        List<Runnable> writes = new ArrayList<>();
+        StatusOutbox outbox = new StatusOutbox(
+                this::getOutboxFile, (job, id) -> Optional.of(mock(StandardCredentials.class)), writes::add);
+        PendingCommitStatus published = createStatus("build");
+        PendingCommitStatus pending = createStatus("test");
+
+        outbox.add(published);
+        outbox.add(pending);
+        outbox.acknowledge(published);
+        writes.forEach(Runnable::run);
+
+        assertThat(readOutbox()).hasSize(1).allSatisfy(line -> assertThat(line).contains("\"test\""));
+    }
+
+    @Test
+    void shouldKeepStatusesAddedBeforeFileIsLoaded() {
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        StatusOutbox outbox = createOutbox(Optional.of(credentials));
+        outbox.add(createStatus("build"));
+        outbox.add(createStatus("test"));
+        outbox.close();
+
+        List<Runnable> writes = new ArrayList<>();
+        StatusOutbox restarted =
+                new StatusOutbox(this::getOutboxFile, (job, id) -> Optional.of(credentials), writes::add);
+        PendingCommitStatus newer = createStatus("build");
+        restarted.add(newer);
+        writes.forEach(Runnable::run);
+
+        assertThat(restarted.size()).isEqualTo(2);
+        assertThat(restarted.takeDeferred())
+                .as("only the status from before the restart is redelivered")
+                .hasSize(1)
+                .allSatisfy(status -> assertThat(status.getStatus().getContext()).isEqualTo("test"));
+
+        restarted.acknowledge(newer);
+        restarted.close();
+        StatusOutbox again = createOutbox(Optional.of(credentials));
+        again.flush();
+        assertThat(again.size()).isOne();
+    }
+
+    @Test
+    void shouldDropStatusesThatHaveNotBeenDeliveredWithinMaximumAge() {
+        AtomicLong clock = new AtomicLong();
+        StatusOutbox outbox = createOutbox(clock);
+        PendingCommitStatus expired = createStatus("build");
+        outbox.add(expired);
+        outbox.defer(expired);
+        clock.addAndGet(TimeUnit.HOURS.toMillis(2));
+        PendingCommitStatus recent = createStatus("test");
+        outbox.add(recent);
+        outbox.defer(recent);
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(61));
+        outbox.expire();
+
+        assertThat(outbox.size()).isOne();
+        assertThat(outbox.takeDeferred()).containsExactly(recent);
+        outbox.close();
+
+        StatusOutbox restarted = createOutbox(clock);
+        restarted.flush();
+        assertThat(restarted.size()).as("the creation time survives a restart").isOne();
+
+        clock.addAndGet(TimeUnit.HOURS.toMillis(2));
+        restarted.expire();
+        assertThat(restarted.size()).isZero();
+    }
+
+    @Test
+    void shouldNotPersistWithoutFile() {
+        StatusOutbox outbox = new StatusOutbox(() -> null, (job, id) -> Optional.empty());
+        PendingCommitStatus status = createStatus("build");
+
+        outbox.add(status);
+        outbox.defer(status);
+
+        assertThat(outbox.size()).isZero();
+        assertThat(outbox.takeDeferred()).isEmpty();
+    }
+
+    private StatusOutbox createOutbox(final Optional<StandardCredentials> credentials) {
+        return new StatusOutbox(this::getOutboxFile, (job, id) -> credentials);
+    }
+
+    private StatusOutbox createOutbox(final AtomicLong clock) {
+        StandardCredentials credentials = mock(StandardCredentials.class);
+        return new StatusOutbox(
+                this::getOutboxFile,
+                (job, id) -> Optional.of(credentials),
+                Runnable::run,
+                clock::get,
+                TimeUnit.HOURS.toMillis(3));
+    }
+
+    private File getOutboxFile() {
+        return home.resolve("outbox.jsonl").toFile();
+    }
+
+    private List<String> readOutbox() throws IOException {
+        return Files.readAllLines(getOutboxFile().toPath(), StandardCharsets.UTF_8);
+    }
+}
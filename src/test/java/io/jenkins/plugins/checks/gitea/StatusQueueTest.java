@@ -0,0 +1,114 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static io.jenkins.plugins.checks.gitea.CommitStatusDispatcherTest.createStatus;
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jenkinsci.plugin.gitea.client.api.GiteaCommitState;
+import org.junit.jupiter.api.Test;
+
+class StatusQueueTest {
+
+    @Test
+    void shouldReplaceQueuedStatusOfSameContext() throws InterruptedException {
+        StatusQueue queue = new StatusQueue(() -> 10);
+
+        PendingCommitStatus queued = createStatus("build");
+        PendingCommitStatus other = createStatus("tests");
+        PendingCommitStatus inProgress = createStatus("build");
+        PendingCommitStatus completed = createStatus("build");
+        completed.getStatus().setState(GiteaCommitState.SUCCESS);
+
+        assertThat(queue.offer(queued)).isTrue();
+        assertThat(queue.offer(other)).isTrue();
+        assertThat(queue.offer(inProgress)).isTrue();
+        queue.put(completed);
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.getCoalescedCount()).isEqualTo(2);
+        assertThat(queue.take()).isSameAs(completed);
+        assertThat(queue.take()).isSameAs(other);
+    }
+
+    @Test
+    void shouldAcceptSupersedingStatusWhenFull() {
+        StatusQueue queue = new StatusQueue(() -> 1);
+
+        assertThat(queue.offer(createStatus("build"))).isTrue();
+        assertThat(queue.offer(createStatus("tests"))).isFalse();
+        assertThat(queue.offer(createStatus("build"))).isTrue();
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGiveUpWaitingForSpaceAfterTimeout() throws InterruptedException {
+        StatusQueue queue = new StatusQueue(() -> 1);
+        assertThat(queue.offer(createStatus("build"))).isTrue();
+
+        assertThat(queue.offer(createStatus("tests"), 10, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(queue.offer(createStatus("build"), 10, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDrainStatusesOfSameCommit() throws InterruptedException {
+        StatusQueue queue = new StatusQueue(() -> 10);
+        PendingCommitStatus build = createStatus("build");
+        PendingCommitStatus tests = createStatus("tests");
+        PendingCommitStatus otherCommit = new PendingCommitStatus(
+                build.getServerUrl(),
+                build.getCredentials(),
+                "job",
+                build.getRepoOwner(),
+                build.getRepo(),
+                "d4e5f6",
+                createStatus("analysis").getStatus());
+        PendingCommitStatus analysis = createStatus("analysis");
+        assertThat(queue.offer(build)).isTrue();
+        assertThat(queue.offer(tests)).isTrue();
+        assertThat(queue.offer(otherCommit)).isTrue();
+        assertThat(queue.offer(analysis)).isTrue();
+
+        PendingCommitStatus head = queue.take();
+        assertThat(queue.drainSameCommit(head, 1, 0)).containsExactly(tests);
+        assertThat(queue.drainSameCommit(head, 10, TimeUnit.SECONDS.toNanos(10))).containsExactly(analysis);
+        assertThat(queue.take()).isSameAs(otherCommit);
+        assertThat(queue.drainSameCommit(otherCommit, 10, TimeUnit.MILLISECONDS.toNanos(10))).isEmpty();
+    }
+
+    @Test
+    void shouldNotHandOutStatusWhileStatusOfSameContextIsInFlight() throws InterruptedException {
+        StatusQueue queue = new StatusQueue(() -> 10);
+        PendingCommitStatus running = createStatus("build");
+        PendingCommitStatus completed = createStatus("build");
+        PendingCommitStatus tests = createStatus("tests");
+
+        queue.put(running);
+        assertThat(queue.take()).isSameAs(running);
+
+        queue.put(completed);
+        queue.put(tests);
+        assertThat(queue.drainSameCommit(running, 10, 0)).containsExactly(tests);
+        assertThat(queue.size()).isEqualTo(1);
+
+        Thread releaser = new Thread(() -> queue.release(List.of(running)));
+        releaser.start();
+        assertThat(queue.take()).isSameAs(completed);
+        releaser.join();
+    }
+
+    @Test
+    void shouldKeepNewerStatusWhenOlderStatusIsRetried() throws InterruptedException {
+        StatusQueue queue = new StatusQueue(() -> 10);
+
+        PendingCommitStatus failed = createStatus("build");
+        PendingCommitStatus completed = createStatus("build");
+
+        queue.put(completed);
+        assertThat(queue.offer(failed.nextAttempt())).isTrue();
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.take()).isSameAs(completed);
+    }
+}
@@ -0,0 +1,129 @@
+package io.jenkins.plugins.checks.gitea;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TimeLimiterTest {
+    private static final String SERVER_URL = "https://gitea.example.com";
+    private static final String OTHER_SERVER_URL = "https://other-gitea.example.com";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final TimeLimiter limiter = new TimeLimiter(executor, 2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldReturnResultOfCall() throws IOException, InterruptedException {
+        assertThat(limiter.call(SERVER_URL, "Request", 1000, () -> "result")).isEqualTo("result");
+    }
+
+    @Test
+    void shouldInterruptCallAfterTimeout() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> limiter.call(SERVER_URL, "Request to https://gitea.example.com", 10, () -> {
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    } catch (InterruptedException exception) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                }))
+                .isInstanceOf(SocketTimeoutException.class)
+                .hasMessage("Request to https://gitea.example.com did not complete within 10 ms");
+
+        assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldRethrowFailureOfCall() {
+        assertThatThrownBy(() -> limiter.call(SERVER_URL, "Request", 1000, () -> {
+                    throw new IOException("Bad Gateway");
+                }))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Bad Gateway");
+        assertThatThrownBy(() -> limiter.call(SERVER_URL, "Request", 1000, () -> {
+                    throw new IllegalStateException("No credentials");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldRejectCallIfAllThreadsAreBusy() {
+        ExecutorService bounded = TimeLimiter.createExecutor(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            TimeLimiter single = new TimeLimiter(bounded, 2);
+            bounded.submit(() -> {
+                release.await();
+                return null;
+            });
+
+            assertThatThrownBy(() -> single.call(SERVER_URL, "Request", 1000, () -> "result"))
+                    .isInstanceOf(TimeLimiter.SaturatedException.class)
+                    .hasMessageContaining("Request has been rejected");
+        } finally {
+            release.countDown();
+            bounded.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRunInCurrentThreadWithoutTimeout() throws IOException, InterruptedException {
+        Thread caller = Thread.currentThread();
+
+        assertThat(limiter.call(SERVER_URL, "Request", 0, Thread::currentThread)).isSameAs(caller);
+    }
+
+    @Test
+    void shouldBoundThreadsOfEachServer() throws IOException, InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 2; i++) {
+                assertThatThrownBy(() -> limiter.call(SERVER_URL, "Request", 10, () -> {
+                            awaitIgnoringInterrupts(release); // like a hung request of the Gitea client
+                            return null;
+                        }))
+                        .isInstanceOf(SocketTimeoutException.class);
+            }
+
+            assertThatThrownBy(() -> limiter.call(SERVER_URL, "Request", 1000, () -> "result"))
+                    .isInstanceOf(TimeLimiter.SaturatedException.class);
+            assertThat(limiter.call(OTHER_SERVER_URL, "Request", 1000, () -> "result"))
+                    .isEqualTo("result");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldRunNestedCallInThreadOfOuterCall() throws IOException, InterruptedException {
+        Thread[] threads = limiter.call(SERVER_URL, "Publishing", 1000, () -> new Thread[] {
+            Thread.currentThread(), limiter.call(SERVER_URL, "Request", 1000, Thread::currentThread)
+        });
+
+        assertThat(threads[1]).isSameAs(threads[0]).isNotSameAs(Thread.currentThread());
+    }
+
+    private static void awaitIgnoringInterrupts(final CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException exception) {
+                // keep waiting
+            }
+        }
+    }
+}